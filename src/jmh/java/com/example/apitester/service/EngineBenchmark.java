@@ -0,0 +1,72 @@
+package com.example.apitester.service;
+
+import com.example.apitester.config.ApiTesterProperties;
+import com.example.apitester.history.RunHistoryStore;
+import com.example.apitester.model.ExecutionResult;
+import com.example.apitester.model.YamlFileData;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The reactor and jdk execution engines side by side: throughput and latency percentiles (sample mode
+ * reports p0.99) of 32 concurrent callers against the {@link StubServerState} stub.
+ * Allocation rates come from the gc profiler the benchmark profile enables. The jdk engine runs on
+ * virtual threads only when the benchmark runs on Java 21 or later.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(32)
+@Fork(1)
+public class EngineBenchmark {
+
+    @Param({"reactor", "jdk"})
+    public String engine;
+
+    private WebClientRegistry webClients;
+    private JdkExecutionEngine jdkEngine;
+    private RequestService requestService;
+    private YamlFileData suite;
+    private ExecutionRun run;
+
+    @Setup
+    public void setup(StubServerState stub) {
+        String yaml = "engine: " + engine + "\n"
+                + "requests:\n"
+                + "  - id: get\n"
+                + "    method: GET\n"
+                + "    url: items/42\n"
+                + "  - id: owner\n"
+                + "    method: GET\n"
+                + "    url: items/{{get.response.owner.id}}?tag={{get.response.owner.tags[1]}}\n";
+        suite = stub.suite("engines.yaml", yaml);
+
+        ApiTesterProperties properties = new ApiTesterProperties();
+        properties.getResponse().setSpill(false);
+        RequestMetrics metrics = new RequestMetrics(new SimpleMeterRegistry());
+        webClients = new WebClientRegistry(properties, metrics);
+        jdkEngine = new JdkExecutionEngine(properties);
+        requestService = new RequestService(properties, List.of(new ReactorExecutionEngine(webClients), jdkEngine),
+                metrics, new RunHistoryStore(properties), new SpillStore(properties), new ResponseCache(properties));
+        run = new ExecutionRun("benchmark");
+        requestService.executeFile(run, suite, false, 0).block(Duration.ofSeconds(10));
+    }
+
+    @TearDown
+    public void tearDown() {
+        webClients.shutdown();
+        jdkEngine.shutdown();
+    }
+
+    // A request whose {{ref}}s resolve against the stored run, as load runs repeat it.
+    @Benchmark
+    public ExecutionResult execute() {
+        return requestService.execute(run, suite, suite.getRequests().get(1), false).block(Duration.ofSeconds(10));
+    }
+}
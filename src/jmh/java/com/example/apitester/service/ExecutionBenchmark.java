@@ -0,0 +1,72 @@
+package com.example.apitester.service;
+
+import com.example.apitester.config.ApiTesterProperties;
+import com.example.apitester.history.RunHistoryStore;
+import com.example.apitester.model.YamlFileData;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end request execution (template rendering, pooled WebClient, streamed body handling,
+ * value extraction) against the {@link StubServerState} stub.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExecutionBenchmark {
+
+    private WebClientRegistry webClients;
+    private RequestService requestService;
+    private YamlFileData suite;
+    private ExecutionRun run;
+
+    @Setup
+    public void setup(StubServerState stub) {
+        String yaml = "requests:\n"
+                + "  - id: create\n"
+                + "    method: POST\n"
+                + "    url: items\n"
+                + "    headers:\n"
+                + "      Content-Type: application/json\n"
+                + "    requestBody: '{\"name\": \"benchmark item\"}'\n"
+                + "  - id: get\n"
+                + "    method: GET\n"
+                + "    url: items/{{create.response.id}}\n"
+                + "  - id: owner\n"
+                + "    method: GET\n"
+                + "    url: items/{{get.response.owner.id}}?tag={{get.response.owner.tags[1]}}\n";
+        suite = stub.suite("benchmark.yaml", yaml);
+
+        ApiTesterProperties properties = new ApiTesterProperties();
+        properties.getResponse().setSpill(false);
+        webClients = new WebClientRegistry(properties, new RequestMetrics(new SimpleMeterRegistry()));
+        requestService = new RequestService(properties, List.of(new ReactorExecutionEngine(webClients)),
+                new RequestMetrics(new SimpleMeterRegistry()), new RunHistoryStore(properties), new SpillStore(properties), new ResponseCache(properties));
+        run = new ExecutionRun("benchmark");
+        requestService.executeFile(run, suite, false, 0).block(Duration.ofSeconds(10));
+    }
+
+    @TearDown
+    public void tearDown() {
+        webClients.shutdown();
+    }
+
+    // A single request whose {{ref}}s resolve against the stored run.
+    @Benchmark
+    public String executeRequest() {
+        return requestService.executeRequest(run, suite, suite.getRequests().get(2), false).block(Duration.ofSeconds(10));
+    }
+
+    // The three-request dependency chain in a fresh run.
+    @Benchmark
+    public List<String> executeFile() {
+        return requestService.executeFile(new ExecutionRun("benchmark-file"), suite, false, 0).block(Duration.ofSeconds(10));
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.apitester.service;
+
+import com.example.apitester.template.Reference;
+import com.example.apitester.template.ReferenceResolver;
+import com.example.apitester.template.RequestTemplate;
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reference parsing, template compilation and rendering of {{ref}} templates against a run's
+ * stored values, with deep object paths and array indexes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReferenceResolutionBenchmark {
+
+    private static final String DEEP_REFERENCE = "login.response.data.session.user.profile.address.city";
+    private static final String ARRAY_REFERENCE = "search.response.results[3].items[1].tags[0]";
+
+    private static final String BODY = "{\"city\": \"{{" + DEEP_REFERENCE + "}}\", "
+            + "\"tag\": \"{{" + ARRAY_REFERENCE + "}}\", "
+            + "\"token\": \"{{login.response.data.session.token}}\", "
+            + "\"first\": {{search.response.results[0].id}}, "
+            + "\"items\": {{search.response.results[3].items}}, "
+            + "\"note\": \"a constant stretch of text that sits between the references and has to be copied as is\"}";
+
+    private ExecutionRun run;
+    private RequestTemplate template;
+    private ReferenceResolver resolver;
+
+    @Setup
+    public void setup() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        JsonNode login = mapper.readTree("{\"data\": {\"session\": {\"token\": \"abc123\", "
+                + "\"user\": {\"profile\": {\"address\": {\"city\": \"Pune\"}}}}}}");
+        StringBuilder results = new StringBuilder("{\"results\": [");
+        for (int i = 0; i < 5; i++) {
+            results.append(i == 0 ? "" : ",").append("{\"id\": ").append(i).append(", \"items\": [")
+                    .append("{\"tags\": [\"x\"]}, {\"tags\": [\"t").append(i).append("\", \"u\"]}]}");
+        }
+        JsonNode search = mapper.readTree(results.append("]}").toString());
+
+        template = RequestTemplate.compile(BODY);
+        run = new ExecutionRun("benchmark");
+        Map<String, Map<JsonPointer, JsonNode>> values = new HashMap<>();
+        Map<String, JsonNode> roots = Map.of("login", login, "search", search);
+        for (Reference reference : template.getReferences()) {
+            values.computeIfAbsent(reference.getRequestId(), id -> new HashMap<>())
+                    .put(reference.getPointer(), roots.get(reference.getRequestId()).at(reference.getPointer()));
+        }
+        values.forEach((id, stored) -> run.putResponse(id, stored, 1024));
+        resolver = reference -> RequestService.resolveReferenceValue(reference, run);
+    }
+
+    @Benchmark
+    public Reference parseDeepReference() {
+        return Reference.parse(DEEP_REFERENCE);
+    }
+
+    @Benchmark
+    public Reference parseArrayReference() {
+        return Reference.parse(ARRAY_REFERENCE);
+    }
+
+    @Benchmark
+    public RequestTemplate compileTemplate() {
+        return RequestTemplate.compile(BODY);
+    }
+
+    @Benchmark
+    public String resolveReferenceValue() {
+        return resolver.resolve(template.getReferences().get(1));
+    }
+
+    @Benchmark
+    public String renderTemplate() {
+        return template.render(resolver);
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.apitester.service;
+
+import ch.qos.logback.classic.Level;
+import com.example.apitester.model.YamlFileData;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * An in-process Reactor Netty stub on a loopback port, shared by the benchmarks that execute requests.
+ * POST /items and GET /items/{id} both answer with the same ~1.6 KB JSON item.
+ */
+@State(Scope.Benchmark)
+public class StubServerState {
+
+    private static final String ITEM = "{\"id\": 42, \"name\": \"benchmark item\", \"owner\": {\"id\": 7, \"tags\": [\"a\", \"b\"]}, "
+            + "\"description\": \"" + "x".repeat(1500) + "\"}";
+
+    private DisposableServer server;
+
+    @Setup
+    public void setup() {
+        // Logging at INFO or below would dominate the measurement.
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+        server = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .route(routes -> routes
+                        .post("/items", (request, response) -> request.receive().then(
+                                response.status(201).header("Content-Type", "application/json").sendString(Mono.just(ITEM)).then()))
+                        .get("/items/{id}", (request, response) ->
+                                response.header("Content-Type", "application/json").sendString(Mono.just(ITEM))))
+                .bindNow();
+    }
+
+    @TearDown
+    public void tearDown() {
+        server.disposeNow();
+    }
+
+    // Parse a suite whose baseUrl is the stub; 'yaml' is everything after the baseUrl line.
+    YamlFileData suite(String fileName, String yaml) {
+        String source = "baseUrl: http://127.0.0.1:" + server.port() + "/\n" + yaml;
+        YamlFileData suite = new YamlSuiteParser().parse(fileName, new ByteArrayInputStream(source.getBytes(StandardCharsets.UTF_8)));
+        RequestCatalogService.indexReferences(List.of(suite));
+        return suite;
+    }
+}
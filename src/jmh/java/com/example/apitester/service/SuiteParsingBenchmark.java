@@ -0,0 +1,111 @@
+package com.example.apitester.service;
+
+import ch.qos.logback.classic.Level;
+import com.example.apitester.config.ApiTesterProperties;
+import com.example.apitester.model.RequestCatalog;
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Loading a large generated suite directory into a catalog, and extracting referenced values
+ * from a large response body.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SuiteParsingBenchmark {
+
+    @Param({"20"})
+    public int files;
+
+    @Param({"100"})
+    public int requestsPerFile;
+
+    private Path dir;
+    private RequestCatalogService catalogService;
+    private byte[] responseBody;
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setup() throws IOException {
+        dir = Files.createTempDirectory("apitester-jmh");
+        for (int f = 0; f < files; f++) {
+            StringBuilder yaml = new StringBuilder("baseUrl: http://localhost:8080/\nrequests:\n");
+            for (int r = 0; r < requestsPerFile; r++) {
+                String id = "f" + f + "r" + r;
+                yaml.append("  - id: ").append(id).append("\n")
+                        .append("    method: POST\n")
+                        .append("    url: items/").append(r == 0 ? "0" : "{{f" + f + "r" + (r - 1) + ".response.data.items[0].id}}").append("\n")
+                        .append("    headers:\n")
+                        .append("      Content-Type: application/json\n")
+                        .append("      X-Trace: trace-").append(id).append("\n")
+                        .append("    requestBody: |\n")
+                        .append("      {\"name\": \"item ").append(r).append("\", \"tags\": [\"a\", \"b\"], \"nested\": {\"depth\": {\"level\": ").append(r).append("}}}\n");
+            }
+            Files.writeString(dir.resolve(String.format("%03d-generated.yaml", f)), yaml);
+        }
+        // The bundled classpath suites are loaded too, as in the application.
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+        ApiTesterProperties properties = new ApiTesterProperties();
+        properties.getRequests().setDir(dir.toString());
+        properties.getRequests().setWatch(false);
+        catalogService = new RequestCatalogService(properties);
+
+        StringBuilder body = new StringBuilder("{\"data\": {\"items\": [");
+        for (int i = 0; i < 20_000; i++) {
+            body.append(i == 0 ? "" : ",").append("{\"id\": ").append(i).append(", \"name\": \"item ").append(i)
+                    .append("\", \"tags\": [\"a\", \"b\", \"c\"]}");
+        }
+        responseBody = body.append("], \"total\": 20000}}").toString().getBytes(StandardCharsets.UTF_8);
+        objectMapper = new ObjectMapper();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public RequestCatalog loadCatalog() {
+        return catalogService.reload();
+    }
+
+    // Values at the start of the body, so the extractor can stop early.
+    @Benchmark
+    public Map<JsonPointer, JsonNode> extractEarlyValue() {
+        return extract(Set.of(JsonPointer.compile("/data/items/0/id")));
+    }
+
+    // A value after the large array, so the whole body is parsed.
+    @Benchmark
+    public Map<JsonPointer, JsonNode> extractLateValue() {
+        return extract(Set.of(JsonPointer.compile("/data/total")));
+    }
+
+    private Map<JsonPointer, JsonNode> extract(Set<JsonPointer> wanted) {
+        ResponseExtractor extractor = new ResponseExtractor(wanted, objectMapper);
+        for (int offset = 0; offset < responseBody.length && extractor.needsInput(); offset += 8192) {
+            extractor.feed(ByteBuffer.wrap(responseBody, offset, Math.min(8192, responseBody.length - offset)));
+        }
+        return extractor.finish();
+    }
+}
@@ -0,0 +1,275 @@
+package com.example.apitester.assertion;
+
+import com.example.apitester.model.AssertionResult;
+import com.example.apitester.template.Reference;
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.NullNode;
+import org.springframework.http.HttpHeaders;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * The compiled 'assert:' section of a request. Compiled once when the suite is loaded:
+ * <pre>
+ * assert:
+ *   status: 201              # a code, a class ("2xx") or a list of them
+ *   maxLatencyMs: 200
+ *   maxBodyBytes: 65536
+ *   headers:
+ *     Content-Type: application/json.*   # regex over the header value
+ *   body:
+ *     - path: id             # same notation as references, without "id.response."
+ *       exists: true
+ *     - path: userId
+ *       equals: 1
+ *     - path: title
+ *       matches: "^[a-z]"
+ *     - path: tags
+ *       type: array
+ *       size: 3
+ * </pre>
+ * Body checks only need the values at their paths, which are pulled out of the response in the
+ * same streaming pass as referenced values (see {@link #getBodyPaths()}).
+ */
+public final class ResponseAssertions {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final Set<String> TYPES = Set.of("string", "number", "integer", "boolean", "object", "array", "null");
+
+    private enum Kind { EXISTS, EQUALS, MATCHES, TYPE, SIZE }
+
+    private record BodyCheck(String path, JsonPointer pointer, Kind kind, Object expected) {}
+
+    private record HeaderCheck(String name, Pattern pattern) {}
+
+    // Exact codes and classes (1-5 for "1xx".."5xx"); both empty when the status is not asserted.
+    private final Set<Integer> statusCodes = new LinkedHashSet<>();
+    private final Set<Integer> statusClasses = new LinkedHashSet<>();
+    private String statusText;
+    private Long maxLatencyMs;
+    private Long maxBodyBytes;
+    private final List<HeaderCheck> headerChecks = new ArrayList<>();
+    private final List<BodyCheck> bodyChecks = new ArrayList<>();
+    private Set<JsonPointer> bodyPaths = Set.of();
+
+    private ResponseAssertions() {
+    }
+
+    /**
+     * Compile the value of an 'assert:' key as loaded by SnakeYAML.
+     * Throws IllegalArgumentException describing the first problem found.
+     */
+    public static ResponseAssertions compile(Object section) {
+        if (!(section instanceof Map<?, ?> map)) {
+            throw new IllegalArgumentException("'assert' must be a mapping");
+        }
+        ResponseAssertions assertions = new ResponseAssertions();
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            String key = String.valueOf(entry.getKey());
+            Object value = entry.getValue();
+            switch (key) {
+                case "status" -> assertions.compileStatus(value);
+                case "maxLatencyMs" -> assertions.maxLatencyMs = positive(key, value);
+                case "maxBodyBytes" -> assertions.maxBodyBytes = positive(key, value);
+                case "headers" -> assertions.compileHeaders(value);
+                case "body" -> assertions.compileBody(value);
+                default -> throw new IllegalArgumentException("Unknown assertion '" + key + "'");
+            }
+        }
+        Set<JsonPointer> paths = new LinkedHashSet<>();
+        assertions.bodyChecks.forEach(check -> paths.add(check.pointer()));
+        assertions.bodyPaths = Set.copyOf(paths);
+        return assertions;
+    }
+
+    private void compileStatus(Object value) {
+        List<?> values = value instanceof List<?> list ? list : List.of(value);
+        List<String> texts = new ArrayList<>();
+        for (Object item : values) {
+            String text = String.valueOf(item).trim().toLowerCase(Locale.ROOT);
+            if (text.matches("[1-5]xx")) {
+                statusClasses.add(text.charAt(0) - '0');
+            } else if (text.matches("[1-5]\\d\\d")) {
+                statusCodes.add(Integer.parseInt(text));
+            } else {
+                throw new IllegalArgumentException("Invalid status assertion '" + item + "', expected a code like 200 or a class like 2xx");
+            }
+            texts.add(text);
+        }
+        statusText = String.join(" or ", texts);
+    }
+
+    private void compileHeaders(Object value) {
+        if (!(value instanceof Map<?, ?> headers)) {
+            throw new IllegalArgumentException("'headers' assertion must be a mapping of header name to regex");
+        }
+        headers.forEach((name, regex) -> headerChecks.add(new HeaderCheck(String.valueOf(name), pattern(String.valueOf(regex)))));
+    }
+
+    private void compileBody(Object value) {
+        if (!(value instanceof List<?> checks)) {
+            throw new IllegalArgumentException("'body' assertion must be a list");
+        }
+        for (Object item : checks) {
+            if (!(item instanceof Map<?, ?> check) || !check.containsKey("path")) {
+                throw new IllegalArgumentException("Each body assertion must be a mapping with a 'path'");
+            }
+            String path = String.valueOf(check.get("path"));
+            JsonPointer pointer = Reference.pointerOf(path);
+            int before = bodyChecks.size();
+            for (Map.Entry<?, ?> entry : check.entrySet()) {
+                String key = String.valueOf(entry.getKey());
+                Object expected = entry.getValue();
+                switch (key) {
+                    case "path" -> { }
+                    case "exists" -> bodyChecks.add(new BodyCheck(path, pointer, Kind.EXISTS, Boolean.parseBoolean(String.valueOf(expected))));
+                    case "equals" -> bodyChecks.add(new BodyCheck(path, pointer, Kind.EQUALS,
+                            expected == null ? NullNode.getInstance() : MAPPER.valueToTree(expected)));
+                    case "matches" -> bodyChecks.add(new BodyCheck(path, pointer, Kind.MATCHES, pattern(String.valueOf(expected))));
+                    case "type" -> {
+                        String type = String.valueOf(expected).toLowerCase(Locale.ROOT);
+                        if (!TYPES.contains(type)) {
+                            throw new IllegalArgumentException("Unknown type '" + expected + "' for path '" + path + "', expected one of " + TYPES);
+                        }
+                        bodyChecks.add(new BodyCheck(path, pointer, Kind.TYPE, type));
+                    }
+                    case "size" -> bodyChecks.add(new BodyCheck(path, pointer, Kind.SIZE, nonNegative("size", expected)));
+                    default -> throw new IllegalArgumentException("Unknown body assertion '" + key + "' for path '" + path + "'");
+                }
+            }
+            if (bodyChecks.size() == before) {
+                throw new IllegalArgumentException("Body assertion for path '" + path + "' has no check (exists, equals, matches, type or size)");
+            }
+        }
+    }
+
+    private static Pattern pattern(String regex) {
+        try {
+            return Pattern.compile(regex);
+        } catch (PatternSyntaxException ex) {
+            throw new IllegalArgumentException("Invalid regex '" + regex + "': " + ex.getDescription());
+        }
+    }
+
+    private static long positive(String key, Object value) {
+        long number = nonNegative(key, value);
+        if (number == 0) {
+            throw new IllegalArgumentException("'" + key + "' must be positive");
+        }
+        return number;
+    }
+
+    private static long nonNegative(String key, Object value) {
+        try {
+            long number = Long.parseLong(String.valueOf(value).trim());
+            if (number >= 0) {
+                return number;
+            }
+        } catch (NumberFormatException ex) {
+            // reported below
+        }
+        throw new IllegalArgumentException("'" + key + "' must be a non-negative whole number, got '" + value + "'");
+    }
+
+    // Locations in the response body the checks need.
+    public Set<JsonPointer> getBodyPaths() { return bodyPaths; }
+
+    // True when 'status' is asserted; it then decides success instead of the default "below 400" rule.
+    public boolean hasStatusCheck() {
+        return statusText != null;
+    }
+
+    public boolean statusMatches(int statusCode) {
+        return statusCodes.contains(statusCode) || statusClasses.contains(statusCode / 100);
+    }
+
+    /**
+     * Evaluate every assertion. 'values' are the extracted values by pointer; 'extractFailure' is
+     * non-null when the body could not be parsed as JSON.
+     */
+    public List<AssertionResult> evaluate(int statusCode, HttpHeaders headers, Map<JsonPointer, JsonNode> values,
+                                          String extractFailure, long bodyBytes, double latencyMs) {
+        List<AssertionResult> results = new ArrayList<>();
+        if (hasStatusCheck()) {
+            results.add(new AssertionResult("status", statusMatches(statusCode), statusText, String.valueOf(statusCode)));
+        }
+        if (maxLatencyMs != null) {
+            results.add(new AssertionResult("maxLatencyMs", latencyMs <= maxLatencyMs,
+                    "<= " + maxLatencyMs, String.format(Locale.ROOT, "%.1f", latencyMs)));
+        }
+        if (maxBodyBytes != null) {
+            results.add(new AssertionResult("maxBodyBytes", bodyBytes <= maxBodyBytes, "<= " + maxBodyBytes, String.valueOf(bodyBytes)));
+        }
+        for (HeaderCheck check : headerChecks) {
+            List<String> actual = headers.getOrEmpty(check.name());
+            boolean passed = actual.stream().anyMatch(v -> check.pattern().matcher(v).matches());
+            results.add(new AssertionResult("header " + check.name(), passed, check.pattern().pattern(),
+                    actual.isEmpty() ? "missing" : String.join(", ", actual)));
+        }
+        for (BodyCheck check : bodyChecks) {
+            results.add(evaluate(check, values, extractFailure));
+        }
+        return results;
+    }
+
+    private static AssertionResult evaluate(BodyCheck check, Map<JsonPointer, JsonNode> values, String extractFailure) {
+        String name = "body " + (check.path().isEmpty() ? "$" : check.path()) + " " + check.kind().name().toLowerCase(Locale.ROOT);
+        if (extractFailure != null) {
+            return new AssertionResult(name, false, describe(check), "body is not JSON: " + extractFailure);
+        }
+        JsonNode node = values.get(check.pointer());
+        if (check.kind() == Kind.EXISTS) {
+            boolean expected = (Boolean) check.expected();
+            return new AssertionResult(name, (node != null) == expected, String.valueOf(expected), String.valueOf(node != null));
+        }
+        if (node == null) {
+            return new AssertionResult(name, false, describe(check), "missing");
+        }
+        return switch (check.kind()) {
+            case EQUALS -> new AssertionResult(name, equal((JsonNode) check.expected(), node), describe(check), node.toString());
+            case MATCHES -> {
+                String text = node.isValueNode() ? node.asText() : node.toString();
+                yield new AssertionResult(name, ((Pattern) check.expected()).matcher(text).find(), describe(check), text);
+            }
+            case TYPE -> new AssertionResult(name, typeOf(node).equals(check.expected())
+                    || ("number".equals(check.expected()) && node.isNumber()), describe(check), typeOf(node));
+            case SIZE -> {
+                int size = node.isContainerNode() ? node.size() : node.isTextual() ? node.asText().length() : -1;
+                yield new AssertionResult(name, size == (Long) check.expected(), describe(check),
+                        size < 0 ? typeOf(node) + " has no size" : String.valueOf(size));
+            }
+            case EXISTS -> throw new IllegalStateException();
+        };
+    }
+
+    private static String describe(BodyCheck check) {
+        return check.expected() instanceof Pattern pattern ? pattern.pattern() : String.valueOf(check.expected());
+    }
+
+    // JSON equality, except that numbers compare by value (1 equals 1.0).
+    private static boolean equal(JsonNode expected, JsonNode actual) {
+        if (expected.isNumber() && actual.isNumber()) {
+            return expected.decimalValue().compareTo(actual.decimalValue()) == 0;
+        }
+        return expected.equals(actual);
+    }
+
+    private static String typeOf(JsonNode node) {
+        if (node.isTextual()) return "string";
+        if (node.isIntegralNumber()) return "integer";
+        if (node.isNumber()) return "number";
+        if (node.isBoolean()) return "boolean";
+        if (node.isArray()) return "array";
+        if (node.isObject()) return "object";
+        return "null";
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.apitester.cli;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Command-line arguments of {@link CliRunner}. Invalid arguments raise an IllegalArgumentException
+ * whose message is printed above the usage text.
+ */
+record CliOptions(List<Path> suites, int concurrency, boolean skipSSL, String engine, Path junitReport, Path jsonReport,
+                  boolean verbose, boolean help) {
+
+    static final String USAGE = """
+            Usage: apitester-cli [options] <suite.yaml | directory>...
+
+            Runs the given suites (directories contribute their *.yaml / *.yml files) and exits
+            with 0 when every request succeeded, 1 when any failed, 2 on invalid arguments.
+
+            Options:
+              -c, --concurrency <n>   independent requests in flight at once (default 4)
+                  --skip-ssl          do not validate TLS certificates
+                  --engine <name>     reactor or jdk, in place of the suites' own engine
+                  --junit <file>      write a JUnit XML report
+                  --json <file>       write a JSON report
+              -v, --verbose           log every request
+              -h, --help              show this help
+            """;
+
+    static CliOptions parse(String[] args) {
+        List<Path> suites = new ArrayList<>();
+        int concurrency = 4;
+        boolean skipSSL = false;
+        String engine = null;
+        Path junit = null;
+        Path json = null;
+        boolean verbose = false;
+        boolean help = false;
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            switch (arg) {
+                case "-c", "--concurrency" -> {
+                    String value = value(args, ++i, arg);
+                    try {
+                        concurrency = Integer.parseInt(value);
+                    } catch (NumberFormatException ex) {
+                        throw new IllegalArgumentException("Invalid concurrency: " + value);
+                    }
+                    if (concurrency < 1) {
+                        throw new IllegalArgumentException("concurrency must be positive");
+                    }
+                }
+                case "--skip-ssl" -> skipSSL = true;
+                case "--engine" -> {
+                    engine = value(args, ++i, arg).trim().toLowerCase();
+                    if (!engine.equals("reactor") && !engine.equals("jdk")) {
+                        throw new IllegalArgumentException("engine must be reactor or jdk");
+                    }
+                }
+                case "--junit" -> junit = Path.of(value(args, ++i, arg));
+                case "--json" -> json = Path.of(value(args, ++i, arg));
+                case "-v", "--verbose" -> verbose = true;
+                case "-h", "--help" -> help = true;
+                default -> {
+                    if (arg.startsWith("-")) {
+                        throw new IllegalArgumentException("Unknown option: " + arg);
+                    }
+                    suites.add(Path.of(arg));
+                }
+            }
+        }
+        if (suites.isEmpty() && !help) {
+            throw new IllegalArgumentException("No suites given");
+        }
+        return new CliOptions(List.copyOf(suites), concurrency, skipSSL, engine, junit, json, verbose, help);
+    }
+
+    private static String value(String[] args, int index, String option) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException("Missing value for " + option);
+        }
+        return args[index];
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.apitester.cli;
+
+import ch.qos.logback.classic.Level;
+import com.example.apitester.config.ApiTesterProperties;
+import com.example.apitester.history.RunHistoryStore;
+import com.example.apitester.model.ExecutionResult;
+import com.example.apitester.model.FileLoadError;
+import com.example.apitester.model.RequestCatalog;
+import com.example.apitester.model.YamlFileData;
+import com.example.apitester.service.DependencyScheduler;
+import com.example.apitester.service.ExecutionRun;
+import com.example.apitester.service.JdkExecutionEngine;
+import com.example.apitester.service.ReactorExecutionEngine;
+import com.example.apitester.service.RequestCatalogService;
+import com.example.apitester.service.RequestMetrics;
+import com.example.apitester.service.RequestService;
+import com.example.apitester.service.ResponseCache;
+import com.example.apitester.service.SpillStore;
+import com.example.apitester.service.WebClientRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Headless entry point for CI: loads the given suites, runs them with the same {@link RequestService}
+ * engine as the web application and exits non-zero when anything failed. No Spring context, servlet
+ * container or template engine is started; the services are wired by hand, which keeps startup to
+ * plain class loading (and therefore friendly to an AppCDS archive, see the 'cli' Maven profile).
+ */
+public final class CliRunner {
+
+    static final int EXIT_OK = 0;
+    static final int EXIT_FAILED = 1;
+    static final int EXIT_USAGE = 2;
+
+    private CliRunner() {
+    }
+
+    public static void main(String[] args) {
+        System.exit(run(args, System.out, System.err));
+    }
+
+    static int run(String[] args, PrintStream out, PrintStream err) {
+        CliOptions options;
+        try {
+            options = CliOptions.parse(args);
+        } catch (IllegalArgumentException ex) {
+            err.println(ex.getMessage());
+            err.print(CliOptions.USAGE);
+            return EXIT_USAGE;
+        }
+        if (options.help()) {
+            out.print(CliOptions.USAGE);
+            return EXIT_OK;
+        }
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME))
+                .setLevel(options.verbose() ? Level.INFO : Level.WARN);
+        if (options.verbose()) {
+            ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(RequestService.class)).setLevel(Level.DEBUG);
+        }
+
+        long start = System.nanoTime();
+        RequestCatalog catalog = RequestCatalogService.load(options.suites());
+        for (FileLoadError error : catalog.getErrors()) {
+            err.println("LOAD  " + error.getFileName() + " (" + error.getSource() + "): " + error.getMessage());
+        }
+
+        ApiTesterProperties properties = new ApiTesterProperties();
+        RequestMetrics metrics = new RequestMetrics(new SimpleMeterRegistry());
+        WebClientRegistry webClients = new WebClientRegistry(properties, metrics);
+        JdkExecutionEngine jdkEngine = new JdkExecutionEngine(properties);
+        // No history dir is configured and nothing is spilled, so CI runs leave no files behind.
+        properties.getResponse().setSpill(false);
+        RequestService requestService = new RequestService(properties,
+                List.of(new ReactorExecutionEngine(webClients), jdkEngine), metrics, new RunHistoryStore(properties),
+                new SpillStore(properties), new ResponseCache(properties));
+        List<ExecutionResult> results = new ArrayList<>();
+        try {
+            List<YamlFileData> files = catalog.getFiles().stream().map(file -> file.withEngine(options.engine())).toList();
+            requestService.streamAll(new ExecutionRun("cli"), files, options.skipSSL(), options.concurrency())
+                    .doOnNext(result -> {
+                        out.println(line(result));
+                        if (result.getAssertions() != null) {
+                            result.getAssertions().stream().filter(assertion -> !assertion.passed())
+                                    .forEach(assertion -> out.println("        " + assertion));
+                        }
+                    })
+                    .doOnNext(results::add)
+                    .blockLast();
+        } finally {
+            webClients.shutdown();
+            jdkEngine.shutdown();
+        }
+        long durationMs = (System.nanoTime() - start) / 1_000_000;
+
+        long failed = results.stream().filter(CliRunner::isFailure).count();
+        long skipped = results.stream().filter(CliRunner::isSkipped).count();
+        out.printf(Locale.ROOT, "%d requests, %d failed, %d skipped, %d suite load errors in %d ms%n",
+                results.size(), failed, skipped, catalog.getErrors().size(), durationMs);
+
+        ReportWriter reports = new ReportWriter(results, catalog.getErrors(), durationMs);
+        try {
+            if (options.junitReport() != null) {
+                reports.writeJunit(options.junitReport());
+            }
+            if (options.jsonReport() != null) {
+                reports.writeJson(options.jsonReport());
+            }
+        } catch (IOException ex) {
+            err.println("Failed to write report: " + ex.getMessage());
+            return EXIT_FAILED;
+        }
+        boolean ok = failed == 0 && skipped == 0 && catalog.getErrors().isEmpty() && !results.isEmpty();
+        return ok ? EXIT_OK : EXIT_FAILED;
+    }
+
+    private static String line(ExecutionResult result) {
+        String outcome = ReportWriter.outcome(result).toUpperCase(Locale.ROOT) + " ";
+        String time = result.getTimings() != null ? String.format(Locale.ROOT, " (%.0f ms)", result.getTimings().totalMs()) : "";
+        return outcome + " " + result.getFileName() + "/" + result.getRequestId() + " " + result.getStatusCode()
+                + " " + result.getStatus() + time;
+    }
+
+    // Not sent because a request it depends on did not succeed.
+    static boolean isSkipped(ExecutionResult result) {
+        return DependencyScheduler.SKIPPED_STATUS.equals(result.getStatus());
+    }
+
+    static boolean isFailure(ExecutionResult result) {
+        return !result.isSuccess() && !isSkipped(result);
+    }
+}
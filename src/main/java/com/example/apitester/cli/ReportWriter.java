@@ -0,0 +1,144 @@
+package com.example.apitester.cli;
+
+import com.example.apitester.model.ExecutionResult;
+import com.example.apitester.model.FileLoadError;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Writes the results of a CLI run as JUnit XML (one testsuite per file, one testcase per request)
+ * or as JSON. Suites that failed to load are reported as a testcase with an error.
+ */
+class ReportWriter {
+
+    private final List<ExecutionResult> results;
+    private final List<FileLoadError> loadErrors;
+    private final long durationMs;
+
+    ReportWriter(List<ExecutionResult> results, List<FileLoadError> loadErrors, long durationMs) {
+        this.results = results;
+        this.loadErrors = loadErrors;
+        this.durationMs = durationMs;
+    }
+
+    void writeJunit(Path path) throws IOException {
+        Map<String, List<ExecutionResult>> byFile = new LinkedHashMap<>();
+        results.forEach(result -> byFile.computeIfAbsent(result.getFileName(), name -> new ArrayList<>()).add(result));
+        createParent(path);
+        try (Writer out = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            XMLStreamWriter xml = XMLOutputFactory.newFactory().createXMLStreamWriter(out);
+            xml.writeStartDocument("UTF-8", "1.0");
+            xml.writeStartElement("testsuites");
+            xml.writeAttribute("tests", String.valueOf(results.size() + loadErrors.size()));
+            xml.writeAttribute("failures", String.valueOf(results.stream().filter(CliRunner::isFailure).count()));
+            xml.writeAttribute("errors", String.valueOf(loadErrors.size()));
+            xml.writeAttribute("time", seconds(durationMs));
+            for (FileLoadError error : loadErrors) {
+                xml.writeStartElement("testsuite");
+                xml.writeAttribute("name", error.getFileName());
+                xml.writeAttribute("tests", "1");
+                xml.writeAttribute("errors", "1");
+                xml.writeStartElement("testcase");
+                xml.writeAttribute("classname", error.getFileName());
+                xml.writeAttribute("name", "load");
+                xml.writeStartElement("error");
+                xml.writeAttribute("message", error.getMessage());
+                xml.writeCharacters(error.getSource());
+                xml.writeEndElement();
+                xml.writeEndElement();
+                xml.writeEndElement();
+            }
+            for (Map.Entry<String, List<ExecutionResult>> file : byFile.entrySet()) {
+                List<ExecutionResult> fileResults = file.getValue();
+                xml.writeStartElement("testsuite");
+                xml.writeAttribute("name", file.getKey());
+                xml.writeAttribute("tests", String.valueOf(fileResults.size()));
+                xml.writeAttribute("failures", String.valueOf(fileResults.stream().filter(CliRunner::isFailure).count()));
+                xml.writeAttribute("skipped", String.valueOf(fileResults.stream().filter(CliRunner::isSkipped).count()));
+                for (ExecutionResult result : fileResults) {
+                    writeTestCase(xml, result);
+                }
+                xml.writeEndElement();
+            }
+            xml.writeEndElement();
+            xml.writeEndDocument();
+            xml.close();
+        } catch (XMLStreamException ex) {
+            throw new IOException("Failed to write JUnit report " + path, ex);
+        }
+    }
+
+    private static void writeTestCase(XMLStreamWriter xml, ExecutionResult result) throws XMLStreamException {
+        xml.writeStartElement("testcase");
+        xml.writeAttribute("classname", result.getFileName());
+        xml.writeAttribute("name", result.getRequestId());
+        if (result.getTimings() != null) {
+            xml.writeAttribute("time", seconds(result.getTimings().totalMs()));
+        }
+        if (CliRunner.isSkipped(result)) {
+            xml.writeEmptyElement("skipped");
+            xml.writeAttribute("message", result.getStatus());
+        } else if (!result.isSuccess()) {
+            xml.writeStartElement("failure");
+            xml.writeAttribute("message", result.getStatusCode() + " " + result.getStatus());
+            StringBuilder details = new StringBuilder();
+            if (result.getAssertions() != null) {
+                result.getAssertions().stream().filter(assertion -> !assertion.passed())
+                        .forEach(assertion -> details.append(assertion).append('\n'));
+            }
+            xml.writeCharacters(details.append(result.getBody()).toString());
+            xml.writeEndElement();
+        }
+        xml.writeEndElement();
+    }
+
+    void writeJson(Path path) throws IOException {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("tests", results.size());
+        report.put("failures", results.stream().filter(CliRunner::isFailure).count());
+        report.put("skipped", results.stream().filter(CliRunner::isSkipped).count());
+        report.put("durationMs", durationMs);
+        report.put("loadErrors", loadErrors);
+        ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        List<ObjectNode> tagged = new ArrayList<>();
+        for (ExecutionResult result : results) {
+            ObjectNode node = mapper.valueToTree(result);
+            node.put("outcome", outcome(result));
+            tagged.add(node);
+        }
+        report.put("results", tagged);
+        createParent(path);
+        mapper.writeValue(path.toFile(), report);
+    }
+
+    // pass, fail, or skip for a request not sent because one it depends on did not succeed.
+    static String outcome(ExecutionResult result) {
+        return result.isSuccess() ? "pass" : CliRunner.isSkipped(result) ? "skip" : "fail";
+    }
+
+    private static void createParent(Path path) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+    }
+
+    private static String seconds(double millis) {
+        return String.format(Locale.ROOT, "%.3f", millis / 1000.0);
+    }
+}
@@ -0,0 +1,253 @@
+package com.example.apitester.config;
+
+import com.example.apitester.model.HttpSettings;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settings bound from the "apitester.*" keys in application.properties.
+ * Every field has a default so the class can also be instantiated directly.
+ */
+@ConfigurationProperties(prefix = "apitester")
+public class ApiTesterProperties {
+
+    private final Requests requests = new Requests();
+    private final Execution execution = new Execution();
+    private final Runs runs = new Runs();
+    private final Response response = new Response();
+    private final Load load = new Load();
+    private final Data data = new Data();
+    private final History history = new History();
+    private final Distributed distributed = new Distributed();
+    private final Cache cache = new Cache();
+    // Defaults for the shared connection pool and client timeouts.
+    private final HttpSettings http = HttpSettings.defaults();
+
+    public Requests getRequests() { return requests; }
+
+    public Execution getExecution() { return execution; }
+
+    public Runs getRuns() { return runs; }
+
+    public Response getResponse() { return response; }
+
+    public Load getLoad() { return load; }
+
+    public Data getData() { return data; }
+
+    public History getHistory() { return history; }
+
+    public Distributed getDistributed() { return distributed; }
+
+    public Cache getCache() { return cache; }
+
+    public HttpSettings getHttp() { return http; }
+
+    // Where request suites are loaded from and how changes are picked up.
+    public static class Requests {
+        // Classpath location scanned for *.yaml / *.yml suites.
+        private String classpathLocation = "classpath:requests/";
+        // Optional external directory; its files override classpath files with the same name.
+        private String dir;
+        // Watch the suite directories and rebuild the catalog when a file changes.
+        private boolean watch = true;
+        // Quiet period after the last file event before the catalog is rebuilt.
+        private long reloadDelayMs = 300;
+
+        public String getClasspathLocation() { return classpathLocation; }
+        public void setClasspathLocation(String classpathLocation) { this.classpathLocation = classpathLocation; }
+
+        public String getDir() { return dir; }
+        public void setDir(String dir) { this.dir = dir; }
+
+        public boolean isWatch() { return watch; }
+        public void setWatch(boolean watch) { this.watch = watch; }
+
+        public long getReloadDelayMs() { return reloadDelayMs; }
+        public void setReloadDelayMs(long reloadDelayMs) { this.reloadDelayMs = reloadDelayMs; }
+    }
+
+    // How file and suite runs are scheduled.
+    public static class Execution {
+        // Maximum number of independent requests in flight at once during executeFile / executeAll.
+        private int concurrency = 4;
+
+        public int getConcurrency() { return concurrency; }
+        public void setConcurrency(int concurrency) { this.concurrency = concurrency; }
+    }
+
+    // What is kept of response bodies.
+    public static class Response {
+        // Bytes of each response body kept and returned as a preview; referenced values are extracted from the full body.
+        private int previewBytes = 256 * 1024;
+        // Characters of request and response bodies written to the log.
+        private int logPreviewChars = 1024;
+        // Stream responses larger than the preview to a file, so the full body can be downloaded.
+        private boolean spill = true;
+        // Directory of spilled bodies; an apitester-spill directory under java.io.tmpdir when unset.
+        private String spillDir;
+        // Upper bound on spilled bodies on disk; the oldest are deleted first.
+        private long spillMaxBytes = 2L * 1024 * 1024 * 1024;
+        private long spillTtlSeconds = 1800;
+
+        public int getPreviewBytes() { return previewBytes; }
+        public void setPreviewBytes(int previewBytes) { this.previewBytes = previewBytes; }
+
+        public int getLogPreviewChars() { return logPreviewChars; }
+        public void setLogPreviewChars(int logPreviewChars) { this.logPreviewChars = logPreviewChars; }
+
+        public boolean isSpill() { return spill; }
+        public void setSpill(boolean spill) { this.spill = spill; }
+
+        public String getSpillDir() { return spillDir; }
+        public void setSpillDir(String spillDir) { this.spillDir = spillDir; }
+
+        public long getSpillMaxBytes() { return spillMaxBytes; }
+        public void setSpillMaxBytes(long spillMaxBytes) { this.spillMaxBytes = spillMaxBytes; }
+
+        public long getSpillTtlSeconds() { return spillTtlSeconds; }
+        public void setSpillTtlSeconds(long spillTtlSeconds) { this.spillTtlSeconds = spillTtlSeconds; }
+    }
+
+    // Lifetime of per-run response stores.
+    public static class Runs {
+        // Runs not used for this long are discarded.
+        private long ttlSeconds = 1800;
+        // Upper bound on the responses held across all runs; least recently used runs are evicted first.
+        private long maxBytes = 64L * 1024 * 1024;
+        private long evictionIntervalSeconds = 30;
+
+        public long getTtlSeconds() { return ttlSeconds; }
+        public void setTtlSeconds(long ttlSeconds) { this.ttlSeconds = ttlSeconds; }
+
+        public long getMaxBytes() { return maxBytes; }
+        public void setMaxBytes(long maxBytes) { this.maxBytes = maxBytes; }
+
+        public long getEvictionIntervalSeconds() { return evictionIntervalSeconds; }
+        public void setEvictionIntervalSeconds(long evictionIntervalSeconds) { this.evictionIntervalSeconds = evictionIntervalSeconds; }
+    }
+
+    // Limits for load runs.
+    public static class Load {
+        // Upper bound on virtual users per load run.
+        private int maxConcurrency = 1000;
+        // Upper bound on iterations per second of an arrival-rate run.
+        private double maxRate = 50000;
+        // Upper bound on the in-flight cap of an arrival-rate run; arrivals beyond the cap are dropped.
+        private int maxOutstanding = 10000;
+
+        public int getMaxConcurrency() { return maxConcurrency; }
+        public void setMaxConcurrency(int maxConcurrency) { this.maxConcurrency = maxConcurrency; }
+
+        public double getMaxRate() { return maxRate; }
+        public void setMaxRate(double maxRate) { this.maxRate = maxRate; }
+
+        public int getMaxOutstanding() { return maxOutstanding; }
+        public void setMaxOutstanding(int maxOutstanding) { this.maxOutstanding = maxOutstanding; }
+    }
+
+    // Data files for data-driven runs.
+    public static class Data {
+        // Directory that dataFile parameters and files to upload are resolved in; both are disabled without it.
+        private String dir;
+
+        public String getDir() { return dir; }
+        public void setDir(String dir) { this.dir = dir; }
+    }
+
+    // Persistent run history.
+    public static class History {
+        // Directory of the history log; nothing is recorded without it.
+        private String dir;
+        // Size of the active segment at which it is sealed (compressed) and a new one is started.
+        private long segmentBytes = 16L * 1024 * 1024;
+        // Upper bound on sealed segments plus stored bodies; the oldest segments are deleted first.
+        private long maxBytes = 256L * 1024 * 1024;
+        // Segments whose newest entry is older than this are deleted.
+        private long maxAgeDays = 30;
+        // Latest runs kept in memory per request for "last N runs" queries.
+        private int recentPerRequest = 100;
+        // Width of the buckets of latency and failure trends.
+        private long trendBucketSeconds = 3600;
+        // Results waiting to be written; results arriving while it is full are dropped, never waited for.
+        private int queueCapacity = 10000;
+
+        public String getDir() { return dir; }
+        public void setDir(String dir) { this.dir = dir; }
+
+        public long getSegmentBytes() { return segmentBytes; }
+        public void setSegmentBytes(long segmentBytes) { this.segmentBytes = segmentBytes; }
+
+        public long getMaxBytes() { return maxBytes; }
+        public void setMaxBytes(long maxBytes) { this.maxBytes = maxBytes; }
+
+        public long getMaxAgeDays() { return maxAgeDays; }
+        public void setMaxAgeDays(long maxAgeDays) { this.maxAgeDays = maxAgeDays; }
+
+        public int getRecentPerRequest() { return recentPerRequest; }
+        public void setRecentPerRequest(int recentPerRequest) { this.recentPerRequest = recentPerRequest; }
+
+        public long getTrendBucketSeconds() { return trendBucketSeconds; }
+        public void setTrendBucketSeconds(long trendBucketSeconds) { this.trendBucketSeconds = trendBucketSeconds; }
+
+        public int getQueueCapacity() { return queueCapacity; }
+        public void setQueueCapacity(int queueCapacity) { this.queueCapacity = queueCapacity; }
+    }
+
+    // Load runs spread over several instances of the app.
+    public static class Distributed {
+        // Accept jobs from a coordinator at /worker/jobs; needs a token.
+        private boolean worker;
+        // Shared secret sent by the coordinator in the X-Apitester-Token header.
+        private String token;
+        // Base URLs of the workers a coordinator uses when a run names none; with a token set, the only ones a run may name.
+        private List<String> workers = new ArrayList<>();
+        // How often workers report progress.
+        private long updateIntervalMs = 1000;
+
+        public boolean isWorker() { return worker; }
+        public void setWorker(boolean worker) { this.worker = worker; }
+
+        public String getToken() { return token; }
+        public void setToken(String token) { this.token = token; }
+
+        public List<String> getWorkers() { return workers; }
+        public void setWorkers(List<String> workers) { this.workers = workers; }
+
+        public long getUpdateIntervalMs() { return updateIntervalMs; }
+        public void setUpdateIntervalMs(long updateIntervalMs) { this.updateIntervalMs = updateIntervalMs; }
+    }
+
+    // Response cache for GET and HEAD requests.
+    public static class Cache {
+        // off, on (serve fresh responses, revalidate stale ones) or replay (serve cached responses only,
+        // never going upstream: anything else, writes included, fails with 504);
+        // a suite sets "cache:" and a run the cache parameter to use another mode.
+        private String mode = "off";
+        // Upper bound on cached bodies; the least recently used responses are evicted first.
+        private long maxBytes = 32L * 1024 * 1024;
+        // Longer bodies are not cached; bodies larger than the response preview never are.
+        private int maxEntryBytes = 256 * 1024;
+        // Responses are dropped this long after they were stored or last revalidated, fresh or not.
+        private long ttlSeconds = 600;
+        // How long a response without Cache-Control max-age or Expires is fresh.
+        private long defaultFreshSeconds = 60;
+
+        public String getMode() { return mode; }
+        public void setMode(String mode) { this.mode = mode; }
+
+        public long getMaxBytes() { return maxBytes; }
+        public void setMaxBytes(long maxBytes) { this.maxBytes = maxBytes; }
+
+        public int getMaxEntryBytes() { return maxEntryBytes; }
+        public void setMaxEntryBytes(int maxEntryBytes) { this.maxEntryBytes = maxEntryBytes; }
+
+        public long getTtlSeconds() { return ttlSeconds; }
+        public void setTtlSeconds(long ttlSeconds) { this.ttlSeconds = ttlSeconds; }
+
+        public long getDefaultFreshSeconds() { return defaultFreshSeconds; }
+        public void setDefaultFreshSeconds(long defaultFreshSeconds) { this.defaultFreshSeconds = defaultFreshSeconds; }
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.apitester.config;
+
+import com.example.apitester.service.RequestMetrics;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Percentile histograms for the whole-request timer only. The management.metrics.distribution
+ * properties match meter names by prefix, so enabling them for 'apitester.request' would also give
+ * every phase timer of every request its own set of buckets.
+ */
+@Configuration(proxyBeanMethods = false)
+public class MetricsConfig {
+
+    @Bean
+    public MeterFilter requestHistogramFilter() {
+        return new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                if (!id.getName().equals(RequestMetrics.REQUEST_TIMER)) {
+                    return config;
+                }
+                return DistributionStatisticConfig.builder().percentilesHistogram(true).build().merge(config);
+            }
+        };
+    }
+}
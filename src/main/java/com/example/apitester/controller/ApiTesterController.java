@@ -1,14 +1,51 @@
 package com.example.apitester.controller;
 
+import com.example.apitester.distributed.CoordinatorService;
+import com.example.apitester.distributed.WorkerJob;
+import com.example.apitester.distributed.WorkerService;
+import com.example.apitester.distributed.WorkerUpdate;
+import com.example.apitester.feeder.DataFeeder;
+import com.example.apitester.history.RunHistoryStore;
+import com.example.apitester.model.DistributedReport;
+import com.example.apitester.model.ExecutionResult;
+import com.example.apitester.model.HistoryEntry;
+import com.example.apitester.model.HistorySummary;
+import com.example.apitester.model.HistoryTrendPoint;
+import com.example.apitester.model.LoadReport;
+import com.example.apitester.model.RequestCatalog;
+import com.example.apitester.model.RequestDefinition;
 import com.example.apitester.model.YamlFileData;
+import com.example.apitester.service.ArrivalRateScheduler;
+import com.example.apitester.service.DataFeederService;
+import com.example.apitester.service.LoadTestService;
+import com.example.apitester.service.LoadWorkload;
+import com.example.apitester.service.RequestCatalogService;
 import com.example.apitester.service.RequestService;
+import com.example.apitester.service.ResponseCache;
+import com.example.apitester.service.RunRegistry;
+import com.example.apitester.service.SpillStore;
+import com.example.apitester.service.WebClientRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Map;
 
 @Controller
 public class ApiTesterController {
@@ -16,10 +53,41 @@ public class ApiTesterController {
     @Autowired
     private RequestService requestService;
 
+    @Autowired
+    private RequestCatalogService catalogService;
+
+    @Autowired
+    private WebClientRegistry webClients;
+
+    @Autowired
+    private RunRegistry runRegistry;
+
+    @Autowired
+    private LoadTestService loadTestService;
+
+    @Autowired
+    private DataFeederService dataFeeders;
+
+    @Autowired
+    private RunHistoryStore history;
+
+    @Autowired
+    private SpillStore spills;
+
+    @Autowired
+    private ResponseCache responseCache;
+
+    @Autowired
+    private CoordinatorService coordinator;
+
+    @Autowired
+    private WorkerService worker;
+
     @GetMapping("/")
     public String index(Model model) {
-        List<YamlFileData> files = requestService.loadYamlFiles();
-        model.addAttribute("files", files);
+        RequestCatalog catalog = catalogService.getCatalog();
+        model.addAttribute("files", catalog.getFiles());
+        model.addAttribute("loadErrors", catalog.getErrors());
         return "index";
     }
 
@@ -27,44 +95,388 @@ public class ApiTesterController {
     @ResponseBody
     public Mono<String> executeRequest(@RequestParam String fileName,
                                        @RequestParam String requestId,
-                                       @RequestParam(defaultValue = "false") boolean skipSSL) {
-        List<YamlFileData> files = requestService.loadYamlFiles();
-        for (YamlFileData fileData : files) {
-            if (fileData.getFileName().equals(fileName)) {
-                return fileData.getRequests().stream()
-                        .filter(r -> r.getId().equals(requestId))
-                        .findFirst()
-                        .map(r -> requestService.executeRequest(r, fileData.getBaseUrl(), skipSSL))
-                        .orElse(Mono.just("{\"error\": \"Request not found\"}"));
-            }
+                                       @RequestParam(required = false) String engine,
+                                       @RequestParam(required = false) String cache,
+                                       @RequestParam(defaultValue = "false") boolean skipSSL,
+                                       @RequestParam(required = false) String runId) {
+        RequestCatalog catalog = catalogService.getCatalog();
+        YamlFileData fileData = catalog.getFile(fileName);
+        if (fileData == null) {
+            return Mono.just("{\"error\": \"File not found\"}");
         }
-        return Mono.just("{\"error\": \"File not found\"}");
+        RequestDefinition rd = catalog.getRequest(fileName, requestId);
+        if (rd == null) {
+            return Mono.just("{\"error\": \"Request not found\"}");
+        }
+        return requestService.executeRequest(runRegistry.getOrCreate(runId), withOptions(fileData, engine, cache), rd, skipSSL);
     }
 
     @PostMapping("/executeFile")
     @ResponseBody
     public Mono<List<String>> executeFile(@RequestParam String fileName,
-                                          @RequestParam(defaultValue = "false") boolean skipSSL) {
-        List<YamlFileData> files = requestService.loadYamlFiles();
-        for (YamlFileData fileData : files) {
-            if (fileData.getFileName().equals(fileName)) {
-                return requestService.executeFile(fileData, skipSSL);
-            }
+                                          @RequestParam(required = false) String engine,
+                                          @RequestParam(required = false) String cache,
+                                          @RequestParam(defaultValue = "false") boolean skipSSL,
+                                          @RequestParam(defaultValue = "0") int concurrency,
+                                          @RequestParam(required = false) String runId) {
+        YamlFileData fileData = catalogService.getCatalog().getFile(fileName);
+        if (fileData == null) {
+            return Mono.just(List.of("{\"error\": \"File not found\"}"));
         }
-        return Mono.just(List.of("{\"error\": \"File not found\"}"));
+        return requestService.executeFile(runRegistry.getOrCreate(runId), withOptions(fileData, engine, cache), skipSSL, concurrency);
     }
 
     @PostMapping("/executeAll")
     @ResponseBody
-    public Mono<List<String>> executeAll(@RequestParam(defaultValue = "false") boolean skipSSL) {
-        List<YamlFileData> files = requestService.loadYamlFiles();
-        return requestService.executeAll(files, skipSSL);
+    public Mono<List<String>> executeAll(@RequestParam(defaultValue = "false") boolean skipSSL,
+                                         @RequestParam(required = false) String engine,
+                                         @RequestParam(required = false) String cache,
+                                         @RequestParam(defaultValue = "0") int concurrency,
+                                         @RequestParam(required = false) String runId) {
+        return requestService.executeAll(runRegistry.getOrCreate(runId), withOptions(catalogService.getCatalog().getFiles(), engine, cache),
+                skipSSL, concurrency);
     }
 
+    // Same as /executeFile, but each result is streamed as soon as it completes (Accept: application/x-ndjson or text/event-stream).
+    @PostMapping(value = "/executeFile", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    @ResponseBody
+    public Flux<ExecutionResult> streamFile(@RequestParam String fileName,
+                                            @RequestParam(required = false) String engine,
+                                            @RequestParam(required = false) String cache,
+                                            @RequestParam(defaultValue = "false") boolean skipSSL,
+                                            @RequestParam(defaultValue = "0") int concurrency,
+                                            @RequestParam(required = false) String runId) {
+        YamlFileData fileData = catalogService.getCatalog().getFile(fileName);
+        if (fileData == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "File not found: " + fileName);
+        }
+        return requestService.streamFile(runRegistry.getOrCreate(runId), withOptions(fileData, engine, cache), skipSSL, concurrency);
+    }
+
+    // Same as /executeAll, streamed in completion order.
+    @PostMapping(value = "/executeAll", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    @ResponseBody
+    public Flux<ExecutionResult> streamAll(@RequestParam(defaultValue = "false") boolean skipSSL,
+                                           @RequestParam(required = false) String engine,
+                                           @RequestParam(required = false) String cache,
+                                           @RequestParam(defaultValue = "0") int concurrency,
+                                           @RequestParam(required = false) String runId) {
+        return requestService.streamAll(runRegistry.getOrCreate(runId), withOptions(catalogService.getCatalog().getFiles(), engine, cache),
+                skipSSL, concurrency);
+    }
+
+    /**
+     * Run a request (with the requests it references), or the whole file when requestId is omitted, once per
+     * row of 'dataFile', a CSV or JSONL file in apitester.data.dir whose columns are {{data.column}}.
+     * Results are streamed as each completes, tagged with their dataRow.
+     */
+    @PostMapping(value = "/executeData", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    @ResponseBody
+    public Flux<ExecutionResult> executeData(@RequestParam String fileName,
+                                             @RequestParam(required = false) String requestId,
+                                             @RequestParam String dataFile,
+                                             @RequestParam(defaultValue = "sequential") String dataStrategy,
+                                             @RequestParam(defaultValue = "1") int workers,
+                                             @RequestParam(required = false) Long limit,
+                                             @RequestParam(required = false) String engine,
+                                             @RequestParam(required = false) String cache,
+                                             @RequestParam(defaultValue = "false") boolean skipSSL) {
+        RequestCatalog catalog = catalogService.getCatalog();
+        YamlFileData fileData = catalog.getFile(fileName);
+        if (fileData == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "File not found: " + fileName);
+        }
+        RequestDefinition rd = null;
+        if (requestId != null && !requestId.isBlank()) {
+            rd = catalog.getRequest(fileName, requestId);
+            if (rd == null) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Request not found: " + requestId);
+            }
+        }
+        if (workers < 1 || workers > loadTestService.getMaxConcurrency()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "workers must be between 1 and " + loadTestService.getMaxConcurrency());
+        }
+        if (limit != null && limit < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be positive");
+        }
+        DataFeeder feeder = dataFeeders.open(dataFile, dataStrategy, workers);
+        if (limit == null && feeder.getStrategy().isEndless()) {
+            feeder.close();
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit is required with the " + dataStrategy + " strategy");
+        }
+        return requestService.streamRows(withOptions(fileData, engine, cache), rd, feeder, workers, limit, skipSSL);
+    }
+
+    /**
+     * Closed-model load run of one request, or of the whole file as a scenario when requestId is omitted.
+     * With 'dataFile', each iteration takes a data row; partitioned rows are split across the virtual users.
+     */
+    @PostMapping("/load")
+    @ResponseBody
+    public Mono<LoadReport> load(@RequestParam String fileName,
+                                 @RequestParam(required = false) String requestId,
+                                 @RequestParam(defaultValue = "1") int concurrency,
+                                 @RequestParam(required = false) Long iterations,
+                                 @RequestParam(required = false) String duration,
+                                 @RequestParam(required = false) String dataFile,
+                                 @RequestParam(defaultValue = "sequential") String dataStrategy,
+                                 @RequestParam(required = false) String engine,
+                                 @RequestParam(required = false) String cache,
+                                 @RequestParam(defaultValue = "false") boolean skipSSL) {
+        YamlFileData fileData = catalogService.getCatalog().getFile(fileName);
+        if (fileData == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "File not found: " + fileName);
+        }
+        LoadWorkload workload = loadTestService.workload(withOptions(fileData, engine, cache), requestId, skipSSL);
+        LoadTestService.LoadOptions options = new LoadTestService.LoadOptions(concurrency, iterations, parseDuration(duration));
+        if (dataFile == null || dataFile.isBlank()) {
+            return loadTestService.run(workload, options);
+        }
+        return loadTestService.run(workload, options, dataFeeders.open(dataFile, dataStrategy, Math.max(concurrency, 1)));
+    }
+
+    /**
+     * Open-model load run at a target arrival rate. Either 'stages' ("30s:100,2m:100,30s:0", ramping
+     * linearly from 'startRate'), or a constant 'rate' held for 'duration'. 'arrivals' is fixed or poisson.
+     * With 'dataFile', each arrival takes a random or circular data row.
+     */
+    @PostMapping("/loadRate")
+    @ResponseBody
+    public Mono<LoadReport> loadRate(@RequestParam String fileName,
+                                     @RequestParam(required = false) String requestId,
+                                     @RequestParam(required = false) String stages,
+                                     @RequestParam(required = false) Double rate,
+                                     @RequestParam(required = false) String duration,
+                                     @RequestParam(defaultValue = "0") double startRate,
+                                     @RequestParam(defaultValue = "fixed") String arrivals,
+                                     @RequestParam(defaultValue = "1000") int maxOutstanding,
+                                     @RequestParam(required = false) String dataFile,
+                                     @RequestParam(defaultValue = "circular") String dataStrategy,
+                                     @RequestParam(required = false) String engine,
+                                     @RequestParam(required = false) String cache,
+                                     @RequestParam(defaultValue = "false") boolean skipSSL) {
+        YamlFileData fileData = catalogService.getCatalog().getFile(fileName);
+        if (fileData == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "File not found: " + fileName);
+        }
+        List<ArrivalRateScheduler.Stage> parsedStages;
+        if (stages != null && !stages.isBlank()) {
+            parsedStages = LoadTestService.parseStages(stages);
+        } else if (rate != null && duration != null) {
+            parsedStages = List.of(new ArrivalRateScheduler.Stage(parseDuration(duration), rate));
+            startRate = rate;
+        } else {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Either stages or rate and duration are required");
+        }
+        ArrivalRateScheduler.InterArrival interArrival;
+        try {
+            interArrival = ArrivalRateScheduler.InterArrival.valueOf(arrivals.toUpperCase());
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "arrivals must be fixed or poisson");
+        }
+        LoadWorkload workload = loadTestService.workload(withOptions(fileData, engine, cache), requestId, skipSSL);
+        ArrivalRateScheduler.Options options = new ArrivalRateScheduler.Options(parsedStages, startRate, interArrival, maxOutstanding);
+        if (dataFile == null || dataFile.isBlank()) {
+            return loadTestService.runArrivalRate(workload, options);
+        }
+        return loadTestService.runArrivalRate(workload, options, dataFeeders.open(dataFile, dataStrategy, 1));
+    }
+
+    /**
+     * A load run spread over worker instances ('workers', comma-separated base URLs, or
+     * apitester.distributed.workers). Closed-model with 'concurrency'/'iterations'/'duration', or arrival-rate
+     * with 'stages' or 'rate' and 'duration'; virtual users, iterations and rates are divided between the
+     * workers and each takes its own slice of 'dataFile', read from its own data directory. The merged
+     * state is streamed after every worker update; the last report has 'done' set.
+     */
+    @PostMapping(value = "/distributed/load", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    @ResponseBody
+    public Flux<DistributedReport> distributedLoad(@RequestParam String fileName,
+                                                   @RequestParam(required = false) String requestId,
+                                                   @RequestParam(required = false) String workers,
+                                                   @RequestParam(defaultValue = "1") int concurrency,
+                                                   @RequestParam(required = false) Long iterations,
+                                                   @RequestParam(required = false) String duration,
+                                                   @RequestParam(required = false) String stages,
+                                                   @RequestParam(required = false) Double rate,
+                                                   @RequestParam(defaultValue = "0") double startRate,
+                                                   @RequestParam(defaultValue = "fixed") String arrivals,
+                                                   @RequestParam(defaultValue = "1000") int maxOutstanding,
+                                                   @RequestParam(required = false) String dataFile,
+                                                   @RequestParam(required = false) String dataStrategy,
+                                                   @RequestParam(required = false) String engine,
+                                                   @RequestParam(defaultValue = "false") boolean skipSSL) {
+        YamlFileData fileData = catalogService.getCatalog().getFile(fileName);
+        if (fileData == null || fileData.getSource() == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "File not found: " + fileName);
+        }
+        if (requestId != null && !requestId.isBlank()
+                && fileData.getRequests().stream().noneMatch(rd -> rd.getId().equals(requestId))) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Request not found: " + requestId);
+        }
+        Duration parsedDuration = parseDuration(duration);
+        if ((stages == null || stages.isBlank()) && rate != null) {
+            if (parsedDuration == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "rate needs a duration");
+            }
+            stages = parsedDuration.toMillis() + "ms:" + rate;
+            startRate = rate;
+        }
+        boolean arrivalRate = stages != null && !stages.isBlank();
+        WorkerJob job = new WorkerJob(fileName, fileData.getSource(), requestId != null && !requestId.isBlank() ? requestId : null,
+                skipSSL, withEngine(fileData, engine) != fileData ? engine : null,
+                arrivalRate ? 0 : concurrency, arrivalRate ? null : iterations,
+                arrivalRate || parsedDuration == null ? null : parsedDuration.toMillis(),
+                arrivalRate ? stages : null, startRate, arrivals, maxOutstanding,
+                dataFile != null && !dataFile.isBlank() ? dataFile : null, dataStrategy, 0, 1);
+        return coordinator.run(coordinator.workers(workers), job);
+    }
+
+    // A job from a coordinator, run on this instance; see /distributed/load.
+    @PostMapping(value = "/worker/jobs", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @ResponseBody
+    public Flux<WorkerUpdate> workerJob(@RequestHeader(value = WorkerService.TOKEN_HEADER, required = false) String token,
+                                        @RequestBody WorkerJob job) {
+        worker.authorize(token);
+        return worker.run(job);
+    }
+
+    // The suite run with the 'engine' parameter's execution engine; the suite's own when it is not given.
+    private static YamlFileData withEngine(YamlFileData fileData, String engine) {
+        try {
+            return fileData.withEngine(engine);
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage());
+        }
+    }
+
+    // The suite run with the 'engine' and 'cache' parameters; the suite's own settings for those not given.
+    private static YamlFileData withOptions(YamlFileData fileData, String engine, String cache) {
+        try {
+            return withEngine(fileData, engine).withCache(cache);
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage());
+        }
+    }
+
+    private static List<YamlFileData> withOptions(List<YamlFileData> filesData, String engine, String cache) {
+        return filesData.stream().map(fileData -> withOptions(fileData, engine, cache)).toList();
+    }
+
+    // Accepts "30s", "500ms", "2m", ISO-8601 ("PT30S") or plain seconds.
+    private static Duration parseDuration(String duration) {
+        if (duration == null || duration.isBlank()) {
+            return null;
+        }
+        try {
+            return DurationStyle.detectAndParse(duration, ChronoUnit.SECONDS);
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid duration: " + duration);
+        }
+    }
+
+    @PostMapping("/reloadCatalog")
+    @ResponseBody
+    public Map<String, Object> reloadCatalog() {
+        RequestCatalog catalog = catalogService.reload();
+        return Map.of("files", catalog.getFiles().size(), "errors", catalog.getErrors());
+    }
+
+    @GetMapping("/poolStats")
+    @ResponseBody
+    public List<Map<String, Object>> poolStats() {
+        return webClients.poolStats();
+    }
+
+    @GetMapping("/runs")
+    @ResponseBody
+    public List<Map<String, Object>> runs() {
+        return runRegistry.stats();
+    }
+
+    // Every request in the run history with its run and failure counts and latest run.
+    @GetMapping("/history")
+    @ResponseBody
+    public List<HistorySummary> history() {
+        return history.summaries();
+    }
+
+    // The latest runs of a request, newest first.
+    @GetMapping("/history/runs")
+    @ResponseBody
+    public List<HistoryEntry> historyRuns(@RequestParam String fileName,
+                                          @RequestParam String requestId,
+                                          @RequestParam(defaultValue = "20") int limit) {
+        return history.recent(fileName, requestId, Math.max(1, limit));
+    }
+
+    // Runs, failures and mean/max latency of a request per time bucket over the last 'window' (default 24h).
+    @GetMapping("/history/trend")
+    @ResponseBody
+    public List<HistoryTrendPoint> historyTrend(@RequestParam String fileName,
+                                                @RequestParam String requestId,
+                                                @RequestParam(defaultValue = "24h") String window) {
+        Duration span = parseDuration(window);
+        return history.trend(fileName, requestId, span != null ? System.currentTimeMillis() - span.toMillis() : 0);
+    }
+
+    @GetMapping(value = "/history/body/{hash}", produces = MediaType.TEXT_PLAIN_VALUE)
+    @ResponseBody
+    public String historyBody(@PathVariable String hash) throws IOException {
+        String body = history.body(hash);
+        if (body == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No stored body: " + hash);
+        }
+        return body;
+    }
+
+    @GetMapping("/history/stats")
+    @ResponseBody
+    public Map<String, Object> historyStats() {
+        return history.stats();
+    }
+
+    // The full body of a response too large for its preview. Sent as a download so it is never rendered here.
+    @GetMapping("/responses/{id}")
+    public ResponseEntity<Resource> fullResponse(@PathVariable String id) {
+        SpillStore.SpilledBody body = spills.get(id);
+        if (body == null || !Files.isRegularFile(body.path())) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No stored response: " + id);
+        }
+        MediaType contentType = body.contentType() != null
+                ? MediaType.parseMediaType(body.contentType()) : MediaType.APPLICATION_OCTET_STREAM;
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .contentLength(body.bytes())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + id + ".body\"")
+                .header("X-Content-Type-Options", "nosniff")
+                .body(new FileSystemResource(body.path()));
+    }
+
+    // Entries, bytes and hit/miss/revalidation counts of the response cache.
+    @GetMapping("/cacheStats")
+    @ResponseBody
+    public Map<String, Object> cacheStats() {
+        return responseCache.stats();
+    }
+
+    @PostMapping("/clearCache")
+    @ResponseBody
+    public String clearCache() {
+        responseCache.clear();
+        return "Cleared";
+    }
+
+    // Clears one run's stored responses, or every run when no runId is given.
     @PostMapping("/clearResponses")
     @ResponseBody
-    public String clearResponses() {
-        requestService.clearResponses();
+    public String clearResponses(@RequestParam(required = false) String runId) {
+        if (runId == null || runId.isBlank()) {
+            runRegistry.clear();
+        } else {
+            runRegistry.remove(runId);
+        }
         return "Cleared";
     }
 }
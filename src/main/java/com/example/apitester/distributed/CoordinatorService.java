@@ -0,0 +1,112 @@
+package com.example.apitester.distributed;
+
+import com.example.apitester.config.ApiTesterProperties;
+import com.example.apitester.model.DistributedReport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuples;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+/**
+ * Spreads a load run over worker instances of the app. Each worker is sent its share of the run
+ * ({@link WorkerJob#forNode}) in a POST to /worker/jobs and answers with a stream of updates;
+ * the coordinator merges them as they arrive and emits the merged state after every update.
+ * Cancelling the returned stream closes the worker connections, which cancels their runs.
+ */
+@Service
+public class CoordinatorService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CoordinatorService.class);
+
+    private final ApiTesterProperties.Distributed settings;
+    private final WebClient webClient;
+
+    public CoordinatorService(ApiTesterProperties properties, WebClient.Builder webClientBuilder) {
+        this.settings = properties.getDistributed();
+        this.webClient = webClientBuilder.build();
+    }
+
+    /**
+     * The workers named for a run (comma-separated base URLs), or the configured ones. The token goes to
+     * every worker, so with a token set a run may only name configured workers.
+     */
+    public List<String> workers(String workers) {
+        List<String> urls = workers != null && !workers.isBlank()
+                ? Arrays.stream(workers.split(",")).map(String::trim).filter(url -> !url.isEmpty()).toList()
+                : settings.getWorkers();
+        if (urls.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "No workers; pass workers or set apitester.distributed.workers");
+        }
+        for (String url : urls) {
+            if (!url.startsWith("http://") && !url.startsWith("https://")) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Worker must be an http(s) base URL: " + url);
+            }
+            if (settings.getToken() != null && !isConfigured(url)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Worker is not in apitester.distributed.workers: " + url);
+            }
+        }
+        return urls;
+    }
+
+    private boolean isConfigured(String url) {
+        String normalized = url.replaceAll("/+$", "");
+        return settings.getWorkers().stream().anyMatch(worker -> worker.trim().replaceAll("/+$", "").equals(normalized));
+    }
+
+    public Flux<DistributedReport> run(List<String> workers, WorkerJob job) {
+        int nodes = workers.size();
+        if (!job.isArrivalRate() && job.concurrency() < nodes) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "concurrency must be at least the number of workers (" + nodes + ")");
+        }
+        if (job.iterations() != null && job.iterations() < nodes) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "iterations must be at least the number of workers (" + nodes + ")");
+        }
+        List<WorkerJob> shares = IntStream.range(0, nodes).mapToObj(node -> job.forNode(node, nodes)).toList();
+        String name = job.requestId() != null ? job.fileName() + "/" + job.requestId() : job.fileName();
+        String id = UUID.randomUUID().toString();
+        return Flux.defer(() -> {
+            logger.info("Distributed run {} started: {} on {} workers", id, name, nodes);
+            DistributedRun run = new DistributedRun(id, name, workers);
+            return Flux.range(0, nodes)
+                    .flatMap(node -> send(workers.get(node), shares.get(node)).map(update -> Tuples.of(node, update)), nodes)
+                    // Applied after the merge, so reports are emitted in the order they were computed.
+                    .map(update -> run.apply(update.getT1(), update.getT2()))
+                    .concatWith(Mono.fromSupplier(run::finish))
+                    .doOnComplete(() -> logger.info("Distributed run {} finished", id));
+        });
+    }
+
+    // A worker's update stream; a worker that cannot be reached or refuses the job yields one failed update.
+    private Flux<WorkerUpdate> send(String worker, WorkerJob job) {
+        return webClient.post()
+                .uri(worker.replaceAll("/+$", "") + "/worker/jobs")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .headers(headers -> {
+                    if (settings.getToken() != null) {
+                        headers.set(WorkerService.TOKEN_HEADER, settings.getToken());
+                    }
+                })
+                .bodyValue(job)
+                .retrieve()
+                .bodyToFlux(WorkerUpdate.class)
+                .onErrorResume(ex -> {
+                    String reason = ex instanceof WebClientResponseException response
+                            ? response.getStatusCode().value() + " from " + worker : ex.getMessage();
+                    logger.warn("Worker {} failed: {}", worker, reason);
+                    return Mono.just(WorkerUpdate.failed(reason));
+                });
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.apitester.distributed;
+
+import com.example.apitester.model.DistributedReport;
+import com.example.apitester.model.LoadReport;
+import com.example.apitester.service.LatencyRecorder;
+import org.HdrHistogram.Histogram;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.zip.DataFormatException;
+
+/**
+ * The coordinator's view of a distributed run: per worker, the sum of the interval histograms it
+ * sent (replaced by its whole histogram when it is done) and its latest counters. Reports merge
+ * them into totals, so percentiles are computed over every recorded latency, not averaged.
+ */
+final class DistributedRun {
+
+    private static final class Node {
+        final String worker;
+        String state = "starting";
+        Histogram histogram = new Histogram(3);
+        Map<String, Long> statusCounts = Map.of();
+        long errors;
+        LoadReport report;
+        String error;
+
+        Node(String worker) {
+            this.worker = worker;
+        }
+    }
+
+    private final String id;
+    private final String name;
+    private final List<Node> nodes = new ArrayList<>();
+    private final long start = System.nanoTime();
+
+    DistributedRun(String id, String name, List<String> workers) {
+        this.id = id;
+        this.name = name;
+        workers.forEach(worker -> nodes.add(new Node(worker)));
+    }
+
+    // Take in an update from worker 'node' and report the merged state.
+    synchronized DistributedReport apply(int node, WorkerUpdate update) {
+        Node state = nodes.get(node);
+        state.state = update.state();
+        if (WorkerUpdate.FAILED.equals(update.state())) {
+            state.error = update.error();
+            return report(false);
+        }
+        try {
+            Histogram histogram = WorkerUpdate.decode(update.histogram());
+            if (WorkerUpdate.DONE.equals(update.state())) {
+                state.histogram = histogram;
+                state.report = update.report();
+            } else {
+                state.histogram.add(histogram);
+            }
+        } catch (DataFormatException | RuntimeException ex) {
+            state.state = WorkerUpdate.FAILED;
+            state.error = "Unreadable histogram: " + ex.getMessage();
+        }
+        state.statusCounts = update.statusCounts() != null ? update.statusCounts() : Map.of();
+        state.errors = update.errors();
+        return report(false);
+    }
+
+    // The final report, once every worker stream has ended; workers that never said they were done failed.
+    synchronized DistributedReport finish() {
+        for (Node node : nodes) {
+            if (!WorkerUpdate.DONE.equals(node.state) && !WorkerUpdate.FAILED.equals(node.state)) {
+                node.state = WorkerUpdate.FAILED;
+                node.error = "Worker stream ended before the run was done";
+            }
+        }
+        return report(true);
+    }
+
+    private DistributedReport report(boolean done) {
+        Histogram merged = new Histogram(3);
+        Map<String, Long> statusCounts = new TreeMap<>();
+        long errors = 0;
+        List<DistributedReport.Node> states = new ArrayList<>();
+        for (Node node : nodes) {
+            merged.add(node.histogram);
+            node.statusCounts.forEach((status, count) -> statusCounts.merge(status, count, Long::sum));
+            errors += node.errors;
+            states.add(new DistributedReport.Node(node.worker, node.state, node.histogram.getTotalCount(), node.errors,
+                    node.report, node.error));
+        }
+        long elapsed = System.nanoTime() - start;
+        LoadReport total = LatencyRecorder.report(name, merged, statusCounts, errors, elapsed);
+        if (done) {
+            total.setSkipped(sum(LoadReport::getSkipped));
+            total.setIterations(sum(LoadReport::getIterations));
+            total.setDropped(sum(LoadReport::getDropped));
+        }
+        return new DistributedReport(id, name, done, TimeUnit.NANOSECONDS.toMillis(elapsed), total, states);
+    }
+
+    // Sum of a count the workers' own reports carry, or null when none does.
+    private Long sum(Function<LoadReport, Long> count) {
+        Long sum = null;
+        for (Node node : nodes) {
+            Long value = node.report != null ? count.apply(node.report) : null;
+            if (value != null) {
+                sum = (sum != null ? sum : 0) + value;
+            }
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.apitester.distributed;
+
+import com.example.apitester.service.LoadTestService;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.util.stream.Collectors;
+
+/**
+ * A worker's share of a distributed load run, as sent by the coordinator: the suite's YAML and what to
+ * run from it (a request, or the whole file as a scenario when 'requestId' is null), the load model and
+ * the slice of the data file. A closed-model run uses 'concurrency', 'iterations' and 'durationMs';
+ * an arrival-rate run has 'stages' in the "duration:rate,..." form of /loadRate. 'engine' overrides the
+ * suite's execution engine when set.
+ */
+public record WorkerJob(String fileName, String suite, String requestId, boolean skipSSL, String engine,
+                        int concurrency, Long iterations, Long durationMs,
+                        String stages, double startRate, String arrivals, int maxOutstanding,
+                        String dataFile, String dataStrategy, int slice, int slices) {
+
+    @JsonIgnore
+    public boolean isArrivalRate() { return stages != null; }
+
+    /**
+     * The share of node 'node' of 'nodes': virtual users and iterations are divided between the nodes,
+     * as are the rates and the outstanding-iteration cap; each node takes its own slice of the data file.
+     */
+    public WorkerJob forNode(int node, int nodes) {
+        String nodeStages = stages == null ? null : LoadTestService.parseStages(stages).stream()
+                .map(stage -> stage.duration().toMillis() + "ms:" + stage.targetRate() / nodes)
+                .collect(Collectors.joining(","));
+        return new WorkerJob(fileName, suite, requestId, skipSSL, engine,
+                (int) share(concurrency, node, nodes), iterations != null ? share(iterations, node, nodes) : null, durationMs,
+                nodeStages, startRate / nodes, arrivals, (maxOutstanding + nodes - 1) / nodes,
+                dataFile, dataStrategy, node, nodes);
+    }
+
+    // 'total' split as evenly as possible; the first nodes take the remainder.
+    private static long share(long total, int node, int nodes) {
+        return total / nodes + (node < total % nodes ? 1 : 0);
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.apitester.distributed;
+
+import com.example.apitester.config.ApiTesterProperties;
+import com.example.apitester.feeder.DataFeeder;
+import com.example.apitester.model.LoadReport;
+import com.example.apitester.model.YamlFileData;
+import com.example.apitester.service.ArrivalRateScheduler;
+import com.example.apitester.service.DataFeederService;
+import com.example.apitester.service.LatencyRecorder;
+import com.example.apitester.service.LoadTestService;
+import com.example.apitester.service.LoadWorkload;
+import com.example.apitester.service.RequestCatalogService;
+import com.example.apitester.service.YamlSuiteParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs a coordinator's {@link WorkerJob} on this instance and streams {@link WorkerUpdate}s back.
+ * The job is an ordinary load run of the shipped suite; the update stream samples its latency
+ * recorder every apitester.distributed.update-interval-ms. Cancelling the stream (the coordinator
+ * going away) cancels the run.
+ */
+@Service
+public class WorkerService {
+
+    private static final Logger logger = LoggerFactory.getLogger(WorkerService.class);
+
+    public static final String TOKEN_HEADER = "X-Apitester-Token";
+
+    private final ApiTesterProperties.Distributed settings;
+    private final LoadTestService loadTestService;
+    private final DataFeederService dataFeeders;
+
+    public WorkerService(ApiTesterProperties properties, LoadTestService loadTestService, DataFeederService dataFeeders) {
+        this.settings = properties.getDistributed();
+        this.loadTestService = loadTestService;
+        this.dataFeeders = dataFeeders;
+    }
+
+    // Jobs are only taken with worker mode on and the shared token, as they make this instance send arbitrary requests.
+    public void authorize(String token) {
+        if (!settings.isWorker()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Worker mode is disabled; set apitester.distributed.worker");
+        }
+        if (settings.getToken() == null || settings.getToken().isBlank()) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Worker mode needs apitester.distributed.token");
+        }
+        if (token == null || !MessageDigest.isEqual(token.getBytes(StandardCharsets.UTF_8),
+                settings.getToken().getBytes(StandardCharsets.UTF_8))) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Invalid worker token");
+        }
+    }
+
+    /**
+     * Start the job and stream its progress. A job that cannot start ends the stream with a single
+     * failed update carrying the reason, as does a run that fails.
+     */
+    public Flux<WorkerUpdate> run(WorkerJob job) {
+        LoadWorkload workload;
+        Mono<LoadReport> load;
+        try {
+            workload = loadTestService.workload(parse(job), job.requestId(), job.skipSSL());
+            load = job.isArrivalRate() ? arrivalRate(workload, job) : closed(workload, job);
+        } catch (ResponseStatusException ex) {
+            logger.warn("Worker job for {} rejected: {}", job.fileName(), ex.getReason());
+            return Flux.just(WorkerUpdate.failed(ex.getReason()));
+        }
+        logger.info("Worker job started: {} (slice {} of {})", workload.getName(), job.slice() + 1, job.slices());
+        LatencyRecorder recorder = workload.getRecorder();
+        long start = System.nanoTime();
+        Duration interval = Duration.ofMillis(settings.getUpdateIntervalMs());
+        Flux<WorkerUpdate> progress = Flux.interval(interval, interval)
+                .map(tick -> new WorkerUpdate(WorkerUpdate.RUNNING, elapsedMs(start),
+                        WorkerUpdate.encode(recorder.intervalHistogram()), recorder.errors(), recorder.statusCounts(), null, null));
+        Flux<WorkerUpdate> done = load
+                .map(report -> new WorkerUpdate(WorkerUpdate.DONE, elapsedMs(start),
+                        WorkerUpdate.encode(recorder.cumulativeHistogram()), recorder.errors(), recorder.statusCounts(), report, null))
+                .flux();
+        return Flux.merge(progress, done)
+                .takeUntil(update -> !WorkerUpdate.RUNNING.equals(update.state()))
+                .onErrorResume(ex -> {
+                    String reason = ex instanceof ResponseStatusException status ? status.getReason() : ex.getMessage();
+                    logger.warn("Worker job for {} failed: {}", workload.getName(), reason);
+                    return Mono.just(WorkerUpdate.failed(reason));
+                })
+                .doOnCancel(() -> logger.info("Worker job for {} cancelled by the coordinator", workload.getName()));
+    }
+
+    private static YamlFileData parse(WorkerJob job) {
+        if (job.fileName() == null || job.suite() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "A job needs a fileName and a suite");
+        }
+        YamlFileData fileData;
+        try {
+            fileData = new YamlSuiteParser().parse(job.fileName(), new ByteArrayInputStream(job.suite().getBytes(StandardCharsets.UTF_8)));
+        } catch (RuntimeException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid suite " + job.fileName() + ": " + ex.getMessage());
+        }
+        RequestCatalogService.indexReferences(List.of(fileData));
+        try {
+            return fileData.withEngine(job.engine());
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage());
+        }
+    }
+
+    private Mono<LoadReport> closed(LoadWorkload workload, WorkerJob job) {
+        LoadTestService.LoadOptions options = new LoadTestService.LoadOptions(job.concurrency(), job.iterations(),
+                job.durationMs() != null ? Duration.ofMillis(job.durationMs()) : null);
+        if (job.dataFile() == null) {
+            return loadTestService.run(workload, options);
+        }
+        DataFeeder feeder = dataFeeders.open(job.dataFile(), strategy(job, "sequential"), Math.max(job.concurrency(), 1),
+                job.slice(), job.slices());
+        return loadTestService.run(workload, options, feeder);
+    }
+
+    private Mono<LoadReport> arrivalRate(LoadWorkload workload, WorkerJob job) {
+        ArrivalRateScheduler.InterArrival interArrival;
+        try {
+            interArrival = ArrivalRateScheduler.InterArrival.valueOf(job.arrivals() != null ? job.arrivals().toUpperCase() : "FIXED");
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "arrivals must be fixed or poisson");
+        }
+        ArrivalRateScheduler.Options options = new ArrivalRateScheduler.Options(
+                LoadTestService.parseStages(job.stages()), job.startRate(), interArrival, job.maxOutstanding());
+        if (job.dataFile() == null) {
+            return loadTestService.runArrivalRate(workload, options);
+        }
+        DataFeeder feeder = dataFeeders.open(job.dataFile(), strategy(job, "circular"), 1, job.slice(), job.slices());
+        return loadTestService.runArrivalRate(workload, options, feeder);
+    }
+
+    private static String strategy(WorkerJob job, String defaultStrategy) {
+        return job.dataStrategy() != null && !job.dataStrategy().isBlank() ? job.dataStrategy() : defaultStrategy;
+    }
+
+    private static long elapsedMs(long start) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.apitester.distributed;
+
+import com.example.apitester.model.LoadReport;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.HdrHistogram.Histogram;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+
+/**
+ * One message of the NDJSON stream a worker sends back. While running, 'histogram' holds the latencies
+ * recorded since the previous update, so the coordinator can add the histograms of all workers up;
+ * the final "done" update holds the worker's whole histogram and its own report instead. Counters are
+ * always the worker's running totals.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record WorkerUpdate(String state, long elapsedMs, String histogram, long errors,
+                           Map<String, Long> statusCounts, LoadReport report, String error) {
+
+    public static final String RUNNING = "running";
+    public static final String DONE = "done";
+    public static final String FAILED = "failed";
+
+    public static WorkerUpdate failed(String error) {
+        return new WorkerUpdate(FAILED, 0, null, 0, null, null, error);
+    }
+
+    // A histogram as base64 of its compressed HdrHistogram encoding.
+    static String encode(Histogram histogram) {
+        ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+        int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+        return Base64.getEncoder().encodeToString(Arrays.copyOf(buffer.array(), length));
+    }
+
+    static Histogram decode(String histogram) throws DataFormatException {
+        return Histogram.decodeFromCompressedByteBuffer(ByteBuffer.wrap(Base64.getDecoder().decode(histogram)), 0);
+    }
+}
@@ -0,0 +1,301 @@
+package com.example.apitester.feeder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hands out the rows of a CSV (with a header row) or JSONL data file for data-driven runs,
+ * streaming the file instead of loading it: rows are read on demand through positional reads,
+ * so a file of millions of rows costs a read buffer per cursor. Only the random strategy keeps
+ * an index, of one offset (8 bytes) per row.
+ * <p>
+ * Blank lines are skipped. CSV fields may be quoted ("a, b" and "" for a quote) but a row
+ * must fit on one line. JSONL rows are objects; nested values are handed out as JSON text.
+ * <p>
+ * A feeder can be limited to one slice of the rows, so that several nodes of a distributed run
+ * each take their own share of a file; the strategy then applies within the slice.
+ */
+public final class DataFeeder implements AutoCloseable {
+
+    public enum Strategy {
+        // Every row once, in file order, shared by all workers.
+        SEQUENTIAL,
+        // Rows picked uniformly at random, forever.
+        RANDOM,
+        // File order, starting over at the end, forever.
+        CIRCULAR,
+        // The file is split into one contiguous range per worker; every row is handed out once.
+        PARTITIONED;
+
+        // Whether the feeder never runs out of rows.
+        public boolean isEndless() { return this == RANDOM || this == CIRCULAR; }
+    }
+
+    private enum Format { CSV, JSONL }
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Path file;
+    private final FileChannel channel;
+    private final Format format;
+    private final Strategy strategy;
+    private final List<String> columns;
+    private final long size;
+    // The byte range of this feeder's slice of the rows.
+    private final long from;
+    private final long to;
+    private final AtomicLong handedOut = new AtomicLong();
+    // Cursor of the sequential and circular strategies.
+    private LineReader shared;
+    // One cursor per worker of the partitioned strategy.
+    private LineReader[] partitions;
+    // Start offsets of the rows for the random strategy.
+    private long[] offsets;
+    private int rowCount;
+
+    private DataFeeder(Path file, FileChannel channel, Format format, Strategy strategy, int workers,
+                       int slice, int slices) throws IOException {
+        this.file = file;
+        this.channel = channel;
+        this.format = format;
+        this.strategy = strategy;
+        this.size = channel.size();
+        LineReader header = new LineReader(channel, 0, size);
+        if (format == Format.CSV) {
+            String line = nextRow(header);
+            if (line == null) {
+                throw new IllegalArgumentException("Data file has no header row: " + file.getFileName());
+            }
+            List<String> names = parseCsv(line.startsWith("\uFEFF") ? line.substring(1) : line);
+            this.columns = names.stream().map(String::trim).toList();
+        } else {
+            this.columns = List.of();
+        }
+        long dataStart = header.position();
+        if (nextRow(new LineReader(channel, dataStart, size)) == null) {
+            throw new IllegalArgumentException("Data file has no rows: " + file.getFileName());
+        }
+        long[] bounds = split(dataStart, size, slices);
+        this.from = bounds[slice];
+        this.to = bounds[slice + 1];
+        if ((strategy == Strategy.RANDOM || strategy == Strategy.CIRCULAR) && nextRow(new LineReader(channel, from, to)) == null) {
+            throw new IllegalArgumentException("Slice " + (slice + 1) + " of " + slices + " of " + file.getFileName() + " has no rows");
+        }
+        switch (strategy) {
+            case SEQUENTIAL, CIRCULAR -> shared = new LineReader(channel, from, to);
+            case PARTITIONED -> {
+                long[] ranges = split(from, to, workers);
+                partitions = new LineReader[workers];
+                for (int i = 0; i < workers; i++) {
+                    partitions[i] = new LineReader(channel, ranges[i], ranges[i + 1]);
+                }
+            }
+            case RANDOM -> index();
+        }
+    }
+
+    /**
+     * Open a .csv, .jsonl or .ndjson file. 'workers' is the number of partitions of the partitioned
+     * strategy. Throws IllegalArgumentException for an unsupported or empty file.
+     */
+    public static DataFeeder open(Path file, Strategy strategy, int workers) throws IOException {
+        return open(file, strategy, workers, 0, 1);
+    }
+
+    /**
+     * Open slice 'slice' (0-based) of 'slices' roughly equal slices of the rows. Slices that a
+     * random or circular feeder would find empty are rejected, as those strategies never end.
+     */
+    public static DataFeeder open(Path file, Strategy strategy, int workers, int slice, int slices) throws IOException {
+        String name = file.getFileName().toString().toLowerCase();
+        Format format;
+        if (name.endsWith(".csv")) {
+            format = Format.CSV;
+        } else if (name.endsWith(".jsonl") || name.endsWith(".ndjson")) {
+            format = Format.JSONL;
+        } else {
+            throw new IllegalArgumentException("Unsupported data file " + file.getFileName() + " (expected .csv, .jsonl or .ndjson)");
+        }
+        if (workers < 1) {
+            throw new IllegalArgumentException("workers must be positive");
+        }
+        if (slices < 1 || slice < 0 || slice >= slices) {
+            throw new IllegalArgumentException("slice must be between 0 and " + (slices - 1));
+        }
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            return new DataFeeder(file, channel, format, strategy, workers, slice, slices);
+        } catch (IOException | RuntimeException ex) {
+            channel.close();
+            throw ex;
+        }
+    }
+
+    /**
+     * The next row for a worker (0-based; only the partitioned strategy tells workers apart), or null
+     * once the worker's rows are used up. Safe to call from several threads.
+     */
+    public DataRow next(int worker) {
+        try {
+            String line = switch (strategy) {
+                case SEQUENTIAL -> read(shared, false);
+                case CIRCULAR -> read(shared, true);
+                case PARTITIONED -> read(partitions[Math.floorMod(worker, partitions.length)], false);
+                case RANDOM -> lineAt(ThreadLocalRandom.current().nextInt(rowCount));
+            };
+            if (line == null) {
+                return null;
+            }
+            long number = handedOut.incrementAndGet();
+            return new DataRow(number, parse(line, number));
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to read data file " + file.getFileName(), ex);
+        }
+    }
+
+    public Strategy getStrategy() { return strategy; }
+
+    // Column names from the CSV header; empty for JSONL, whose rows name their own fields.
+    public List<String> getColumns() { return columns; }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to close data file " + file.getFileName(), ex);
+        }
+    }
+
+    private static String read(LineReader reader, boolean wrap) throws IOException {
+        synchronized (reader) {
+            String line = nextRow(reader);
+            if (line == null && wrap) {
+                reader.rewind();
+                line = nextRow(reader);
+            }
+            return line;
+        }
+    }
+
+    private static String nextRow(LineReader reader) throws IOException {
+        String line;
+        do {
+            line = reader.nextLine();
+        } while (line != null && line.isBlank());
+        return line;
+    }
+
+    // 'parts' + 1 line-aligned boundaries splitting [start, end) into contiguous ranges of about equal size.
+    private long[] split(long start, long end, int parts) throws IOException {
+        long[] bounds = new long[parts + 1];
+        long span = (end - start) / parts;
+        bounds[0] = start;
+        for (int i = 1; i < parts; i++) {
+            bounds[i] = Math.max(bounds[i - 1], alignToLine(start + span * i, start));
+        }
+        bounds[parts] = end;
+        return bounds;
+    }
+
+    // The first line start at or after 'position'.
+    private long alignToLine(long position, long start) throws IOException {
+        if (position <= start) {
+            return start;
+        }
+        LineReader reader = new LineReader(channel, position - 1, size);
+        reader.nextLine();
+        return reader.position();
+    }
+
+    private void index() throws IOException {
+        LineReader reader = new LineReader(channel, from, to);
+        offsets = new long[1024];
+        String line;
+        while ((line = reader.nextLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            if (rowCount == offsets.length) {
+                offsets = Arrays.copyOf(offsets, rowCount * 2);
+            }
+            offsets[rowCount++] = reader.lineStart();
+        }
+    }
+
+    private String lineAt(int row) throws IOException {
+        long start = offsets[row];
+        long end = row + 1 < rowCount ? offsets[row + 1] : to;
+        ByteBuffer bytes = ByteBuffer.allocate((int) Math.min(end - start, Integer.MAX_VALUE - 8));
+        int read;
+        do {
+            read = channel.read(bytes, start + bytes.position());
+        } while (read >= 0 && bytes.hasRemaining());
+        String text = new String(bytes.array(), 0, bytes.position(), StandardCharsets.UTF_8);
+        int newline = text.indexOf('\n');
+        String line = newline == -1 ? text : text.substring(0, newline);
+        return line.endsWith("\r") ? line.substring(0, line.length() - 1) : line;
+    }
+
+    private Map<String, String> parse(String line, long number) throws IOException {
+        Map<String, String> values = new LinkedHashMap<>();
+        if (format == Format.CSV) {
+            List<String> fields = parseCsv(line);
+            for (int i = 0; i < columns.size(); i++) {
+                values.put(columns.get(i), i < fields.size() ? fields.get(i) : "");
+            }
+        } else {
+            JsonNode node = objectMapper.readTree(line);
+            if (node == null || !node.isObject()) {
+                throw new IllegalArgumentException("Row " + number + " of " + file.getFileName() + " is not a JSON object");
+            }
+            node.fields().forEachRemaining(field -> values.put(field.getKey(),
+                    field.getValue().isValueNode() ? field.getValue().asText() : field.getValue().toString()));
+        }
+        return Collections.unmodifiableMap(values);
+    }
+
+    static List<String> parseCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.apitester.feeder;
+
+import java.util.Map;
+
+/**
+ * One row of a data file: its columns by name, and 'number', counting the rows handed out by
+ * the feeder from 1.
+ */
+public record DataRow(long number, Map<String, String> values) {}
@@ -0,0 +1,94 @@
+package com.example.apitester.feeder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Reads the lines of one byte range of a file through a fixed buffer with positional reads,
+ * so several readers can share a channel and none of them holds more than a line in memory.
+ * Not thread-safe; callers synchronize.
+ */
+final class LineReader {
+
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    private final FileChannel channel;
+    private final long start;
+    private final long end;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_BYTES);
+    private byte[] line = new byte[256];
+    // File position of the first byte in 'buffer'.
+    private long bufferPosition;
+    private long lineStart;
+
+    LineReader(FileChannel channel, long start, long end) {
+        this.channel = channel;
+        this.start = start;
+        this.end = end;
+        rewind();
+    }
+
+    void rewind() {
+        buffer.clear().flip();
+        bufferPosition = start;
+        lineStart = start;
+    }
+
+    // File position where the line last returned by nextLine() starts.
+    long lineStart() { return lineStart; }
+
+    // File position of the next unread byte.
+    long position() { return bufferPosition + buffer.position(); }
+
+    // The next line without its terminator ("\n" or "\r\n"), or null at the end of the range.
+    String nextLine() throws IOException {
+        int length = 0;
+        lineStart = bufferPosition + buffer.position();
+        while (true) {
+            if (!buffer.hasRemaining() && !fill()) {
+                return length == 0 && lineStart >= end ? null : decode(length);
+            }
+            byte b = buffer.get();
+            if (b == '\n') {
+                return decode(length);
+            }
+            if (length == line.length) {
+                line = Arrays.copyOf(line, length * 2);
+            }
+            line[length++] = b;
+        }
+    }
+
+    private boolean fill() throws IOException {
+        bufferPosition += buffer.limit();
+        long remaining = end - bufferPosition;
+        if (remaining <= 0) {
+            buffer.clear().flip();
+            return false;
+        }
+        buffer.clear();
+        if (remaining < buffer.capacity()) {
+            buffer.limit((int) remaining);
+        }
+        int read = 0;
+        while (buffer.hasRemaining()) {
+            int n = channel.read(buffer, bufferPosition + read);
+            if (n < 0) {
+                break;
+            }
+            read += n;
+        }
+        buffer.flip();
+        return read > 0;
+    }
+
+    private String decode(int length) {
+        if (length > 0 && line[length - 1] == '\r') {
+            length--;
+        }
+        return new String(line, 0, length, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.apitester.history;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Response bodies of the history, stored gzipped once per distinct content under their SHA-256
+ * (bodies/ab/ab12....gz) and deleted when no retained entry references them any more.
+ * Only the history writer thread changes the store; read() and the sizes may be used from any thread.
+ */
+final class BodyStore {
+
+    private final Path dir;
+    private final Map<String, Integer> references = new ConcurrentHashMap<>();
+    private volatile long bytes;
+
+    BodyStore(Path dir) throws IOException {
+        this.dir = Files.createDirectories(dir);
+    }
+
+    static String hash(String body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(body.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    // Store the body unless the same content is already stored, and count the reference; returns its hash.
+    String add(String body) throws IOException {
+        String hash = hash(body);
+        Path file = pathOf(hash);
+        if (references.merge(hash, 1, Integer::sum) == 1 && !Files.exists(file)) {
+            Files.createDirectories(file.getParent());
+            Path tmp = file.resolveSibling(hash + ".tmp");
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(tmp))) {
+                out.write(body.getBytes(StandardCharsets.UTF_8));
+            }
+            Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            bytes += Files.size(file);
+        }
+        return hash;
+    }
+
+    // Count a reference found while replaying the log.
+    void retain(String hash) {
+        references.merge(hash, 1, Integer::sum);
+    }
+
+    void release(String hash) throws IOException {
+        Integer count = references.computeIfPresent(hash, (key, n) -> n > 1 ? n - 1 : null);
+        if (count == null) {
+            Path file = pathOf(hash);
+            if (Files.exists(file)) {
+                bytes -= Files.size(file);
+                Files.delete(file);
+            }
+        }
+    }
+
+    // After replay: delete bodies no retained entry references (left behind by a crash) and size the rest.
+    void sweep() throws IOException {
+        bytes = 0;
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(dir)) {
+            files = walk.filter(Files::isRegularFile).toList();
+        }
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            String hash = name.endsWith(".gz") ? name.substring(0, name.length() - 3) : null;
+            if (hash == null || !references.containsKey(hash)) {
+                Files.deleteIfExists(file);
+            } else {
+                bytes += Files.size(file);
+            }
+        }
+    }
+
+    long bytes() { return bytes; }
+
+    int size() { return references.size(); }
+
+    // The stored body, or null if there is none with this hash.
+    String read(String hash) throws IOException {
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(pathOf(hash)))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (NoSuchFileException ex) {
+            return null;
+        }
+    }
+
+    private Path pathOf(String hash) {
+        return dir.resolve(hash.substring(0, 2)).resolve(hash + ".gz");
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.apitester.history;
+
+import com.example.apitester.model.HistoryEntry;
+import com.example.apitester.model.HistorySummary;
+import com.example.apitester.model.HistoryTrendPoint;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * In-memory index of one request's retained history: its latest entries and per-bucket counts,
+ * so queries never read the log. Written by the history writer, read by queries.
+ */
+final class RequestHistory {
+
+    private static final class Bucket {
+        long runs;
+        long failures;
+        long timed;
+        double latencySum;
+        // Not lowered when entries are removed; buckets normally age out whole.
+        double latencyMax;
+    }
+
+    private final String fileName;
+    private final String requestId;
+    private final int recentLimit;
+    private final long bucketMillis;
+    private final ArrayDeque<HistoryEntry> recent = new ArrayDeque<>();
+    private final TreeMap<Long, Bucket> buckets = new TreeMap<>();
+    private long runs;
+    private long failures;
+    private HistoryEntry last;
+
+    RequestHistory(String fileName, String requestId, int recentLimit, long bucketMillis) {
+        this.fileName = fileName;
+        this.requestId = requestId;
+        this.recentLimit = recentLimit;
+        this.bucketMillis = bucketMillis;
+    }
+
+    synchronized void add(HistoryEntry entry) {
+        recent.addLast(entry);
+        if (recent.size() > recentLimit) {
+            recent.removeFirst();
+        }
+        Bucket bucket = buckets.computeIfAbsent(bucketStart(entry.time()), start -> new Bucket());
+        bucket.runs++;
+        runs++;
+        if (!entry.success()) {
+            bucket.failures++;
+            failures++;
+        }
+        if (entry.latencyMs() != null) {
+            bucket.timed++;
+            bucket.latencySum += entry.latencyMs();
+            bucket.latencyMax = Math.max(bucket.latencyMax, entry.latencyMs());
+        }
+        last = entry;
+    }
+
+    // Forget an entry whose segment was deleted. Entries are removed oldest first.
+    synchronized void remove(HistoryEntry entry) {
+        while (!recent.isEmpty() && recent.peekFirst().seq() <= entry.seq()) {
+            recent.removeFirst();
+        }
+        Long start = bucketStart(entry.time());
+        Bucket bucket = buckets.get(start);
+        if (bucket != null) {
+            bucket.runs--;
+            if (!entry.success()) {
+                bucket.failures--;
+            }
+            if (entry.latencyMs() != null) {
+                bucket.timed--;
+                bucket.latencySum -= entry.latencyMs();
+            }
+            if (bucket.runs <= 0) {
+                buckets.remove(start);
+            }
+        }
+        runs--;
+        if (!entry.success()) {
+            failures--;
+        }
+        if (runs <= 0) {
+            last = null;
+        }
+    }
+
+    synchronized boolean isEmpty() { return runs <= 0; }
+
+    // The latest entries, newest first.
+    synchronized List<HistoryEntry> recent(int limit) {
+        List<HistoryEntry> entries = new ArrayList<>(Math.min(limit, recent.size()));
+        Iterator<HistoryEntry> newestFirst = recent.descendingIterator();
+        while (newestFirst.hasNext() && entries.size() < limit) {
+            entries.add(newestFirst.next());
+        }
+        return entries;
+    }
+
+    // Buckets that end after 'since' (epoch milliseconds), oldest first.
+    synchronized List<HistoryTrendPoint> trend(long since) {
+        List<HistoryTrendPoint> points = new ArrayList<>();
+        for (Map.Entry<Long, Bucket> entry : buckets.tailMap(bucketStart(since), true).entrySet()) {
+            Bucket bucket = entry.getValue();
+            points.add(new HistoryTrendPoint(entry.getKey(), bucket.runs, bucket.failures,
+                    bucket.timed > 0 ? bucket.latencySum / bucket.timed : null,
+                    bucket.timed > 0 ? bucket.latencyMax : null));
+        }
+        return points;
+    }
+
+    synchronized HistorySummary summary() {
+        return new HistorySummary(fileName, requestId, runs, failures, last);
+    }
+
+    private long bucketStart(long time) {
+        return time - Math.floorMod(time, bucketMillis);
+    }
+}
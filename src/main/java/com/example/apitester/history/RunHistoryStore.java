@@ -0,0 +1,380 @@
+package com.example.apitester.history;
+
+import com.example.apitester.config.ApiTesterProperties;
+import com.example.apitester.model.ExecutionResult;
+import com.example.apitester.model.HistoryEntry;
+import com.example.apitester.model.HistorySummary;
+import com.example.apitester.model.HistoryTrendPoint;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Append-only history of executed requests in apitester.history.dir. Entries are NDJSON lines in
+ * segment files named after their first sequence number; a full segment is sealed (gzipped) and a
+ * new one started. Response bodies are stored separately, once per distinct content.
+ * <p>
+ * Requests never wait for the disk: results are queued and written by a single writer thread,
+ * which also keeps an in-memory index (latest runs and trend buckets per request) that queries
+ * read instead of the log. The log is replayed into the index on startup. The oldest sealed
+ * segments are deleted to stay within the size and age limits, together with the bodies only
+ * they referenced.
+ */
+@Service
+public class RunHistoryStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(RunHistoryStore.class);
+
+    private static final Pattern SEGMENT_NAME = Pattern.compile("segment-(\\d{20})\\.ndjson(\\.gz)?");
+    private static final Pattern HASH = Pattern.compile("[0-9a-f]{64}");
+    private static final long RETENTION_CHECK_MILLIS = 60_000;
+
+    private record Pending(long time, ExecutionResult result) {}
+
+    private static final class Segment {
+        Path path;
+        final long firstSeq;
+        long size;
+        long newestTime;
+
+        Segment(Path path, long firstSeq) {
+            this.path = path;
+            this.firstSeq = firstSeq;
+        }
+    }
+
+    private final ApiTesterProperties.History settings;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, RequestHistory> index = new ConcurrentHashMap<>();
+    private final LongAdder dropped = new LongAdder();
+    // Null when the history is disabled.
+    private final Path dir;
+    private final BlockingQueue<Pending> queue;
+    private final Thread writer;
+    private volatile boolean closed;
+    private volatile boolean failed;
+
+    // Owned by the writer thread.
+    private final Deque<Segment> sealed = new ArrayDeque<>();
+    private volatile BodyStore bodies;
+    private Segment active;
+    private OutputStream out;
+    private long nextSeq = 1;
+
+    public RunHistoryStore(ApiTesterProperties properties) {
+        this.settings = properties.getHistory();
+        if (settings.getDir() == null || settings.getDir().isBlank()) {
+            this.dir = null;
+            this.queue = null;
+            this.writer = null;
+            return;
+        }
+        this.dir = Paths.get(settings.getDir()).toAbsolutePath().normalize();
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, settings.getQueueCapacity()));
+        this.writer = new Thread(this::writeLoop, "history-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    public boolean isEnabled() { return dir != null && !failed; }
+
+    // Queue a result for the history without blocking; it is dropped when the queue is full.
+    public void record(ExecutionResult result) {
+        if (queue == null || failed || closed) {
+            return;
+        }
+        if (!queue.offer(new Pending(System.currentTimeMillis(), result))) {
+            dropped.increment();
+        }
+    }
+
+    // The latest runs of a request, newest first.
+    public List<HistoryEntry> recent(String fileName, String requestId, int limit) {
+        RequestHistory history = index.get(key(fileName, requestId));
+        return history != null ? history.recent(limit) : List.of();
+    }
+
+    // Runs, failures and latency of a request per trend bucket, from 'since' (epoch milliseconds) on.
+    public List<HistoryTrendPoint> trend(String fileName, String requestId, long since) {
+        RequestHistory history = index.get(key(fileName, requestId));
+        return history != null ? history.trend(since) : List.of();
+    }
+
+    public List<HistorySummary> summaries() {
+        return index.values().stream()
+                .map(RequestHistory::summary)
+                .filter(summary -> summary.runs() > 0)
+                .sorted(Comparator.comparing(HistorySummary::fileName).thenComparing(HistorySummary::requestId))
+                .toList();
+    }
+
+    // A stored response body, or null if there is none with this hash.
+    public String body(String hash) throws IOException {
+        BodyStore store = bodies;
+        if (store == null || !HASH.matcher(hash).matches()) {
+            return null;
+        }
+        return store.read(hash);
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", isEnabled());
+        stats.put("dir", dir != null ? dir.toString() : null);
+        stats.put("requests", index.size());
+        stats.put("queued", queue != null ? queue.size() : 0);
+        stats.put("dropped", dropped.sum());
+        BodyStore store = bodies;
+        stats.put("bodies", store != null ? store.size() : 0);
+        stats.put("bodyBytes", store != null ? store.bytes() : 0);
+        return stats;
+    }
+
+    private void writeLoop() {
+        try {
+            open();
+        } catch (IOException | RuntimeException ex) {
+            logger.error("Run history disabled: cannot open {}", dir, ex);
+            failed = true;
+            queue.clear();
+            return;
+        }
+        long lastRetentionCheck = System.currentTimeMillis();
+        while (!closed || !queue.isEmpty()) {
+            try {
+                Pending pending = queue.poll(200, TimeUnit.MILLISECONDS);
+                if (pending != null) {
+                    append(pending);
+                } else {
+                    out.flush();
+                }
+                if (active.size >= settings.getSegmentBytes()) {
+                    roll();
+                }
+                if (System.currentTimeMillis() - lastRetentionCheck >= RETENTION_CHECK_MILLIS) {
+                    enforceRetention();
+                    lastRetentionCheck = System.currentTimeMillis();
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (IOException | RuntimeException ex) {
+                logger.warn("Failed to write run history", ex);
+            }
+        }
+        try {
+            out.close();
+            seal(active);
+        } catch (IOException ex) {
+            logger.warn("Failed to close run history segment {}", active.path, ex);
+        }
+    }
+
+    // Replay the retained segments into the index, then start a new active segment.
+    private void open() throws IOException {
+        Files.createDirectories(dir);
+        bodies = new BodyStore(dir.resolve("bodies"));
+        List<Segment> segments = new ArrayList<>();
+        try (Stream<Path> files = Files.list(dir)) {
+            files.forEach(path -> {
+                Matcher matcher = SEGMENT_NAME.matcher(path.getFileName().toString());
+                if (matcher.matches()) {
+                    segments.add(new Segment(path, Long.parseLong(matcher.group(1))));
+                }
+            });
+        }
+        segments.sort(Comparator.comparingLong(segment -> segment.firstSeq));
+        long entries = 0;
+        for (Segment segment : segments) {
+            long[] count = {0};
+            readEntries(segment.path, entry -> {
+                history(entry).add(entry);
+                if (entry.bodyHash() != null) {
+                    bodies.retain(entry.bodyHash());
+                }
+                segment.newestTime = Math.max(segment.newestTime, entry.time());
+                nextSeq = Math.max(nextSeq, entry.seq() + 1);
+                count[0]++;
+            });
+            entries += count[0];
+            // A segment left active by an unclean shutdown is sealed now.
+            if (count[0] == 0) {
+                Files.delete(segment.path);
+                continue;
+            }
+            seal(segment);
+        }
+        bodies.sweep();
+        logger.info("Run history opened at {}: {} entries in {} segments", dir, entries, sealed.size());
+        enforceRetention();
+        startSegment();
+    }
+
+    private void append(Pending pending) throws IOException {
+        ExecutionResult result = pending.result();
+        String hash = result.getBody() != null && !result.getBody().isEmpty() ? bodies.add(result.getBody()) : null;
+        HistoryEntry entry = new HistoryEntry(nextSeq++, pending.time(), result.getRunId(), result.getFileName(),
+                result.getRequestId(), result.getStatusCode(), result.getStatus(), result.isSuccess(),
+                result.getTimings() != null ? result.getTimings().totalMs() : null,
+                result.getBodyBytes(), hash, result.getDataRow());
+        byte[] line = objectMapper.writeValueAsBytes(entry);
+        out.write(line);
+        out.write('\n');
+        active.size += line.length + 1;
+        active.newestTime = entry.time();
+        history(entry).add(entry);
+    }
+
+    private void startSegment() throws IOException {
+        Path path = dir.resolve(String.format("segment-%020d.ndjson", nextSeq));
+        active = new Segment(path, nextSeq);
+        out = new BufferedOutputStream(Files.newOutputStream(path), 64 * 1024);
+    }
+
+    private void roll() throws IOException {
+        out.close();
+        seal(active);
+        startSegment();
+        enforceRetention();
+    }
+
+    // Gzip a finished segment and add it to the sealed segments; an empty one is just deleted.
+    private void seal(Segment segment) throws IOException {
+        if (segment.path.getFileName().toString().endsWith(".gz")) {
+            segment.size = Files.size(segment.path);
+            sealed.addLast(segment);
+            return;
+        }
+        if (Files.size(segment.path) == 0) {
+            Files.delete(segment.path);
+            return;
+        }
+        Path target = segment.path.resolveSibling(segment.path.getFileName() + ".gz");
+        Path tmp = segment.path.resolveSibling(segment.path.getFileName() + ".gz.tmp");
+        try (OutputStream gzip = new GZIPOutputStream(Files.newOutputStream(tmp), 64 * 1024)) {
+            Files.copy(segment.path, gzip);
+        }
+        Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        Files.delete(segment.path);
+        segment.path = target;
+        segment.size = Files.size(target);
+        sealed.addLast(segment);
+    }
+
+    // Delete the oldest sealed segments while the history is over its size or age limit.
+    private void enforceRetention() throws IOException {
+        long cutoff = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(settings.getMaxAgeDays());
+        long segmentBytes = sealed.stream().mapToLong(segment -> segment.size).sum();
+        while (!sealed.isEmpty()) {
+            Segment oldest = sealed.peekFirst();
+            boolean tooOld = oldest.newestTime < cutoff;
+            boolean tooBig = segmentBytes + bodies.bytes() > settings.getMaxBytes();
+            if (!tooOld && !tooBig) {
+                break;
+            }
+            sealed.removeFirst();
+            segmentBytes -= oldest.size;
+            drop(oldest);
+        }
+    }
+
+    // Remove a segment's entries from the index, release their bodies and delete the segment.
+    private void drop(Segment segment) throws IOException {
+        List<String> hashes = new ArrayList<>();
+        readEntries(segment.path, entry -> {
+            String key = key(entry.fileName(), entry.requestId());
+            RequestHistory history = index.get(key);
+            if (history != null) {
+                history.remove(entry);
+                if (history.isEmpty()) {
+                    index.remove(key, history);
+                }
+            }
+            if (entry.bodyHash() != null) {
+                hashes.add(entry.bodyHash());
+            }
+        });
+        for (String hash : hashes) {
+            bodies.release(hash);
+        }
+        Files.delete(segment.path);
+        logger.info("Deleted run history segment {} ({} bytes)", segment.path.getFileName(), segment.size);
+    }
+
+    private void readEntries(Path path, Consumer<HistoryEntry> consumer) throws IOException {
+        InputStream in = Files.newInputStream(path);
+        if (path.getFileName().toString().endsWith(".gz")) {
+            in = new GZIPInputStream(in, 64 * 1024);
+        }
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    consumer.accept(objectMapper.readValue(line, HistoryEntry.class));
+                } catch (JsonProcessingException ex) {
+                    // The last line of a segment may be torn by a crash.
+                    logger.warn("Skipping unreadable run history entry in {}", path.getFileName());
+                }
+            }
+        }
+    }
+
+    private RequestHistory history(HistoryEntry entry) {
+        return index.computeIfAbsent(key(entry.fileName(), entry.requestId()), key -> new RequestHistory(
+                entry.fileName(), entry.requestId(), Math.max(1, settings.getRecentPerRequest()),
+                TimeUnit.SECONDS.toMillis(Math.max(1, settings.getTrendBucketSeconds()))));
+    }
+
+    private static String key(String fileName, String requestId) {
+        return fileName + "/" + requestId;
+    }
+
+    // Write out everything queued and seal the active segment.
+    @PreDestroy
+    public void shutdown() {
+        closed = true;
+        if (writer != null) {
+            try {
+                writer.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
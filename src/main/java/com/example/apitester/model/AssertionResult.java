@@ -0,0 +1,16 @@
+package com.example.apitester.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Outcome of one assertion of a request, e.g. {"assertion": "body userId equals", "passed": false,
+ * "expected": "1", "actual": "2"}.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record AssertionResult(String assertion, boolean passed, String expected, String actual) {
+
+    @Override
+    public String toString() {
+        return assertion + (passed ? " passed" : " failed: expected " + expected + ", actual " + actual);
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.apitester.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * Live state of a distributed load run: the totals merged from every worker's latency histogram and
+ * counters, and each worker's progress. The last report of a run has 'done' set, and every worker
+ * that finished contributes its own report, with the figures that cannot be merged.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record DistributedReport(String id, String name, boolean done, long elapsedMs, LoadReport total,
+                                List<Node> nodes) {
+
+    /**
+     * One worker: its state (starting, running, done or failed), volume so far and, once done, its report.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record Node(String worker, String state, long requests, long errors, LoadReport report, String error) {}
+}
@@ -0,0 +1,152 @@
+package com.example.apitester.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * Outcome of executing one request, serialized as the result JSON returned to the UI:
+ * {"statusCode":200, "status": "Executed", "body": "<response body>", ...}.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ExecutionResult {
+    private final String runId;
+    private final String fileName;
+    private final String requestId;
+    private final int statusCode;
+    private final String status;
+    private final String body;
+    private final boolean success;
+    // Set when 'body' is only a preview of a larger response.
+    private Boolean bodyTruncated;
+    private Long bodyBytes;
+    // Where the full body can be downloaded when it was larger than the preview.
+    private String fullBodyUrl;
+    private RequestTimings timings;
+    // HTTP version the response came over, e.g. HTTP/1.1 or HTTP/2.0.
+    private String protocol;
+    // How the response cache answered: hit, miss, revalidated or replayed; absent when it was not consulted.
+    private String cache;
+    private List<AssertionResult> assertions;
+    // Number of the data row the request ran with, in data-driven runs.
+    private Long dataRow;
+
+    public ExecutionResult(String fileName, String requestId, int statusCode, String status, String body, boolean success) {
+        this(null, fileName, requestId, statusCode, status, body, success);
+    }
+
+    private ExecutionResult(String runId, String fileName, String requestId, int statusCode, String status, String body, boolean success) {
+        this.runId = runId;
+        this.fileName = fileName;
+        this.requestId = requestId;
+        this.statusCode = statusCode;
+        this.status = status;
+        this.body = body;
+        this.success = success;
+    }
+
+    public static ExecutionResult error(String fileName, String requestId, int statusCode, String status, String reason) {
+        String escaped = String.valueOf(reason).replace("\\", "\\\\").replace("\"", "\\\"");
+        String body = "{\"error\": {\"reason\": \"" + escaped + "\"}}";
+        return new ExecutionResult(fileName, requestId, statusCode, status, body, false);
+    }
+
+    // A copy of this result attributed to the given run.
+    public ExecutionResult withRunId(String runId) {
+        return copy(runId);
+    }
+
+    // A copy recording the full size of the response body; 'truncated' is only reported when the body is a preview.
+    public ExecutionResult withBodyInfo(boolean truncated, long bytes) {
+        ExecutionResult copy = copy(runId);
+        copy.bodyTruncated = truncated ? Boolean.TRUE : null;
+        copy.bodyBytes = bytes;
+        return copy;
+    }
+
+    // A copy pointing at the download of the full body.
+    public ExecutionResult withFullBodyUrl(String fullBodyUrl) {
+        ExecutionResult copy = copy(runId);
+        copy.fullBodyUrl = fullBodyUrl;
+        return copy;
+    }
+
+    // A copy carrying the phase timings of the request.
+    public ExecutionResult withTimings(RequestTimings timings) {
+        ExecutionResult copy = copy(runId);
+        copy.timings = timings;
+        return copy;
+    }
+
+    // A copy recording the HTTP version that was negotiated.
+    public ExecutionResult withProtocol(String protocol) {
+        ExecutionResult copy = copy(runId);
+        copy.protocol = protocol;
+        return copy;
+    }
+
+    // A copy recording how the response cache answered.
+    public ExecutionResult withCache(String cache) {
+        ExecutionResult copy = copy(runId);
+        copy.cache = cache;
+        return copy;
+    }
+
+    // A copy carrying the outcome of the request's assertions.
+    public ExecutionResult withAssertions(List<AssertionResult> assertions) {
+        ExecutionResult copy = copy(runId);
+        copy.assertions = assertions;
+        return copy;
+    }
+
+    // A copy attributed to the data row it ran with.
+    public ExecutionResult withDataRow(long dataRow) {
+        ExecutionResult copy = copy(runId);
+        copy.dataRow = dataRow;
+        return copy;
+    }
+
+    private ExecutionResult copy(String runId) {
+        ExecutionResult copy = new ExecutionResult(runId, fileName, requestId, statusCode, status, body, success);
+        copy.bodyTruncated = bodyTruncated;
+        copy.bodyBytes = bodyBytes;
+        copy.fullBodyUrl = fullBodyUrl;
+        copy.timings = timings;
+        copy.protocol = protocol;
+        copy.cache = cache;
+        copy.assertions = assertions;
+        copy.dataRow = dataRow;
+        return copy;
+    }
+
+    public String getRunId() { return runId; }
+
+    public String getFileName() { return fileName; }
+
+    public String getRequestId() { return requestId; }
+
+    public int getStatusCode() { return statusCode; }
+
+    public String getStatus() { return status; }
+
+    public String getBody() { return body; }
+
+    public Boolean getBodyTruncated() { return bodyTruncated; }
+
+    public Long getBodyBytes() { return bodyBytes; }
+
+    public String getFullBodyUrl() { return fullBodyUrl; }
+
+    public RequestTimings getTimings() { return timings; }
+
+    public String getProtocol() { return protocol; }
+
+    public String getCache() { return cache; }
+
+    public List<AssertionResult> getAssertions() { return assertions; }
+
+    public Long getDataRow() { return dataRow; }
+
+    // Whether the request succeeded and every assertion passed.
+    public boolean isSuccess() { return success; }
+}
@@ -0,0 +1,22 @@
+package com.example.apitester.model;
+
+/**
+ * A suite file that could not be loaded into the catalog, with the reason.
+ */
+public class FileLoadError {
+    private final String fileName;
+    private final String source;
+    private final String message;
+
+    public FileLoadError(String fileName, String source, String message) {
+        this.fileName = fileName;
+        this.source = source;
+        this.message = message;
+    }
+
+    public String getFileName() { return fileName; }
+
+    public String getSource() { return source; }
+
+    public String getMessage() { return message; }
+}
@@ -0,0 +1,13 @@
+package com.example.apitester.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * One executed request as stored in the run history, written as one NDJSON line. 'seq' orders
+ * entries across restarts; 'time' is epoch milliseconds. The response body is stored once per
+ * distinct content under 'bodyHash' (SHA-256 of the body, as previewed).
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record HistoryEntry(long seq, long time, String runId, String fileName, String requestId,
+                           int statusCode, String status, boolean success, Double latencyMs,
+                           Long bodyBytes, String bodyHash, Long dataRow) {}
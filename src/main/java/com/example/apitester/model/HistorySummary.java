@@ -0,0 +1,6 @@
+package com.example.apitester.model;
+
+/**
+ * Retained history of one request: how often it ran and failed, and its latest run.
+ */
+public record HistorySummary(String fileName, String requestId, long runs, long failures, HistoryEntry last) {}
@@ -0,0 +1,10 @@
+package com.example.apitester.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Runs of one request within a time bucket starting at 'start' (epoch milliseconds).
+ * 'meanLatencyMs' is absent when none of the runs reached the server.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record HistoryTrendPoint(long start, long runs, long failures, Double meanLatencyMs, Double maxLatencyMs) {}
@@ -0,0 +1,147 @@
+package com.example.apitester.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.Objects;
+
+/**
+ * Connection pool, protocol and timeout settings for the HTTP client. Application defaults come from
+ * "apitester.http.*"; a suite may override any subset in its top-level "http:" section.
+ * Unset (null) fields fall back to the defaults, see {@link #withDefaults(HttpSettings)}.
+ * <p>
+ * The protocol is h1 (HTTP/1.1), h2 (HTTP/2 over TLS, negotiated with ALPN; HTTP/1.1 when the server
+ * does not offer it or the URL is http://) or h2c (cleartext HTTP/2 with prior knowledge). Over HTTP/2,
+ * up to 'maxConcurrentStreams' requests share a connection.
+ * <p>
+ * The engine is reactor (WebClient on Reactor Netty) or jdk (the blocking JDK HttpClient, one thread per
+ * request: a virtual thread on Java 21 and later), see {@link com.example.apitester.service.ExecutionEngine}.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class HttpSettings {
+    private Integer maxConnections;
+    private Integer pendingAcquireMaxCount;
+    private Long pendingAcquireTimeoutMs;
+    private Long maxIdleTimeMs;
+    private Long maxLifeTimeMs;
+    private Long evictInBackgroundMs;
+    private Boolean keepAlive;
+    private Long connectTimeoutMs;
+    private Long responseTimeoutMs;
+    private String protocol;
+    private Integer maxConcurrentStreams;
+    private String engine;
+
+    public static HttpSettings defaults() {
+        HttpSettings settings = new HttpSettings();
+        settings.maxConnections = 500;
+        settings.pendingAcquireMaxCount = 1000;
+        settings.pendingAcquireTimeoutMs = 45_000L;
+        settings.maxIdleTimeMs = 30_000L;
+        settings.maxLifeTimeMs = 300_000L;
+        settings.evictInBackgroundMs = 30_000L;
+        settings.keepAlive = true;
+        settings.connectTimeoutMs = 10_000L;
+        settings.responseTimeoutMs = 30_000L;
+        settings.protocol = "h1";
+        settings.maxConcurrentStreams = 100;
+        settings.engine = "reactor";
+        return settings;
+    }
+
+    // A copy of these settings with every unset field taken from 'defaults'.
+    public HttpSettings withDefaults(HttpSettings defaults) {
+        HttpSettings merged = new HttpSettings();
+        merged.maxConnections = maxConnections != null ? maxConnections : defaults.maxConnections;
+        merged.pendingAcquireMaxCount = pendingAcquireMaxCount != null ? pendingAcquireMaxCount : defaults.pendingAcquireMaxCount;
+        merged.pendingAcquireTimeoutMs = pendingAcquireTimeoutMs != null ? pendingAcquireTimeoutMs : defaults.pendingAcquireTimeoutMs;
+        merged.maxIdleTimeMs = maxIdleTimeMs != null ? maxIdleTimeMs : defaults.maxIdleTimeMs;
+        merged.maxLifeTimeMs = maxLifeTimeMs != null ? maxLifeTimeMs : defaults.maxLifeTimeMs;
+        merged.evictInBackgroundMs = evictInBackgroundMs != null ? evictInBackgroundMs : defaults.evictInBackgroundMs;
+        merged.keepAlive = keepAlive != null ? keepAlive : defaults.keepAlive;
+        merged.connectTimeoutMs = connectTimeoutMs != null ? connectTimeoutMs : defaults.connectTimeoutMs;
+        merged.responseTimeoutMs = responseTimeoutMs != null ? responseTimeoutMs : defaults.responseTimeoutMs;
+        merged.protocol = protocol != null ? protocol : defaults.protocol;
+        merged.maxConcurrentStreams = maxConcurrentStreams != null ? maxConcurrentStreams : defaults.maxConcurrentStreams;
+        merged.engine = engine != null ? engine : defaults.engine;
+        return merged;
+    }
+
+    public Integer getMaxConnections() { return maxConnections; }
+    public void setMaxConnections(Integer maxConnections) { this.maxConnections = maxConnections; }
+
+    public Integer getPendingAcquireMaxCount() { return pendingAcquireMaxCount; }
+    public void setPendingAcquireMaxCount(Integer pendingAcquireMaxCount) { this.pendingAcquireMaxCount = pendingAcquireMaxCount; }
+
+    public Long getPendingAcquireTimeoutMs() { return pendingAcquireTimeoutMs; }
+    public void setPendingAcquireTimeoutMs(Long pendingAcquireTimeoutMs) { this.pendingAcquireTimeoutMs = pendingAcquireTimeoutMs; }
+
+    public Long getMaxIdleTimeMs() { return maxIdleTimeMs; }
+    public void setMaxIdleTimeMs(Long maxIdleTimeMs) { this.maxIdleTimeMs = maxIdleTimeMs; }
+
+    public Long getMaxLifeTimeMs() { return maxLifeTimeMs; }
+    public void setMaxLifeTimeMs(Long maxLifeTimeMs) { this.maxLifeTimeMs = maxLifeTimeMs; }
+
+    public Long getEvictInBackgroundMs() { return evictInBackgroundMs; }
+    public void setEvictInBackgroundMs(Long evictInBackgroundMs) { this.evictInBackgroundMs = evictInBackgroundMs; }
+
+    public Boolean getKeepAlive() { return keepAlive; }
+    public void setKeepAlive(Boolean keepAlive) { this.keepAlive = keepAlive; }
+
+    public Long getConnectTimeoutMs() { return connectTimeoutMs; }
+    public void setConnectTimeoutMs(Long connectTimeoutMs) { this.connectTimeoutMs = connectTimeoutMs; }
+
+    public Long getResponseTimeoutMs() { return responseTimeoutMs; }
+    public void setResponseTimeoutMs(Long responseTimeoutMs) { this.responseTimeoutMs = responseTimeoutMs; }
+
+    public String getProtocol() { return protocol; }
+    public void setProtocol(String protocol) {
+        String normalized = protocol != null ? protocol.trim().toLowerCase() : null;
+        if (normalized != null && !normalized.equals("h1") && !normalized.equals("h2") && !normalized.equals("h2c")) {
+            throw new IllegalArgumentException("protocol must be h1, h2 or h2c, not '" + protocol + "'");
+        }
+        this.protocol = normalized;
+    }
+
+    public Integer getMaxConcurrentStreams() { return maxConcurrentStreams; }
+    public void setMaxConcurrentStreams(Integer maxConcurrentStreams) { this.maxConcurrentStreams = maxConcurrentStreams; }
+
+    public String getEngine() { return engine; }
+    public void setEngine(String engine) {
+        String normalized = engine != null ? engine.trim().toLowerCase() : null;
+        if (normalized != null && !normalized.equals("reactor") && !normalized.equals("jdk")) {
+            throw new IllegalArgumentException("engine must be reactor or jdk, not '" + engine + "'");
+        }
+        this.engine = normalized;
+    }
+
+    // Whether requests may be multiplexed over HTTP/2 connections.
+    @JsonIgnore
+    public boolean isHttp2() { return "h2".equals(protocol) || "h2c".equals(protocol); }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof HttpSettings)) return false;
+        HttpSettings that = (HttpSettings) o;
+        return Objects.equals(maxConnections, that.maxConnections)
+                && Objects.equals(pendingAcquireMaxCount, that.pendingAcquireMaxCount)
+                && Objects.equals(pendingAcquireTimeoutMs, that.pendingAcquireTimeoutMs)
+                && Objects.equals(maxIdleTimeMs, that.maxIdleTimeMs)
+                && Objects.equals(maxLifeTimeMs, that.maxLifeTimeMs)
+                && Objects.equals(evictInBackgroundMs, that.evictInBackgroundMs)
+                && Objects.equals(keepAlive, that.keepAlive)
+                && Objects.equals(connectTimeoutMs, that.connectTimeoutMs)
+                && Objects.equals(responseTimeoutMs, that.responseTimeoutMs)
+                && Objects.equals(protocol, that.protocol)
+                && Objects.equals(maxConcurrentStreams, that.maxConcurrentStreams)
+                && Objects.equals(engine, that.engine);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(maxConnections, pendingAcquireMaxCount, pendingAcquireTimeoutMs, maxIdleTimeMs,
+                maxLifeTimeMs, evictInBackgroundMs, keepAlive, connectTimeoutMs, responseTimeoutMs, protocol,
+                maxConcurrentStreams, engine);
+    }
+}
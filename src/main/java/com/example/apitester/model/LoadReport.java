@@ -0,0 +1,86 @@
+package com.example.apitester.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.Map;
+
+/**
+ * Summary of a load run: volume, throughput, latency percentiles (milliseconds) and outcome counts.
+ * Scenario runs also break the numbers down per request id in 'requests'. Arrival-rate runs
+ * measure latency from each iteration's intended start and report the arrivals they dropped.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class LoadReport {
+
+    /**
+     * Latency distribution in milliseconds.
+     */
+    public record Latency(double min, double mean, double p50, double p90, double p99, double p999, double max) {}
+
+    private String name;
+    private long requests;
+    private long errors;
+    private Long skipped;
+    private double errorRate;
+    private long durationMs;
+    private double throughput;
+    private Latency latency;
+    private Map<String, Long> statusCounts;
+    private Map<String, LoadReport> requestBreakdown;
+    private Latency iterationLatency;
+    private Long iterations;
+    private Long dropped;
+    private Long peakOutstanding;
+    private Latency schedulingLag;
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public long getRequests() { return requests; }
+    public void setRequests(long requests) { this.requests = requests; }
+
+    public long getErrors() { return errors; }
+    public void setErrors(long errors) { this.errors = errors; }
+
+    // Scenario requests not sent because a request they depend on failed.
+    public Long getSkipped() { return skipped; }
+    public void setSkipped(Long skipped) { this.skipped = skipped; }
+
+    public double getErrorRate() { return errorRate; }
+    public void setErrorRate(double errorRate) { this.errorRate = errorRate; }
+
+    public long getDurationMs() { return durationMs; }
+    public void setDurationMs(long durationMs) { this.durationMs = durationMs; }
+
+    // Completed requests per second over the run.
+    public double getThroughput() { return throughput; }
+    public void setThroughput(double throughput) { this.throughput = throughput; }
+
+    public Latency getLatency() { return latency; }
+    public void setLatency(Latency latency) { this.latency = latency; }
+
+    public Map<String, Long> getStatusCounts() { return statusCounts; }
+    public void setStatusCounts(Map<String, Long> statusCounts) { this.statusCounts = statusCounts; }
+
+    public Map<String, LoadReport> getRequestBreakdown() { return requestBreakdown; }
+    public void setRequestBreakdown(Map<String, LoadReport> requestBreakdown) { this.requestBreakdown = requestBreakdown; }
+
+    // Scenario iterations from start to the last request, including time spent waiting on dependencies.
+    public Latency getIterationLatency() { return iterationLatency; }
+    public void setIterationLatency(Latency iterationLatency) { this.iterationLatency = iterationLatency; }
+
+    // Iterations started by an arrival-rate run.
+    public Long getIterations() { return iterations; }
+    public void setIterations(Long iterations) { this.iterations = iterations; }
+
+    // Arrivals not started because the outstanding-request cap was reached.
+    public Long getDropped() { return dropped; }
+    public void setDropped(Long dropped) { this.dropped = dropped; }
+
+    public Long getPeakOutstanding() { return peakOutstanding; }
+    public void setPeakOutstanding(Long peakOutstanding) { this.peakOutstanding = peakOutstanding; }
+
+    // How late the generator itself started iterations; a high value means the tester, not the target, was the bottleneck.
+    public Latency getSchedulingLag() { return schedulingLag; }
+    public void setSchedulingLag(Latency schedulingLag) { this.schedulingLag = schedulingLag; }
+}
@@ -0,0 +1,7 @@
+package com.example.apitester.model;
+
+/**
+ * One part of a multipart/form-data request body: either an inline 'value' or the contents of
+ * 'file', streamed from disk. 'contentType' is optional.
+ */
+public record MultipartPart(String name, String value, String file, String contentType) {}
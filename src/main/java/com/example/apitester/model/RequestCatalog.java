@@ -0,0 +1,56 @@
+package com.example.apitester.model;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of every loaded suite, indexed by file name and request ID.
+ * A new catalog is built on each reload and swapped in as a whole.
+ */
+public class RequestCatalog {
+    private final List<YamlFileData> files;
+    private final Map<String, YamlFileData> filesByName;
+    private final Map<String, Map<String, RequestDefinition>> requestsByFile;
+    private final List<FileLoadError> errors;
+    private final Instant loadedAt;
+
+    public RequestCatalog(List<YamlFileData> files, List<FileLoadError> errors) {
+        Map<String, YamlFileData> byName = new LinkedHashMap<>();
+        Map<String, Map<String, RequestDefinition>> byFile = new HashMap<>();
+        for (YamlFileData fileData : files) {
+            byName.put(fileData.getFileName(), fileData);
+            Map<String, RequestDefinition> byId = new HashMap<>();
+            for (RequestDefinition rd : fileData.getRequests()) {
+                byId.put(rd.getId(), rd);
+            }
+            byFile.put(fileData.getFileName(), Collections.unmodifiableMap(byId));
+        }
+        this.files = List.copyOf(byName.values());
+        this.filesByName = Collections.unmodifiableMap(byName);
+        this.requestsByFile = Collections.unmodifiableMap(byFile);
+        this.errors = List.copyOf(errors);
+        this.loadedAt = Instant.now();
+    }
+
+    public static RequestCatalog empty() {
+        return new RequestCatalog(new ArrayList<>(), new ArrayList<>());
+    }
+
+    public List<YamlFileData> getFiles() { return files; }
+
+    public YamlFileData getFile(String fileName) { return filesByName.get(fileName); }
+
+    public RequestDefinition getRequest(String fileName, String requestId) {
+        Map<String, RequestDefinition> byId = requestsByFile.get(fileName);
+        return byId != null ? byId.get(requestId) : null;
+    }
+
+    public List<FileLoadError> getErrors() { return errors; }
+
+    public Instant getLoadedAt() { return loadedAt; }
+}
@@ -1,6 +1,12 @@
 package com.example.apitester.model;
 
+import com.example.apitester.assertion.ResponseAssertions;
+import com.example.apitester.template.CompiledRequest;
+import com.fasterxml.jackson.core.JsonPointer;
+
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 public class RequestDefinition {
     private String id;
@@ -8,10 +14,18 @@ public class RequestDefinition {
     private String url;
     private Map<String, String> headers;
     private String requestBody;
+    // Path of a file sent as the body, streamed from disk instead of held as text.
+    private String requestBodyFile;
+    private List<MultipartPart> multipart;
+
+    // Templates for url, headers and body, compiled when the suite is loaded.
+    private CompiledRequest compiled;
+
+    // The compiled 'assert:' section, or null when the request has none.
+    private ResponseAssertions assertions;
 
-    // Fields for storing execution results (populated after execution)
-    private String status;
-    private String responseBody;
+    // Locations in this request's response that some {{id.response...}} in the catalog refers to (set at catalog load).
+    private Set<JsonPointer> referencedPaths = Set.of();
 
     // Getters and setters
     public String getId() { return id; }
@@ -29,9 +43,18 @@ public class RequestDefinition {
     public String getRequestBody() { return requestBody; }
     public void setRequestBody(String requestBody) { this.requestBody = requestBody; }
 
-    public String getStatus() { return status; }
-    public void setStatus(String status) { this.status = status; }
+    public String getRequestBodyFile() { return requestBodyFile; }
+    public void setRequestBodyFile(String requestBodyFile) { this.requestBodyFile = requestBodyFile; }
+
+    public List<MultipartPart> getMultipart() { return multipart; }
+    public void setMultipart(List<MultipartPart> multipart) { this.multipart = multipart; }
+
+    public CompiledRequest getCompiled() { return compiled; }
+    public void setCompiled(CompiledRequest compiled) { this.compiled = compiled; }
+
+    public ResponseAssertions getAssertions() { return assertions; }
+    public void setAssertions(ResponseAssertions assertions) { this.assertions = assertions; }
 
-    public String getResponseBody() { return responseBody; }
-    public void setResponseBody(String responseBody) { this.responseBody = responseBody; }
+    public Set<JsonPointer> getReferencedPaths() { return referencedPaths; }
+    public void setReferencedPaths(Set<JsonPointer> referencedPaths) { this.referencedPaths = referencedPaths; }
 }
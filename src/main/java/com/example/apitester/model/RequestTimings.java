@@ -0,0 +1,19 @@
+package com.example.apitester.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Where the time of one request went, in milliseconds. 'connectMs' and 'tlsMs' are only present
+ * when the request opened a new connection; 'acquireMs' is the time until a connection was ready
+ * to send on (pool wait plus DNS resolution of a new connection), excluding connect and TLS.
+ * 'ttfbMs' runs from sending the request to the response headers, 'downloadMs' from there to the
+ * end of the body.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record RequestTimings(double totalMs, Double acquireMs, Double connectMs, Double tlsMs,
+                             Double ttfbMs, Double downloadMs) {
+
+    public boolean isNewConnection() {
+        return connectMs != null;
+    }
+}
@@ -6,6 +6,56 @@ public class YamlFileData {
     private String fileName;
     private String baseUrl;
     private List<RequestDefinition> requests;
+    // Optional per-suite overrides of the HTTP client settings ("http:" section).
+    private HttpSettings httpSettings;
+    // Response cache mode (off, on or replay); null for apitester.cache.mode.
+    private String cache;
+    // The YAML the suite was parsed from, shipped to the workers of a distributed run.
+    private String source;
+
+    /**
+     * This suite run with the named execution engine instead of its own, or the suite itself when
+     * 'engine' is null or blank. Throws IllegalArgumentException for an unknown engine.
+     */
+    public YamlFileData withEngine(String engine) {
+        if (engine == null || engine.isBlank()) {
+            return this;
+        }
+        // Merging with empty settings copies them, so the catalog's suite is left alone.
+        HttpSettings settings = httpSettings != null ? httpSettings.withDefaults(new HttpSettings()) : new HttpSettings();
+        settings.setEngine(engine);
+        YamlFileData copy = copy();
+        copy.httpSettings = settings;
+        return copy;
+    }
+
+    // This suite run with another response cache mode, or the suite itself when 'cache' is null or blank.
+    public YamlFileData withCache(String cache) {
+        if (cache == null || cache.isBlank()) {
+            return this;
+        }
+        YamlFileData copy = copy();
+        copy.setCache(cache);
+        return copy;
+    }
+
+    // This suite with only 'requests', keeping every suite-level setting.
+    public YamlFileData withRequests(List<RequestDefinition> requests) {
+        YamlFileData copy = copy();
+        copy.requests = requests;
+        return copy;
+    }
+
+    private YamlFileData copy() {
+        YamlFileData copy = new YamlFileData();
+        copy.fileName = fileName;
+        copy.baseUrl = baseUrl;
+        copy.requests = requests;
+        copy.httpSettings = httpSettings;
+        copy.cache = cache;
+        copy.source = source;
+        return copy;
+    }
 
     // Getters and setters
     public String getFileName() { return fileName; }
@@ -16,4 +66,23 @@ public class YamlFileData {
 
     public List<RequestDefinition> getRequests() { return requests; }
     public void setRequests(List<RequestDefinition> requests) { this.requests = requests; }
+
+    public HttpSettings getHttpSettings() { return httpSettings; }
+    public void setHttpSettings(HttpSettings httpSettings) { this.httpSettings = httpSettings; }
+
+    public String getCache() { return cache; }
+    // YAML reads a bare on/off as a boolean, which arrives here as "true"/"false".
+    public void setCache(String cache) {
+        String normalized = cache != null ? cache.trim().toLowerCase() : null;
+        if ("true".equals(normalized) || "false".equals(normalized)) {
+            normalized = "true".equals(normalized) ? "on" : "off";
+        }
+        if (normalized != null && !normalized.equals("off") && !normalized.equals("on") && !normalized.equals("replay")) {
+            throw new IllegalArgumentException("cache must be off, on or replay, not '" + cache + "'");
+        }
+        this.cache = normalized;
+    }
+
+    public String getSource() { return source; }
+    public void setSource(String source) { this.source = source; }
 }
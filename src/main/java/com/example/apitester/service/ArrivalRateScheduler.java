@@ -0,0 +1,157 @@
+package com.example.apitester.service;
+
+import com.example.apitester.model.LoadReport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load: iterations are started at a target arrival rate regardless of how many are
+ * still in flight, following ramp stages. Each iteration is measured from its intended start
+ * time rather than the moment it was actually sent, so a stalled target shows up in the tail
+ * latency instead of silently lowering the send rate (coordinated omission). Arrivals that
+ * would exceed the outstanding-request cap are dropped and counted, never queued.
+ */
+public class ArrivalRateScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(ArrivalRateScheduler.class);
+    private static final long MAX_STEP_NANOS = 1_000_000;
+
+    /**
+     * Ramp linearly from the previous stage's rate (or the start rate) to 'targetRate' over 'duration'.
+     */
+    public record Stage(Duration duration, double targetRate) {}
+
+    public enum InterArrival { FIXED, POISSON }
+
+    public record Options(List<Stage> stages, double startRate, InterArrival interArrival, int maxOutstanding) {}
+
+    private final LoadWorkload workload;
+    private final Options options;
+    // Subscribed once per arrival for its reference context.
+    private final Mono<ExecutionRun> runs;
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder started = new LongAdder();
+    private final LatencyRecorder schedulingLag = new LatencyRecorder();
+    private volatile boolean cancelled;
+    private int peakOutstanding;
+
+    public ArrivalRateScheduler(LoadWorkload workload, Options options, Mono<ExecutionRun> runs) {
+        this.workload = workload;
+        this.options = options;
+        this.runs = runs;
+    }
+
+    // Runs the stages on a dedicated dispatcher thread and emits the report once every started iteration finished.
+    public Mono<LoadReport> run(String name) {
+        return Mono.create(sink -> {
+            Thread dispatcher = new Thread(() -> {
+                long start = System.nanoTime();
+                try {
+                    dispatch(start);
+                    while (outstanding.get() > 0 && !cancelled) {
+                        LockSupport.parkNanos(1_000_000);
+                    }
+                    sink.success(report(System.nanoTime() - start));
+                } catch (Throwable ex) {
+                    sink.error(ex);
+                }
+            }, "arrival-" + name);
+            dispatcher.setDaemon(true);
+            sink.onDispose(() -> cancelled = true);
+            dispatcher.start();
+        });
+    }
+
+    private void dispatch(long start) {
+        long end = start + totalNanos();
+        long intended = start;
+        while (!cancelled) {
+            intended = nextArrival(start, intended);
+            if (intended >= end) break;
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            fire(intended);
+        }
+        // The run lasts as long as its stages, even when the last ones send nothing.
+        while (!cancelled && System.nanoTime() < end) {
+            LockSupport.parkNanos(end - System.nanoTime());
+        }
+    }
+
+    /**
+     * The next intended start after 'previous': when the target rate integrated over time reaches one
+     * arrival (fixed), or an exponentially distributed amount of it (poisson). The rate is sampled at
+     * most every millisecond so ramps from zero are followed closely.
+     */
+    private long nextArrival(long start, long previous) {
+        double needed = options.interArrival() == InterArrival.POISSON
+                ? -Math.log(1.0 - ThreadLocalRandom.current().nextDouble())
+                : 1.0;
+        long end = start + totalNanos();
+        long time = previous;
+        while (needed > 0 && time < end) {
+            double rate = rateAt(time - start) / 1e9;
+            long step = rate > 0 ? Math.max(1, Math.min(MAX_STEP_NANOS, (long) Math.ceil(needed / rate))) : MAX_STEP_NANOS;
+            needed -= rate * step;
+            time += step;
+        }
+        return time;
+    }
+
+    private void fire(long intended) {
+        schedulingLag.record(Math.max(0, System.nanoTime() - intended), 0, true);
+        int inFlight = outstanding.incrementAndGet();
+        if (inFlight > options.maxOutstanding()) {
+            outstanding.decrementAndGet();
+            dropped.increment();
+            return;
+        }
+        peakOutstanding = Math.max(peakOutstanding, inFlight);
+        started.increment();
+        runs.flatMap(run -> workload.iteration(run, intended))
+                .subscribeOn(Schedulers.parallel())
+                .doFinally(signal -> outstanding.decrementAndGet())
+                .subscribe(null, ex -> logger.error("Load iteration failed", ex));
+    }
+
+    private long totalNanos() {
+        return options.stages().stream().mapToLong(stage -> stage.duration().toNanos()).sum();
+    }
+
+    // Target rate 'elapsed' nanoseconds into the run, interpolated within the current stage.
+    double rateAt(long elapsed) {
+        double from = options.startRate();
+        long stageStart = 0;
+        for (Stage stage : options.stages()) {
+            long length = stage.duration().toNanos();
+            if (elapsed < stageStart + length) {
+                double progress = length == 0 ? 1 : (double) (elapsed - stageStart) / length;
+                return from + (stage.targetRate() - from) * progress;
+            }
+            from = stage.targetRate();
+            stageStart += length;
+        }
+        return 0;
+    }
+
+    private LoadReport report(long durationNanos) {
+        LoadReport report = workload.report(durationNanos);
+        report.setIterations(started.sum());
+        report.setDropped(dropped.sum());
+        report.setPeakOutstanding((long) peakOutstanding);
+        report.setSchedulingLag(schedulingLag.report("schedulingLag", durationNanos).getLatency());
+        return report;
+    }
+}
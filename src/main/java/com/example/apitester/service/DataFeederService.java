@@ -0,0 +1,63 @@
+package com.example.apitester.service;
+
+import com.example.apitester.config.ApiTesterProperties;
+import com.example.apitester.feeder.DataFeeder;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Opens the data files of data-driven runs. Files are only read from apitester.data.dir, so a
+ * request parameter can never point the tester at an arbitrary file on the server.
+ */
+@Service
+public class DataFeederService {
+
+    private final ApiTesterProperties.Data settings;
+
+    public DataFeederService(ApiTesterProperties properties) {
+        this.settings = properties.getData();
+    }
+
+    /**
+     * Open 'dataFile' (relative to the data directory) with a strategy named sequential, random,
+     * circular or partitioned; 'workers' is the number of partitions. The caller closes the feeder.
+     */
+    public DataFeeder open(String dataFile, String strategy, int workers) {
+        return open(dataFile, strategy, workers, 0, 1);
+    }
+
+    // Open only slice 'slice' of 'slices' of the file's rows, as one node of a distributed run does.
+    public DataFeeder open(String dataFile, String strategy, int workers, int slice, int slices) {
+        if (settings.getDir() == null || settings.getDir().isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Data files are disabled; set apitester.data.dir");
+        }
+        DataFeeder.Strategy parsed;
+        try {
+            parsed = DataFeeder.Strategy.valueOf(strategy.trim().toUpperCase());
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "dataStrategy must be sequential, random, circular or partitioned");
+        }
+        Path dir = Paths.get(settings.getDir()).toAbsolutePath().normalize();
+        Path file = dir.resolve(dataFile).normalize();
+        if (!file.startsWith(dir)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Data file must be inside the data directory: " + dataFile);
+        }
+        if (!Files.isRegularFile(file)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Data file not found: " + dataFile);
+        }
+        try {
+            return DataFeeder.open(file, parsed, workers, slice, slices);
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage());
+        } catch (IOException ex) {
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to open data file: " + dataFile, ex);
+        }
+    }
+}
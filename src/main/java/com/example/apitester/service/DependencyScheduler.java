@@ -0,0 +1,170 @@
+package com.example.apitester.service;
+
+import com.example.apitester.model.ExecutionResult;
+import org.springframework.http.HttpStatus;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Operators;
+import reactor.core.publisher.Sinks;
+
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Function;
+
+/**
+ * Runs an {@link ExecutionPlan}: requests whose parents have all succeeded are started as soon as a
+ * slot is free, up to the concurrency limit, in file order among those that are ready.
+ * A failed parent skips its dependents (transitively) and nodes on a dependency cycle are failed
+ * without being sent. Results are emitted in completion order, and requests are only started
+ * while the subscriber has demand for their results.
+ */
+public class DependencyScheduler {
+
+    public static final String SKIPPED_STATUS = "Skipped";
+    public static final String CYCLE_STATUS = "Error: dependency cycle";
+
+    private final Function<ExecutionPlan.Node, Mono<ExecutionResult>> executor;
+    private final int concurrency;
+
+    public DependencyScheduler(Function<ExecutionPlan.Node, Mono<ExecutionResult>> executor, int concurrency) {
+        this.executor = executor;
+        this.concurrency = Math.max(1, concurrency);
+    }
+
+    // True for results the scheduler produced itself, without sending the request.
+    public static boolean isNotSent(ExecutionResult result) {
+        return SKIPPED_STATUS.equals(result.getStatus()) || CYCLE_STATUS.equals(result.getStatus());
+    }
+
+    public Flux<ExecutionResult> run(ExecutionPlan plan) {
+        return Flux.defer(() -> new Run(plan).start());
+    }
+
+    private final class Run {
+        private final List<ExecutionPlan.Node> nodes;
+        private final int[] pendingParents;
+        private final boolean[] done;
+        private final PriorityQueue<ExecutionPlan.Node> ready =
+                new PriorityQueue<>((a, b) -> Integer.compare(a.getIndex(), b.getIndex()));
+        private final Sinks.Many<ExecutionResult> sink = Sinks.many().unicast().onBackpressureBuffer();
+        private final Disposable.Composite inFlightRequests = Disposables.composite();
+        private int inFlight;
+        private int completed;
+        // Results requested downstream and results emitted so far; requests only start while there is demand for them.
+        private long requested;
+        private long emitted;
+
+        Run(ExecutionPlan plan) {
+            this.nodes = plan.getNodes();
+            this.pendingParents = new int[nodes.size()];
+            this.done = new boolean[nodes.size()];
+        }
+
+        Flux<ExecutionResult> start() {
+            synchronized (this) {
+                for (ExecutionPlan.Node node : nodes) {
+                    pendingParents[node.getIndex()] = node.getParents().size();
+                }
+                // Fail every cycle member first so none of them is reported as merely skipped.
+                for (ExecutionPlan.Node node : nodes) {
+                    if (node.getCycle() != null) {
+                        record(node, ExecutionResult.error(node.getFile().getFileName(), node.getRequest().getId(),
+                                HttpStatus.LOOP_DETECTED.value(), CYCLE_STATUS,
+                                "Dependency cycle: " + String.join(" -> ", node.getCycle())));
+                    }
+                }
+                for (ExecutionPlan.Node node : nodes) {
+                    if (node.getCycle() != null) {
+                        release(node, false);
+                    }
+                }
+                for (ExecutionPlan.Node node : nodes) {
+                    if (!done[node.getIndex()] && pendingParents[node.getIndex()] == 0) {
+                        ready.add(node);
+                    }
+                }
+                if (completed == nodes.size()) {
+                    sink.tryEmitComplete();
+                }
+            }
+            return sink.asFlux()
+                    .doOnRequest(this::onRequest)
+                    .doOnCancel(inFlightRequests::dispose);
+        }
+
+        private void onRequest(long n) {
+            synchronized (this) {
+                requested = Operators.addCap(requested, n);
+            }
+            // A request made while a result is being emitted is picked up by the dispatch that follows the emission.
+            if (!Thread.holdsLock(this)) {
+                dispatch();
+            }
+        }
+
+        private void dispatch() {
+            while (true) {
+                ExecutionPlan.Node node;
+                synchronized (this) {
+                    if (inFlight >= concurrency || ready.isEmpty() || emitted + inFlight >= requested) {
+                        return;
+                    }
+                    node = ready.poll();
+                    inFlight++;
+                }
+                Mono<ExecutionResult> execution = Mono.defer(() -> executor.apply(node))
+                        .onErrorResume(ex -> Mono.just(ExecutionResult.error(node.getFile().getFileName(),
+                                node.getRequest().getId(), HttpStatus.INTERNAL_SERVER_ERROR.value(), "Error", ex.getMessage())));
+                inFlightRequests.add(execution.subscribe(result -> onComplete(node, result)));
+            }
+        }
+
+        private void onComplete(ExecutionPlan.Node node, ExecutionResult result) {
+            synchronized (this) {
+                inFlight--;
+                finish(node, result);
+                if (completed == nodes.size()) {
+                    sink.tryEmitComplete();
+                }
+            }
+            dispatch();
+        }
+
+        // Record a node's result and release or skip its children. Caller holds the lock.
+        private void finish(ExecutionPlan.Node node, ExecutionResult result) {
+            if (record(node, result)) {
+                release(node, result.isSuccess());
+            }
+        }
+
+        private boolean record(ExecutionPlan.Node node, ExecutionResult result) {
+            if (done[node.getIndex()]) {
+                return false;
+            }
+            done[node.getIndex()] = true;
+            completed++;
+            emitted++;
+            sink.tryEmitNext(result);
+            return true;
+        }
+
+        private void release(ExecutionPlan.Node node, boolean succeeded) {
+            for (ExecutionPlan.Node child : node.getChildren()) {
+                if (done[child.getIndex()]) {
+                    continue;
+                }
+                if (succeeded) {
+                    if (--pendingParents[child.getIndex()] == 0) {
+                        ready.add(child);
+                    }
+                } else {
+                    finish(child, ExecutionResult.error(child.getFile().getFileName(), child.getRequest().getId(),
+                            HttpStatus.FAILED_DEPENDENCY.value(), SKIPPED_STATUS,
+                            "Skipped because " + node.getRequest().getId() + " did not succeed"));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.apitester.service;
+
+import com.example.apitester.model.ExecutionResult;
+import com.example.apitester.model.HttpSettings;
+import org.springframework.http.HttpHeaders;
+import reactor.core.publisher.Mono;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sends a resolved request and streams its response into a {@link ResponseSink}. Everything before
+ * (reference resolution, upload files) and after (value extraction, assertions, metrics) is done by
+ * {@link RequestService} the same way for every engine; a suite picks its engine with "engine:" or
+ * the "http.engine" setting, and a run can override it with the 'engine' parameter.
+ */
+public interface ExecutionEngine {
+
+    /**
+     * A request with its references resolved. The body is 'body', 'bodyFile' or 'parts', whichever is
+     * set; 'settings' are the suite's overrides of the HTTP settings (may be null).
+     */
+    record OutgoingRequest(String method, String url, Map<String, String> headers, String body, Path bodyFile,
+                           List<Part> parts, HttpSettings settings, boolean skipSSL) {}
+
+    /**
+     * One part of a multipart body: an inline 'value' or the contents of 'file'.
+     */
+    record Part(String name, String value, Path file, String contentType) {}
+
+    /**
+     * Where an engine hands the response once its status and headers are in.
+     */
+    @FunctionalInterface
+    interface ResponseHandler {
+        ResponseSink open(int statusCode, HttpHeaders headers);
+    }
+
+    // The name suites and runs select the engine by, see HttpSettings.getEngine().
+    String getName();
+
+    /**
+     * Send 'request', marking its phases on 'timer', and stream the body into the sink returned by
+     * 'handler'. Completes with the sink's result; transport failures are error signals.
+     */
+    Mono<ExecutionResult> exchange(OutgoingRequest request, RequestTimer timer, ResponseHandler handler);
+}
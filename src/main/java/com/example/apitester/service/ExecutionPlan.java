@@ -0,0 +1,192 @@
+package com.example.apitester.service;
+
+import com.example.apitester.model.RequestDefinition;
+import com.example.apitester.model.YamlFileData;
+import com.example.apitester.template.CompiledRequest;
+import com.example.apitester.template.Reference;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Dependency graph of the requests in a run. A request depends on every request whose
+ * response it references through {{id.response...}} in its url, headers or body.
+ * References resolve to a request in the same file first, then to the first other file
+ * defining that id; references to ids outside the run add no edge.
+ */
+public class ExecutionPlan {
+
+    public static class Node {
+        private final int index;
+        private final YamlFileData file;
+        private final RequestDefinition request;
+        private final List<Node> parents = new ArrayList<>();
+        private final List<Node> children = new ArrayList<>();
+        private List<String> cycle;
+
+        Node(int index, YamlFileData file, RequestDefinition request) {
+            this.index = index;
+            this.file = file;
+            this.request = request;
+        }
+
+        public int getIndex() { return index; }
+        public YamlFileData getFile() { return file; }
+        public RequestDefinition getRequest() { return request; }
+        public List<Node> getParents() { return Collections.unmodifiableList(parents); }
+        public List<Node> getChildren() { return Collections.unmodifiableList(children); }
+
+        // Request ids forming the dependency cycle this node is part of, or null.
+        public List<String> getCycle() { return cycle; }
+    }
+
+    private final List<Node> nodes;
+
+    private ExecutionPlan(List<Node> nodes) {
+        this.nodes = nodes;
+    }
+
+    public List<Node> getNodes() { return nodes; }
+
+    public static ExecutionPlan of(YamlFileData fileData) {
+        return of(List.of(fileData));
+    }
+
+    public static ExecutionPlan of(List<YamlFileData> files) {
+        List<Node> nodes = new ArrayList<>();
+        Map<YamlFileData, Map<String, Node>> byFile = new HashMap<>();
+        Map<String, Node> global = new HashMap<>();
+        for (YamlFileData fileData : files) {
+            Map<String, Node> local = new HashMap<>();
+            for (RequestDefinition rd : fileData.getRequests()) {
+                Node node = new Node(nodes.size(), fileData, rd);
+                nodes.add(node);
+                local.put(rd.getId(), node);
+                global.putIfAbsent(rd.getId(), node);
+            }
+            byFile.put(fileData, local);
+        }
+        for (Node node : nodes) {
+            for (String refId : referencedIds(node.request)) {
+                Node parent = byFile.get(node.file).get(refId);
+                if (parent == null) {
+                    parent = global.get(refId);
+                }
+                if (parent != null) {
+                    node.parents.add(parent);
+                    parent.children.add(node);
+                }
+            }
+        }
+        markCycles(nodes);
+        return new ExecutionPlan(List.copyOf(nodes));
+    }
+
+    /**
+     * Plan of the requests 'rd' depends on, directly or through other requests, in file order, plus
+     * 'rd' itself when 'includeTarget' is set. Null when that leaves nothing to run.
+     */
+    public static ExecutionPlan ofRequest(YamlFileData fileData, RequestDefinition rd, boolean includeTarget) {
+        Node target = of(fileData).nodes.stream()
+                .filter(node -> node.request == rd)
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Request " + rd.getId() + " is not in " + fileData.getFileName()));
+        Set<RequestDefinition> keep = new LinkedHashSet<>();
+        collectAncestors(target, keep);
+        if (includeTarget) {
+            keep.add(rd);
+        }
+        if (keep.isEmpty()) {
+            return null;
+        }
+        return of(fileData.withRequests(fileData.getRequests().stream().filter(keep::contains).toList()));
+    }
+
+    private static void collectAncestors(Node node, Set<RequestDefinition> ancestors) {
+        for (Node parent : node.parents) {
+            if (ancestors.add(parent.request)) {
+                collectAncestors(parent, ancestors);
+            }
+        }
+    }
+
+    // Ids referenced by {{id.response...}} placeholders in the url, header values and body.
+    static Set<String> referencedIds(RequestDefinition rd) {
+        Set<String> ids = new LinkedHashSet<>();
+        for (Reference ref : CompiledRequest.of(rd).getReferences()) {
+            if (!ref.isData()) {
+                ids.add(ref.getRequestId());
+            }
+        }
+        return ids;
+    }
+
+    // Tarjan's strongly connected components; every node in a component of size > 1 (or with a self edge) is in a cycle.
+    private static void markCycles(List<Node> nodes) {
+        int[] index = new int[nodes.size()];
+        int[] low = new int[nodes.size()];
+        boolean[] onStack = new boolean[nodes.size()];
+        Arrays.fill(index, -1);
+        Deque<Node> stack = new ArrayDeque<>();
+        int[] counter = {0};
+        for (Node node : nodes) {
+            if (index[node.index] == -1) {
+                strongConnect(node, index, low, onStack, stack, counter);
+            }
+        }
+    }
+
+    private static void strongConnect(Node root, int[] index, int[] low, boolean[] onStack, Deque<Node> stack, int[] counter) {
+        // Iterative DFS to stay safe on very long dependency chains.
+        Deque<Object[]> work = new ArrayDeque<>();
+        work.push(new Object[]{root, 0});
+        index[root.index] = low[root.index] = counter[0]++;
+        stack.push(root);
+        onStack[root.index] = true;
+        while (!work.isEmpty()) {
+            Object[] frame = work.peek();
+            Node node = (Node) frame[0];
+            int next = (int) frame[1];
+            if (next < node.parents.size()) {
+                frame[1] = next + 1;
+                Node parent = node.parents.get(next);
+                if (index[parent.index] == -1) {
+                    index[parent.index] = low[parent.index] = counter[0]++;
+                    stack.push(parent);
+                    onStack[parent.index] = true;
+                    work.push(new Object[]{parent, 0});
+                } else if (onStack[parent.index]) {
+                    low[node.index] = Math.min(low[node.index], index[parent.index]);
+                }
+                continue;
+            }
+            work.pop();
+            if (!work.isEmpty()) {
+                Node caller = (Node) work.peek()[0];
+                low[caller.index] = Math.min(low[caller.index], low[node.index]);
+            }
+            if (low[node.index] == index[node.index]) {
+                List<Node> component = new ArrayList<>();
+                Node member;
+                do {
+                    member = stack.pop();
+                    onStack[member.index] = false;
+                    component.add(member);
+                } while (member != node);
+                if (component.size() > 1 || node.parents.contains(node)) {
+                    component.sort((a, b) -> Integer.compare(a.index, b.index));
+                    List<String> ids = component.stream().map(n -> n.request.getId()).toList();
+                    component.forEach(n -> n.cycle = ids);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.apitester.service;
+
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One run (or UI session) of requests with its own store of responses, so concurrent runs of
+ * the same suite never see each other's {{id.response...}} values. Only the values that some
+ * reference points at are stored, not whole response trees. A data-driven iteration sees the run
+ * through {@link #withData}, which adds the columns of its data row for {{data.column}}.
+ */
+public class ExecutionRun {
+
+    private record StoredResponse(Map<JsonPointer, JsonNode> values, long bytes) {}
+
+    private final String id;
+    private final Instant createdAt = Instant.now();
+    private final Map<String, StoredResponse> responses;
+    private final AtomicLong bytes;
+    private final Map<String, String> data;
+    private volatile long lastAccessMillis = System.currentTimeMillis();
+
+    public ExecutionRun(String id) {
+        this(id, new ConcurrentHashMap<>(), new AtomicLong(), null);
+    }
+
+    private ExecutionRun(String id, Map<String, StoredResponse> responses, AtomicLong bytes, Map<String, String> data) {
+        this.id = id;
+        this.responses = responses;
+        this.bytes = bytes;
+        this.data = data;
+    }
+
+    // A view of this run that shares its responses and resolves {{data.column}} against 'row'.
+    public ExecutionRun withData(Map<String, String> row) {
+        return new ExecutionRun(id, responses, bytes, row);
+    }
+
+    public boolean hasData() { return data != null; }
+
+    // The column's value in the data row, or null if the row has no such column.
+    public String getDataValue(String column) {
+        return data != null ? data.get(column) : null;
+    }
+
+    public String getId() { return id; }
+
+    public Instant getCreatedAt() { return createdAt; }
+
+    public long getLastAccessMillis() { return lastAccessMillis; }
+
+    // Approximate memory held by the stored responses.
+    public long getBytes() { return bytes.get(); }
+
+    public int getResponseCount() { return responses.size(); }
+
+    public void touch() {
+        lastAccessMillis = System.currentTimeMillis();
+    }
+
+    // Whether a successful response has been recorded for the request.
+    public boolean hasResponse(String requestId) {
+        touch();
+        return responses.containsKey(requestId);
+    }
+
+    // The value at 'pointer' in the request's response, or null if it was not present.
+    public JsonNode getValue(String requestId, JsonPointer pointer) {
+        touch();
+        StoredResponse stored = responses.get(requestId);
+        return stored != null ? stored.values().get(pointer) : null;
+    }
+
+    // Store the extracted values of a request's response; 'approxBytes' is used for the registry's memory bound.
+    public void putResponse(String requestId, Map<JsonPointer, JsonNode> values, long approxBytes) {
+        touch();
+        StoredResponse previous = responses.put(requestId, new StoredResponse(Map.copyOf(values), approxBytes));
+        bytes.addAndGet(approxBytes - (previous != null ? previous.bytes() : 0));
+    }
+
+    public void clear() {
+        responses.clear();
+        bytes.set(0);
+    }
+}
@@ -0,0 +1,276 @@
+package com.example.apitester.service;
+
+import com.example.apitester.config.ApiTesterProperties;
+import com.example.apitester.model.ExecutionResult;
+import com.example.apitester.model.HttpSettings;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.X509ExtendedTrustManager;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.security.GeneralSecurityException;
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Blocking engine on the JDK HttpClient: each request is one plain method call on its own thread,
+ * so stack traces and allocation profiles show the request rather than Reactor operators. Threads are
+ * virtual on Java 21 and later (where a blocked request costs next to nothing) and pooled platform
+ * threads before.
+ * <p>
+ * Clients are cached per (skipSSL, effective HTTP settings). The JDK manages its own connections, so
+ * maxConnections (times maxConcurrentStreams over HTTP/2) bounds the requests in flight instead, and
+ * pendingAcquireTimeoutMs how long a request waits for a slot; keepAlive and the idle and lifetime
+ * settings are left to the JDK. h2c is negotiated with an Upgrade from HTTP/1.1, as the JDK client
+ * has no prior-knowledge mode; servers may refuse to upgrade a request with a body. Connect and TLS
+ * times are not reported.
+ */
+@Service
+public class JdkExecutionEngine implements ExecutionEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(JdkExecutionEngine.class);
+
+    private static final int BUFFER_BYTES = 16 * 1024;
+
+    private record ClientKey(boolean skipSSL, HttpSettings settings) {}
+
+    private record Client(HttpClient httpClient, Semaphore slots, HttpSettings settings) {}
+
+    private final HttpSettings defaults;
+    private final Map<ClientKey, Client> clients = new ConcurrentHashMap<>();
+    private final boolean virtualThreads;
+    private final Scheduler scheduler;
+    private volatile SSLContext insecureSslContext;
+
+    public JdkExecutionEngine(ApiTesterProperties properties) {
+        this.defaults = properties.getHttp();
+        ExecutorService executor = virtualThreadExecutor();
+        this.virtualThreads = executor != null;
+        if (executor == null) {
+            AtomicInteger counter = new AtomicInteger();
+            executor = Executors.newCachedThreadPool(r -> {
+                Thread thread = new Thread(r, "jdk-engine-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        this.scheduler = Schedulers.fromExecutorService(executor, "jdk-engine");
+    }
+
+    @Override
+    public String getName() { return "jdk"; }
+
+    // Whether requests run on virtual threads (Java 21 and later).
+    public boolean isVirtualThreads() { return virtualThreads; }
+
+    @Override
+    public Mono<ExecutionResult> exchange(OutgoingRequest request, RequestTimer timer, ResponseHandler handler) {
+        return Mono.fromCallable(() -> send(request, timer, handler)).subscribeOn(scheduler);
+    }
+
+    private ExecutionResult send(OutgoingRequest request, RequestTimer timer, ResponseHandler handler)
+            throws IOException, InterruptedException, TimeoutException {
+        Client client = clientFor(request);
+        HttpRequest httpRequest = httpRequest(request, client.settings());
+        if (!client.slots().tryAcquire(client.settings().getPendingAcquireTimeoutMs(), TimeUnit.MILLISECONDS)) {
+            throw new TimeoutException("No slot for a request to " + WebClientRegistry.hostOf(request.url())
+                    + " within " + client.settings().getPendingAcquireTimeoutMs() + " ms");
+        }
+        try {
+            timer.requestStarted();
+            HttpResponse<InputStream> response = client.httpClient().send(httpRequest, HttpResponse.BodyHandlers.ofInputStream());
+            timer.responseReceived(response.version() == HttpClient.Version.HTTP_2 ? "HTTP/2.0" : "HTTP/1.1");
+            HttpHeaders headers = new HttpHeaders();
+            response.headers().map().forEach((name, values) -> {
+                if (!name.startsWith(":")) {
+                    headers.addAll(name, values);
+                }
+            });
+            ResponseSink sink = handler.open(response.statusCode(), headers);
+            try (InputStream body = response.body()) {
+                byte[] buffer = new byte[BUFFER_BYTES];
+                int read;
+                while ((read = body.read(buffer)) != -1) {
+                    if (read > 0) {
+                        sink.write(buffer, read);
+                    }
+                }
+            } catch (IOException | RuntimeException ex) {
+                sink.abort();
+                throw ex;
+            }
+            return sink.finish();
+        } finally {
+            client.slots().release();
+        }
+    }
+
+    private Client clientFor(OutgoingRequest request) {
+        HttpSettings settings = request.settings() != null ? request.settings().withDefaults(defaults) : defaults;
+        return clients.computeIfAbsent(new ClientKey(request.skipSSL(), settings), this::createClient);
+    }
+
+    private Client createClient(ClientKey key) {
+        HttpSettings settings = key.settings();
+        HttpClient.Builder builder = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(settings.getConnectTimeoutMs()))
+                .followRedirects(HttpClient.Redirect.NEVER);
+        if (key.skipSSL()) {
+            builder.sslContext(insecureSslContext());
+        }
+        int slots = settings.getMaxConnections() * (settings.isHttp2() ? settings.getMaxConcurrentStreams() : 1);
+        logger.info("Created JDK HttpClient (skipSSL: {}, protocol: {}, slots: {}, virtual threads: {})",
+                key.skipSSL(), settings.getProtocol(), slots, virtualThreads);
+        return new Client(builder.build(), new Semaphore(slots), settings);
+    }
+
+    private static HttpRequest httpRequest(OutgoingRequest request, HttpSettings settings) throws IOException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(request.url()))
+                .timeout(Duration.ofMillis(settings.getResponseTimeoutMs()))
+                .version(version(settings.getProtocol(), request.url()));
+        boolean multipart = request.parts() != null && !request.parts().isEmpty();
+        request.headers().forEach((name, value) -> {
+            if (!multipart || !name.equalsIgnoreCase(HttpHeaders.CONTENT_TYPE)) {
+                builder.header(name, value);
+            }
+        });
+        HttpRequest.BodyPublisher body;
+        if (request.bodyFile() != null) {
+            body = HttpRequest.BodyPublishers.ofFile(request.bodyFile());
+        } else if (multipart) {
+            String boundary = UUID.randomUUID().toString();
+            builder.header(HttpHeaders.CONTENT_TYPE, "multipart/form-data; boundary=" + boundary);
+            body = multipartBody(request.parts(), boundary);
+        } else if (request.body() != null && !request.body().isEmpty()) {
+            body = HttpRequest.BodyPublishers.ofString(request.body());
+        } else {
+            body = HttpRequest.BodyPublishers.noBody();
+        }
+        return builder.method(request.method(), body).build();
+    }
+
+    // h2 only applies to https:// URLs, as with the reactor engine.
+    private static HttpClient.Version version(String protocol, String url) {
+        return switch (protocol) {
+            case "h2" -> url.startsWith("https://") ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1;
+            case "h2c" -> HttpClient.Version.HTTP_2;
+            default -> HttpClient.Version.HTTP_1_1;
+        };
+    }
+
+    // multipart/form-data with file parts streamed from disk; part headers follow what the reactor engine sends.
+    private static HttpRequest.BodyPublisher multipartBody(List<Part> parts, String boundary) throws FileNotFoundException {
+        List<HttpRequest.BodyPublisher> publishers = new ArrayList<>();
+        for (Part part : parts) {
+            StringBuilder head = new StringBuilder("--").append(boundary).append("\r\n")
+                    .append("Content-Disposition: form-data; name=\"").append(quote(part.name())).append('"');
+            String contentType = part.contentType();
+            if (part.file() != null) {
+                head.append("; filename=\"").append(quote(part.file().getFileName().toString())).append('"');
+                if (contentType == null) {
+                    contentType = MediaTypeFactory.getMediaType(new FileSystemResource(part.file()))
+                            .orElse(MediaType.APPLICATION_OCTET_STREAM).toString();
+                }
+            } else if (contentType == null) {
+                contentType = "text/plain;charset=UTF-8";
+            }
+            head.append("\r\nContent-Type: ").append(contentType).append("\r\n\r\n");
+            publishers.add(HttpRequest.BodyPublishers.ofString(head.toString()));
+            publishers.add(part.file() != null ? HttpRequest.BodyPublishers.ofFile(part.file())
+                    : HttpRequest.BodyPublishers.ofString(part.value() != null ? part.value() : ""));
+            publishers.add(HttpRequest.BodyPublishers.ofString("\r\n"));
+        }
+        publishers.add(HttpRequest.BodyPublishers.ofString("--" + boundary + "--\r\n"));
+        return HttpRequest.BodyPublishers.concat(publishers.toArray(HttpRequest.BodyPublisher[]::new));
+    }
+
+    private static String quote(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+
+    // Trusts every certificate, without a host name check, like the reactor engine's insecure clients.
+    private SSLContext insecureSslContext() {
+        if (insecureSslContext == null) {
+            try {
+                SSLContext context = SSLContext.getInstance("TLS");
+                context.init(null, new TrustManager[] {new TrustAllManager()}, null);
+                insecureSslContext = context;
+            } catch (GeneralSecurityException ex) {
+                throw new IllegalStateException("Failed to create an insecure SSL context", ex);
+            }
+        }
+        return insecureSslContext;
+    }
+
+    /**
+     * Accepts any certificate. An extended trust manager, as the JDK wraps a plain X509TrustManager
+     * in one that still checks the host name the HttpClient asks for.
+     */
+    private static final class TrustAllManager extends X509ExtendedTrustManager {
+
+        @Override
+        public void checkClientTrusted(X509Certificate[] chain, String authType) {}
+
+        @Override
+        public void checkClientTrusted(X509Certificate[] chain, String authType, Socket socket) {}
+
+        @Override
+        public void checkClientTrusted(X509Certificate[] chain, String authType, SSLEngine engine) {}
+
+        @Override
+        public void checkServerTrusted(X509Certificate[] chain, String authType) {}
+
+        @Override
+        public void checkServerTrusted(X509Certificate[] chain, String authType, Socket socket) {}
+
+        @Override
+        public void checkServerTrusted(X509Certificate[] chain, String authType, SSLEngine engine) {}
+
+        @Override
+        public X509Certificate[] getAcceptedIssuers() { return new X509Certificate[0]; }
+    }
+
+    // Executors.newVirtualThreadPerTaskExecutor(), looked up at run time as the build targets Java 17; null before Java 21.
+    private static ExecutorService virtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException ex) {
+            return null;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.dispose();
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.apitester.service;
+
+import com.example.apitester.model.LoadReport;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records request latencies (microsecond resolution, 3 significant digits) and outcome counts
+ * from many threads without locking. Interval histograms can be taken while recording continues;
+ * everything taken so far is also accumulated into a cumulative histogram.
+ */
+public class LatencyRecorder {
+
+    private final Recorder recorder = new Recorder(3);
+    private final Histogram cumulative = new Histogram(3);
+    private final Map<Integer, LongAdder> statusCounts = new ConcurrentHashMap<>();
+    private final LongAdder errors = new LongAdder();
+
+    public void record(long latencyNanos, int statusCode, boolean success) {
+        recorder.recordValue(Math.max(1, TimeUnit.NANOSECONDS.toMicros(latencyNanos)));
+        statusCounts.computeIfAbsent(statusCode, code -> new LongAdder()).increment();
+        if (!success) {
+            errors.increment();
+        }
+    }
+
+    // Values recorded since the previous call; they are also added to the cumulative histogram.
+    public synchronized Histogram intervalHistogram() {
+        Histogram interval = recorder.getIntervalHistogram();
+        cumulative.add(interval);
+        return interval;
+    }
+
+    // Everything recorded so far.
+    public synchronized Histogram cumulativeHistogram() {
+        intervalHistogram();
+        return cumulative.copy();
+    }
+
+    public Map<String, Long> statusCounts() {
+        Map<String, Long> counts = new TreeMap<>();
+        statusCounts.forEach((code, count) -> counts.put(String.valueOf(code), count.sum()));
+        return counts;
+    }
+
+    public long errors() {
+        return errors.sum();
+    }
+
+    public LoadReport report(String name, long durationNanos) {
+        return report(name, cumulativeHistogram(), statusCounts(), errors(), durationNanos);
+    }
+
+    public static LoadReport report(String name, Histogram histogram, Map<String, Long> statusCounts, long errors, long durationNanos) {
+        LoadReport report = new LoadReport();
+        long count = histogram.getTotalCount();
+        report.setName(name);
+        report.setRequests(count);
+        report.setErrors(errors);
+        report.setErrorRate(count == 0 ? 0 : (double) errors / count);
+        report.setDurationMs(TimeUnit.NANOSECONDS.toMillis(durationNanos));
+        report.setThroughput(durationNanos == 0 ? 0 : count * 1e9 / durationNanos);
+        report.setLatency(count == 0 ? null : new LoadReport.Latency(
+                millis(histogram.getMinValue()), histogram.getMean() / 1000.0,
+                millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(90)),
+                millis(histogram.getValueAtPercentile(99)), millis(histogram.getValueAtPercentile(99.9)),
+                millis(histogram.getMaxValue())));
+        report.setStatusCounts(statusCounts);
+        return report;
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
@@ -0,0 +1,229 @@
+package com.example.apitester.service;
+
+import com.example.apitester.config.ApiTesterProperties;
+import com.example.apitester.feeder.DataFeeder;
+import com.example.apitester.model.LoadReport;
+import com.example.apitester.model.RequestDefinition;
+import com.example.apitester.model.YamlFileData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Closed-model load runs: N virtual users each repeat a request (or a whole file as a scenario)
+ * back to back until the iteration budget or the duration is used up. Every virtual user has its
+ * own {@link ExecutionRun}, so {{ref}} chains stay correct under concurrency.
+ * Open-model runs start iterations at a target arrival rate instead; see {@link ArrivalRateScheduler}.
+ */
+@Service
+public class LoadTestService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadTestService.class);
+
+    private final RequestService requestService;
+    private final ApiTesterProperties.Execution execution;
+    private final ApiTesterProperties.Load settings;
+
+    public LoadTestService(RequestService requestService, ApiTesterProperties properties) {
+        this.requestService = requestService;
+        this.execution = properties.getExecution();
+        this.settings = properties.getLoad();
+    }
+
+    public int getMaxConcurrency() { return settings.getMaxConcurrency(); }
+
+    /**
+     * Options of a closed-model run. With neither 'iterations' nor 'duration', every virtual user runs once,
+     * or, with a data feeder, until the rows run out.
+     */
+    public record LoadOptions(int concurrency, Long iterations, Duration duration) {}
+
+    // Build the workload for a request, or for the whole file when 'requestId' is null.
+    public LoadWorkload workload(YamlFileData fileData, String requestId, boolean skipSSL) {
+        if (requestId == null || requestId.isBlank()) {
+            return LoadWorkload.forScenario(requestService, fileData, skipSSL, execution.getConcurrency());
+        }
+        RequestDefinition rd = fileData.getRequests().stream()
+                .filter(r -> r.getId().equals(requestId))
+                .findFirst()
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Request not found: " + requestId));
+        return LoadWorkload.forRequest(requestService, fileData, rd, skipSSL, execution.getConcurrency());
+    }
+
+    public Mono<LoadReport> run(LoadWorkload workload, LoadOptions options) {
+        return run(workload, options, null);
+    }
+
+    /**
+     * Closed-model run where every iteration takes the next row of 'feeder' (partitioned by virtual
+     * user) for its {{data.column}} values; a virtual user stops when its rows run out. Setup requests
+     * run without a data row. The feeder is closed when the run ends.
+     */
+    public Mono<LoadReport> run(LoadWorkload workload, LoadOptions options, DataFeeder feeder) {
+        try {
+            validate(options);
+        } catch (ResponseStatusException ex) {
+            closeFeeder(feeder);
+            throw ex;
+        }
+        String loadId = UUID.randomUUID().toString();
+        AtomicLong budget = new AtomicLong(options.iterations() != null ? options.iterations()
+                : options.duration() != null || feeder != null ? Long.MAX_VALUE : options.concurrency());
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            long deadline = options.duration() != null ? start + options.duration().toNanos() : Long.MAX_VALUE;
+            logger.info("Load run {} started: {} with {} virtual users", loadId, workload.getName(), options.concurrency());
+            return Flux.range(0, options.concurrency())
+                    .flatMap(vu -> virtualUser(workload, new ExecutionRun(loadId + "-vu" + vu), budget, deadline, feeder, vu),
+                            options.concurrency())
+                    .then(Mono.fromCallable(() -> {
+                        LoadReport report = workload.report(System.nanoTime() - start);
+                        logger.info("Load run {} finished: {} requests, {} errors, {} req/s",
+                                loadId, report.getRequests(), report.getErrors(), String.format("%.1f", report.getThroughput()));
+                        return report;
+                    }));
+        }).doFinally(signal -> closeFeeder(feeder));
+    }
+
+    /**
+     * Open-model run. A single request shares one run whose dependencies are executed once up front;
+     * a scenario gets a fresh run per arrival so each iteration resolves its own {{ref}} chain.
+     */
+    public Mono<LoadReport> runArrivalRate(LoadWorkload workload, ArrivalRateScheduler.Options options) {
+        return runArrivalRate(workload, options, null);
+    }
+
+    /**
+     * Open-model run where every arrival takes the next row of 'feeder'. Arrivals never wait for rows,
+     * so the feeder must be endless (random or circular). The feeder is closed when the run ends.
+     */
+    public Mono<LoadReport> runArrivalRate(LoadWorkload workload, ArrivalRateScheduler.Options options, DataFeeder feeder) {
+        try {
+            validate(options);
+            if (feeder != null && !feeder.getStrategy().isEndless()) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Arrival-rate runs need a random or circular data strategy");
+            }
+        } catch (ResponseStatusException ex) {
+            closeFeeder(feeder);
+            throw ex;
+        }
+        String loadId = UUID.randomUUID().toString();
+        AtomicLong arrivals = new AtomicLong();
+        ExecutionRun shared = new ExecutionRun(loadId + "-shared");
+        return workload.setup(shared)
+                .flatMap(ready -> {
+                    if (!ready) {
+                        return Mono.error(new ResponseStatusException(HttpStatus.FAILED_DEPENDENCY,
+                                "Setup requests failed for " + workload.getName()));
+                    }
+                    logger.info("Arrival-rate run {} started: {} with {} stages", loadId, workload.getName(), options.stages().size());
+                    Supplier<ExecutionRun> runs = workload.isScenario()
+                            ? () -> new ExecutionRun(loadId + "-" + arrivals.incrementAndGet()) : () -> shared;
+                    // Rows are read with blocking file I/O, so off the dispatcher's parallel workers.
+                    ArrivalRateScheduler scheduler = new ArrivalRateScheduler(workload, options, feeder == null
+                            ? Mono.fromSupplier(runs)
+                            : Mono.fromCallable(() -> runs.get().withData(feeder.next(0).values())).subscribeOn(Schedulers.boundedElastic()));
+                    return scheduler.run(loadId);
+                })
+                .doFinally(signal -> closeFeeder(feeder))
+                .doOnNext(report -> logger.info("Arrival-rate run {} finished: {} requests, {} dropped, {} errors, {} req/s",
+                        loadId, report.getRequests(), report.getDropped(), report.getErrors(),
+                        String.format("%.1f", report.getThroughput())));
+    }
+
+    /**
+     * Parse ramp stages written as comma-separated 'duration:rate' pairs, e.g. "30s:100,2m:100,30s:0".
+     * Durations without a unit are seconds; rates are iterations per second.
+     */
+    public static List<ArrivalRateScheduler.Stage> parseStages(String stages) {
+        List<ArrivalRateScheduler.Stage> parsed = new ArrayList<>();
+        for (String part : stages.split(",")) {
+            String[] pieces = part.trim().split(":");
+            if (pieces.length != 2) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid stage '" + part.trim() + "', expected duration:rate");
+            }
+            try {
+                parsed.add(new ArrivalRateScheduler.Stage(
+                        DurationStyle.detectAndParse(pieces[0].trim(), ChronoUnit.SECONDS), Double.parseDouble(pieces[1].trim())));
+            } catch (IllegalArgumentException ex) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid stage '" + part.trim() + "': " + ex.getMessage());
+            }
+        }
+        return parsed;
+    }
+
+    // Claim an iteration, run it, repeat until the budget, the deadline or the virtual user's data rows are exhausted.
+    private Mono<Void> virtualUser(LoadWorkload workload, ExecutionRun run, AtomicLong budget, long deadline,
+                                   DataFeeder feeder, int vu) {
+        Mono<Boolean> next = Mono.defer(() -> {
+            if (System.nanoTime() >= deadline || budget.getAndDecrement() <= 0) {
+                return Mono.just(false);
+            }
+            if (feeder == null) {
+                return workload.iteration(run).thenReturn(true);
+            }
+            // Rows are read with blocking file I/O, so not on the event loop that finished the last iteration.
+            return Mono.fromCallable(() -> Optional.ofNullable(feeder.next(vu)))
+                    .subscribeOn(Schedulers.boundedElastic())
+                    .flatMap(row -> row.isEmpty() ? Mono.just(false)
+                            : workload.iteration(run.withData(row.get().values())).thenReturn(true));
+        });
+        return workload.setup(run)
+                .flatMap(ready -> ready ? next.repeat().takeWhile(Boolean::booleanValue).then()
+                        : Mono.fromRunnable(() -> logger.warn("Setup failed for {}; virtual user not started", run.getId())));
+    }
+
+    private static void closeFeeder(DataFeeder feeder) {
+        if (feeder != null) {
+            feeder.close();
+        }
+    }
+
+    private void validate(ArrivalRateScheduler.Options options) {
+        if (options.stages().isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "at least one stage is required");
+        }
+        for (ArrivalRateScheduler.Stage stage : options.stages()) {
+            if (stage.duration().isNegative() || stage.duration().isZero()) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "stage durations must be positive");
+            }
+        }
+        boolean rateInRange = options.startRate() >= 0 && options.startRate() <= settings.getMaxRate()
+                && options.stages().stream().allMatch(stage -> stage.targetRate() >= 0 && stage.targetRate() <= settings.getMaxRate());
+        if (!rateInRange) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "rates must be between 0 and " + settings.getMaxRate());
+        }
+        if (options.maxOutstanding() < 1 || options.maxOutstanding() > settings.getMaxOutstanding()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "maxOutstanding must be between 1 and " + settings.getMaxOutstanding());
+        }
+    }
+
+    private void validate(LoadOptions options) {
+        if (options.concurrency() < 1 || options.concurrency() > settings.getMaxConcurrency()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "concurrency must be between 1 and " + settings.getMaxConcurrency());
+        }
+        if (options.iterations() != null && options.iterations() < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "iterations must be positive");
+        }
+        if (options.duration() != null && (options.duration().isNegative() || options.duration().isZero())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "duration must be positive");
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.apitester.service;
+
+import com.example.apitester.model.ExecutionResult;
+import com.example.apitester.model.LoadReport;
+import com.example.apitester.model.RequestDefinition;
+import com.example.apitester.model.YamlFileData;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * What a virtual user repeats during a load run, plus the recorders its requests report to.
+ * Either a single request (its dependencies are executed once per virtual user as unmeasured
+ * setup) or a whole file as a scenario, scheduled by {{ref}} dependencies on each iteration.
+ */
+public class LoadWorkload {
+
+    private final String name;
+    private final RequestService requestService;
+    private final YamlFileData fileData;
+    private final boolean skipSSL;
+    private final int scenarioConcurrency;
+    // The measured request, or null for a scenario.
+    private final RequestDefinition request;
+    // Requests run once per virtual user before measuring.
+    private final ExecutionPlan setupPlan;
+    private final ExecutionPlan scenarioPlan;
+    private final LatencyRecorder total = new LatencyRecorder();
+    private final Map<String, LatencyRecorder> perRequest = new ConcurrentHashMap<>();
+    private final LongAdder skipped = new LongAdder();
+    // Whole scenario iterations, measured from their (possibly intended) start.
+    private final LatencyRecorder iterations = new LatencyRecorder();
+
+    private LoadWorkload(String name, RequestService requestService, YamlFileData fileData, boolean skipSSL,
+                         int scenarioConcurrency, RequestDefinition request, ExecutionPlan setupPlan, ExecutionPlan scenarioPlan) {
+        this.name = name;
+        this.requestService = requestService;
+        this.fileData = fileData;
+        this.skipSSL = skipSSL;
+        this.scenarioConcurrency = scenarioConcurrency;
+        this.request = request;
+        this.setupPlan = setupPlan;
+        this.scenarioPlan = scenarioPlan;
+    }
+
+    public static LoadWorkload forRequest(RequestService requestService, YamlFileData fileData, RequestDefinition rd,
+                                          boolean skipSSL, int scenarioConcurrency) {
+        ExecutionPlan setup = ExecutionPlan.ofRequest(fileData, rd, false);
+        return new LoadWorkload(fileData.getFileName() + "/" + rd.getId(), requestService, fileData, skipSSL,
+                scenarioConcurrency, rd, setup, null);
+    }
+
+    public static LoadWorkload forScenario(RequestService requestService, YamlFileData fileData,
+                                           boolean skipSSL, int scenarioConcurrency) {
+        return new LoadWorkload(fileData.getFileName(), requestService, fileData, skipSSL,
+                scenarioConcurrency, null, null, ExecutionPlan.of(fileData));
+    }
+
+    public String getName() { return name; }
+
+    public boolean isScenario() { return scenarioPlan != null; }
+
+    // Prepare a virtual user's run before it is measured. Emits false if the setup requests failed.
+    public Mono<Boolean> setup(ExecutionRun run) {
+        if (setupPlan == null) {
+            return Mono.just(true);
+        }
+        return scheduler(run, false).run(setupPlan).all(ExecutionResult::isSuccess);
+    }
+
+    // One measured iteration: the request, or every request of the scenario.
+    public Mono<Void> iteration(ExecutionRun run) {
+        return Mono.defer(() -> iteration(run, System.nanoTime()));
+    }
+
+    /**
+     * One measured iteration whose latency is counted from 'startNanos' (a System.nanoTime() value),
+     * which may be earlier than now when the iteration was scheduled for an intended start time.
+     */
+    public Mono<Void> iteration(ExecutionRun run, long startNanos) {
+        if (request != null) {
+            return Mono.defer(() -> requestService.execute(run, fileData, request, skipSSL))
+                    .doOnNext(result -> record(result, System.nanoTime() - startNanos))
+                    .then();
+        }
+        return scheduler(run, true).run(scenarioPlan)
+                .doOnNext(result -> {
+                    if (DependencyScheduler.isNotSent(result)) {
+                        skipped.increment();
+                    }
+                })
+                // Not all(): it would cancel the requests still in flight at the first failure, and they would go unrecorded.
+                .reduce(true, (success, result) -> success && result.isSuccess())
+                .doOnNext(success -> iterations.record(System.nanoTime() - startNanos, 0, success))
+                .then();
+    }
+
+    private DependencyScheduler scheduler(ExecutionRun run, boolean measured) {
+        return new DependencyScheduler(node -> Mono.defer(() -> {
+            long start = System.nanoTime();
+            return requestService.execute(run, node.getFile(), node.getRequest(), skipSSL)
+                    .doOnNext(result -> {
+                        if (measured) {
+                            record(result, System.nanoTime() - start);
+                        }
+                    });
+        }), scenarioConcurrency);
+    }
+
+    private void record(ExecutionResult result, long latencyNanos) {
+        total.record(latencyNanos, result.getStatusCode(), result.isSuccess());
+        if (scenarioPlan != null) {
+            perRequest.computeIfAbsent(result.getRequestId(), id -> new LatencyRecorder())
+                    .record(latencyNanos, result.getStatusCode(), result.isSuccess());
+        }
+    }
+
+    public LatencyRecorder getRecorder() { return total; }
+
+    public long getSkipped() { return skipped.sum(); }
+
+    public LoadReport report(long durationNanos) {
+        LoadReport report = total.report(name, durationNanos);
+        if (scenarioPlan != null) {
+            report.setSkipped(skipped.sum());
+            Map<String, LoadReport> breakdown = new LinkedHashMap<>();
+            List<String> order = new ArrayList<>();
+            scenarioPlan.getNodes().forEach(node -> order.add(node.getRequest().getId()));
+            for (String requestId : order) {
+                LatencyRecorder recorder = perRequest.get(requestId);
+                if (recorder != null) {
+                    breakdown.put(requestId, recorder.report(requestId, durationNanos));
+                }
+            }
+            report.setRequestBreakdown(breakdown);
+            report.setIterationLatency(iterations.report(name, durationNanos).getLatency());
+        }
+        return report;
+    }
+}
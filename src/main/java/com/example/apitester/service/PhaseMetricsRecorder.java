@@ -0,0 +1,80 @@
+package com.example.apitester.service;
+
+import reactor.netty.http.client.ContextAwareHttpClientMetricsRecorder;
+import reactor.util.context.ContextView;
+
+import java.net.SocketAddress;
+import java.time.Duration;
+
+/**
+ * Reactor Netty metrics hook that hands connect and TLS handshake times to the {@link RequestTimer}
+ * of the request that opened the connection. Address resolution is not reported with a context,
+ * so it only feeds the per-host resolve timer.
+ */
+class PhaseMetricsRecorder extends ContextAwareHttpClientMetricsRecorder {
+
+    private final RequestMetrics metrics;
+
+    PhaseMetricsRecorder(RequestMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void recordConnectTime(ContextView context, SocketAddress remoteAddress, Duration time, String status) {
+        RequestTimer timer = RequestTimer.from(context);
+        if (timer != null) {
+            timer.connected(time);
+        }
+    }
+
+    @Override
+    public void recordTlsHandshakeTime(ContextView context, SocketAddress remoteAddress, Duration time, String status) {
+        RequestTimer timer = RequestTimer.from(context);
+        if (timer != null) {
+            timer.tlsHandshake(time);
+        }
+    }
+
+    @Override
+    public void recordResolveAddressTime(SocketAddress remoteAddress, Duration time, String status) {
+        metrics.recordResolve(remoteAddress, time, status);
+    }
+
+    // Everything below is measured by RequestTimer or not needed.
+
+    @Override
+    public void recordDataReceivedTime(ContextView context, SocketAddress remoteAddress, String uri, String method, String status, Duration time) {
+    }
+
+    @Override
+    public void recordDataSentTime(ContextView context, SocketAddress remoteAddress, String uri, String method, Duration time) {
+    }
+
+    @Override
+    public void recordResponseTime(ContextView context, SocketAddress remoteAddress, String uri, String method, String status, Duration time) {
+    }
+
+    @Override
+    public void recordDataReceived(ContextView context, SocketAddress remoteAddress, String uri, long bytes) {
+    }
+
+    @Override
+    public void recordDataSent(ContextView context, SocketAddress remoteAddress, String uri, long bytes) {
+    }
+
+    @Override
+    public void incrementErrorsCount(ContextView context, SocketAddress remoteAddress, String uri) {
+    }
+
+    @Override
+    public void incrementErrorsCount(ContextView context, SocketAddress remoteAddress) {
+    }
+
+    @Override
+    public void recordDataReceived(ContextView context, SocketAddress remoteAddress, long bytes) {
+    }
+
+    @Override
+    public void recordDataSent(ContextView context, SocketAddress remoteAddress, long bytes) {
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.apitester.service;
+
+import com.example.apitester.model.ExecutionResult;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.MultipartBodyBuilder;
+import org.springframework.http.client.reactive.ClientHttpRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.reactive.function.BodyExtractors;
+import org.springframework.web.reactive.function.BodyInserter;
+import org.springframework.web.reactive.function.BodyInserters;
+import reactor.core.publisher.Mono;
+
+/**
+ * The default engine: the pooled WebClients of {@link WebClientRegistry} on Reactor Netty's event loops.
+ * The request's timer travels in the Reactor context, where the HttpClient hooks mark its phases.
+ */
+@Service
+public class ReactorExecutionEngine implements ExecutionEngine {
+
+    private final WebClientRegistry webClients;
+
+    public ReactorExecutionEngine(WebClientRegistry webClients) {
+        this.webClients = webClients;
+    }
+
+    @Override
+    public String getName() { return "reactor"; }
+
+    @Override
+    public Mono<ExecutionResult> exchange(OutgoingRequest request, RequestTimer timer, ResponseHandler handler) {
+        return webClients.clientFor(request.skipSSL(), request.url(), request.settings())
+                .method(HttpMethod.valueOf(request.method()))
+                .uri(request.url())
+                .headers(httpHeaders -> request.headers().forEach(httpHeaders::add))
+                .body(body(request))
+                .exchangeToMono(clientResponse -> {
+                    ResponseSink sink = handler.open(clientResponse.statusCode().value(), clientResponse.headers().asHttpHeaders());
+                    return clientResponse.body(BodyExtractors.toDataBuffers())
+                            .concatMap(sink::accept)
+                            .doOnError(ex -> sink.abort())
+                            .doOnCancel(sink::abort)
+                            .then(Mono.fromSupplier(sink::finish));
+                })
+                .contextWrite(context -> context.put(RequestTimer.CONTEXT_KEY, timer));
+    }
+
+    // A file resource is sent from disk, with zero-copy transfer where the connection allows it.
+    private static BodyInserter<?, ? super ClientHttpRequest> body(OutgoingRequest request) {
+        if (request.bodyFile() != null) {
+            return BodyInserters.fromResource(new FileSystemResource(request.bodyFile()));
+        }
+        if (request.parts() != null && !request.parts().isEmpty()) {
+            return BodyInserters.fromMultipartData(multipartBody(request));
+        }
+        return BodyInserters.fromValue(request.body() != null ? request.body() : "");
+    }
+
+    // File parts are streamed from disk like a file body.
+    private static MultiValueMap<String, HttpEntity<?>> multipartBody(OutgoingRequest request) {
+        MultipartBodyBuilder builder = new MultipartBodyBuilder();
+        for (Part part : request.parts()) {
+            MultipartBodyBuilder.PartBuilder partBuilder = part.file() != null
+                    ? builder.part(part.name(), new FileSystemResource(part.file()))
+                    : builder.part(part.name(), part.value());
+            if (part.contentType() != null) {
+                partBuilder.contentType(MediaType.parseMediaType(part.contentType()));
+            }
+        }
+        return builder.build();
+    }
+}
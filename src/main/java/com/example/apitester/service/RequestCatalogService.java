@@ -0,0 +1,280 @@
+package com.example.apitester.service;
+
+import com.example.apitester.config.ApiTesterProperties;
+import com.example.apitester.model.FileLoadError;
+import com.example.apitester.model.RequestCatalog;
+import com.example.apitester.model.RequestDefinition;
+import com.example.apitester.model.YamlFileData;
+import com.example.apitester.template.CompiledRequest;
+import com.example.apitester.template.Reference;
+import com.fasterxml.jackson.core.JsonPointer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+/**
+ * Owns the request catalog. The catalog is built once at startup from the classpath suites and
+ * the optional external directory, and rebuilt in the background whenever a watched directory
+ * changes. Readers always see a complete catalog: a rebuild is swapped in atomically.
+ */
+@Service
+public class RequestCatalogService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RequestCatalogService.class);
+
+    private final ApiTesterProperties.Requests settings;
+    private final AtomicReference<RequestCatalog> catalog = new AtomicReference<>(RequestCatalog.empty());
+    private WatchService watchService;
+    private Thread watchThread;
+
+    public RequestCatalogService(ApiTesterProperties properties) {
+        this.settings = properties.getRequests();
+    }
+
+    @PostConstruct
+    public void init() {
+        reload();
+        if (settings.isWatch()) {
+            startWatching();
+        }
+    }
+
+    public RequestCatalog getCatalog() {
+        return catalog.get();
+    }
+
+    // Rebuild the catalog from all sources and swap it in.
+    public synchronized RequestCatalog reload() {
+        Map<String, YamlFileData> files = new LinkedHashMap<>();
+        List<FileLoadError> errors = new ArrayList<>();
+        YamlSuiteParser parser = new YamlSuiteParser();
+        for (Resource resource : classpathSuites()) {
+            loadInto(parser, resource, "classpath", files, errors);
+        }
+        Path dir = externalDir();
+        if (dir != null) {
+            for (Path path : listSuites(dir)) {
+                loadInto(parser, new FileSystemResource(path), dir.toString(), files, errors);
+            }
+        }
+        List<YamlFileData> sorted = new ArrayList<>(files.values());
+        sorted.sort(Comparator.comparing(YamlFileData::getFileName));
+        indexReferences(sorted);
+        RequestCatalog next = new RequestCatalog(sorted, errors);
+        catalog.set(next);
+        logger.info("Request catalog loaded: {} file(s), {} error(s)", sorted.size(), errors.size());
+        return next;
+    }
+
+    /**
+     * Build a catalog from suite files and directories (their *.yaml / *.yml files) without the
+     * classpath suites or a Spring context, as the command-line runner does. Missing paths are load errors.
+     */
+    public static RequestCatalog load(List<Path> paths) {
+        Map<String, YamlFileData> files = new LinkedHashMap<>();
+        List<FileLoadError> errors = new ArrayList<>();
+        YamlSuiteParser parser = new YamlSuiteParser();
+        for (Path path : paths) {
+            Path absolute = path.toAbsolutePath();
+            if (Files.isDirectory(absolute)) {
+                for (Path suite : listSuites(absolute)) {
+                    loadInto(parser, new FileSystemResource(suite), absolute.toString(), files, errors);
+                }
+            } else if (Files.isRegularFile(absolute)) {
+                loadInto(parser, new FileSystemResource(absolute), String.valueOf(absolute.getParent()), files, errors);
+            } else {
+                errors.add(new FileLoadError(String.valueOf(path.getFileName()), absolute.toString(), "No such file or directory"));
+            }
+        }
+        List<YamlFileData> sorted = new ArrayList<>(files.values());
+        sorted.sort(Comparator.comparing(YamlFileData::getFileName));
+        indexReferences(sorted);
+        return new RequestCatalog(sorted, errors);
+    }
+
+    // Tell every request which parts of its response are referenced anywhere in the catalog, so only those are kept.
+    public static void indexReferences(List<YamlFileData> files) {
+        Map<String, Set<JsonPointer>> paths = new HashMap<>();
+        for (YamlFileData fileData : files) {
+            for (RequestDefinition rd : fileData.getRequests()) {
+                for (Reference ref : CompiledRequest.of(rd).getReferences()) {
+                    if (ref.isData()) {
+                        continue;
+                    }
+                    paths.computeIfAbsent(ref.getRequestId(), id -> new HashSet<>()).add(ref.getPointer());
+                }
+            }
+        }
+        for (YamlFileData fileData : files) {
+            for (RequestDefinition rd : fileData.getRequests()) {
+                rd.setReferencedPaths(Set.copyOf(paths.getOrDefault(rd.getId(), Set.of())));
+            }
+        }
+    }
+
+    private static void loadInto(YamlSuiteParser parser, Resource resource, String source,
+                          Map<String, YamlFileData> files, List<FileLoadError> errors) {
+        String fileName = resource.getFilename();
+        try (InputStream inputStream = resource.getInputStream()) {
+            byte[] yaml = inputStream.readAllBytes();
+            YamlFileData fileData = parser.parse(fileName, new ByteArrayInputStream(yaml));
+            fileData.setSource(new String(yaml, StandardCharsets.UTF_8));
+            if (files.put(fileName, fileData) != null) {
+                logger.info("Suite {} from {} overrides an earlier definition", fileName, source);
+            }
+        } catch (Exception ex) {
+            String message = ex.getMessage() != null ? ex.getMessage() : ex.getClass().getSimpleName();
+            logger.error("Failed to load suite {} from {}: {}", fileName, source, message);
+            errors.add(new FileLoadError(fileName, source, message));
+        }
+    }
+
+    private List<Resource> classpathSuites() {
+        List<Resource> resources = new ArrayList<>();
+        try {
+            PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+            String location = settings.getClasspathLocation();
+            for (String pattern : List.of("*.yaml", "*.yml")) {
+                for (Resource resource : resolver.getResources(location + pattern)) {
+                    if (resource.exists()) {
+                        resources.add(resource);
+                    }
+                }
+            }
+        } catch (IOException ex) {
+            logger.error("Error scanning classpath suites", ex);
+        }
+        resources.sort(Comparator.comparing(Resource::getFilename));
+        return resources;
+    }
+
+    private Path externalDir() {
+        if (settings.getDir() == null || settings.getDir().isBlank()) {
+            return null;
+        }
+        Path dir = Paths.get(settings.getDir()).toAbsolutePath();
+        if (!Files.isDirectory(dir)) {
+            logger.warn("Configured suite directory {} does not exist", dir);
+            return null;
+        }
+        return dir;
+    }
+
+    private static List<Path> listSuites(Path dir) {
+        try (Stream<Path> paths = Files.list(dir)) {
+            return paths.filter(RequestCatalogService::isSuite).sorted().toList();
+        } catch (IOException ex) {
+            logger.error("Error listing suites in {}", dir, ex);
+            return List.of();
+        }
+    }
+
+    private static boolean isSuite(Path path) {
+        String name = path.getFileName().toString();
+        return Files.isRegularFile(path) && (name.endsWith(".yaml") || name.endsWith(".yml"));
+    }
+
+    // Directories to watch: the external directory, plus the classpath folder when it is exploded on disk.
+    private List<Path> watchedDirs() {
+        List<Path> dirs = new ArrayList<>();
+        try {
+            Resource root = new PathMatchingResourcePatternResolver().getResource(settings.getClasspathLocation());
+            if (root.exists() && "file".equals(root.getURL().getProtocol())) {
+                dirs.add(root.getFile().toPath());
+            }
+        } catch (IOException ex) {
+            logger.debug("Classpath suites are not on the file system; not watching them", ex);
+        }
+        Path dir = externalDir();
+        if (dir != null) {
+            dirs.add(dir);
+        }
+        return dirs;
+    }
+
+    private void startWatching() {
+        List<Path> dirs = watchedDirs();
+        if (dirs.isEmpty()) {
+            return;
+        }
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            for (Path dir : dirs) {
+                dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+                logger.info("Watching {} for suite changes", dir);
+            }
+        } catch (IOException ex) {
+            logger.error("Could not start watching suite directories", ex);
+            return;
+        }
+        watchThread = new Thread(this::watchLoop, "suite-watcher");
+        watchThread.setDaemon(true);
+        watchThread.start();
+    }
+
+    private void watchLoop() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                drain(key);
+                // Editors emit bursts of events; wait for a quiet period before rebuilding.
+                WatchKey next;
+                while ((next = watchService.poll(settings.getReloadDelayMs(), TimeUnit.MILLISECONDS)) != null) {
+                    drain(next);
+                }
+                reload();
+            }
+        } catch (InterruptedException | ClosedWatchServiceException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void drain(WatchKey key) {
+        key.pollEvents();
+        key.reset();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException ex) {
+                logger.debug("Error closing suite watcher", ex);
+            }
+        }
+        if (watchThread != null) {
+            watchThread.interrupt();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.apitester.service;
+
+import com.example.apitester.model.RequestTimings;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Service;
+
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micrometer timers for executed requests, exposed through /actuator/prometheus:
+ * 'apitester.request' (whole request) and 'apitester.request.phase' (one per phase: acquire,
+ * connect, tls, ttfb, download), tagged by file, request, method, host and status, plus
+ * 'apitester.http.resolve' per host.
+ */
+@Service
+public class RequestMetrics {
+
+    public static final String REQUEST_TIMER = "apitester.request";
+
+    private final MeterRegistry registry;
+
+    public RequestMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public void record(String fileName, String requestId, String method, String host, int statusCode, RequestTimings timings) {
+        Tags tags = Tags.of("file", fileName, "request", requestId, "method", method,
+                "host", host, "status", String.valueOf(statusCode));
+        timer(REQUEST_TIMER, tags).record(nanos(timings.totalMs()), TimeUnit.NANOSECONDS);
+        recordPhase("acquire", tags, timings.acquireMs());
+        recordPhase("connect", tags, timings.connectMs());
+        recordPhase("tls", tags, timings.tlsMs());
+        recordPhase("ttfb", tags, timings.ttfbMs());
+        recordPhase("download", tags, timings.downloadMs());
+    }
+
+    void recordResolve(SocketAddress address, Duration time, String status) {
+        String host = address instanceof InetSocketAddress inet ? inet.getHostString() : String.valueOf(address);
+        timer("apitester.http.resolve", Tags.of("host", host, "status", status)).record(time);
+    }
+
+    private void recordPhase(String phase, Tags tags, Double millis) {
+        if (millis != null) {
+            timer("apitester.request.phase", tags.and("phase", phase)).record(nanos(millis), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer timer(String name, Tags tags) {
+        return Timer.builder(name).tags(tags).register(registry);
+    }
+
+    private static long nanos(double millis) {
+        return (long) (millis * 1_000_000);
+    }
+}
@@ -1,213 +1,97 @@
 package com.example.apitester.service;
 
+import com.example.apitester.assertion.ResponseAssertions;
+import com.example.apitester.config.ApiTesterProperties;
+import com.example.apitester.feeder.DataFeeder;
+import com.example.apitester.feeder.DataRow;
+import com.example.apitester.history.RunHistoryStore;
+import com.example.apitester.model.AssertionResult;
+import com.example.apitester.model.ExecutionResult;
+import com.example.apitester.model.HttpSettings;
+import com.example.apitester.model.MultipartPart;
 import com.example.apitester.model.RequestDefinition;
+import com.example.apitester.model.RequestTimings;
 import com.example.apitester.model.YamlFileData;
+import com.example.apitester.template.CompiledRequest;
+import com.example.apitester.template.Reference;
+import com.example.apitester.template.ReferenceResolver;
+import com.fasterxml.jackson.core.JsonPointer;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import io.netty.handler.ssl.SslContext;
-import io.netty.handler.ssl.SslContextBuilder;
-import io.netty.handler.ssl.util.InsecureTrustManagerFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.ResourceLoader;
-import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.server.ResponseStatusException;
-import org.yaml.snakeyaml.Yaml;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.netty.http.client.HttpClient;
+import reactor.core.scheduler.Schedulers;
 
-import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.*;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Service
 public class RequestService {
 
     private static final Logger logger = LoggerFactory.getLogger(RequestService.class);
 
-    private final ResourceLoader resourceLoader;
-    private final ObjectMapper objectMapper;
-    // Default WebClient (for normal SSL handling)
-    private final WebClient defaultWebClient;
-
-    // In-memory map to store responses keyed by request ID.
-    private final Map<String, JsonNode> responses = new HashMap<>();
+    public static final String ASSERTION_FAILED_STATUS = "Assertion failed";
 
-    // Pattern to find variables to be replaced: e.g., {{op3.response.parentProp.users[0].name}}
-    private static final Pattern REF_PATTERN = Pattern.compile("\\{\\{([^}]+)\\}\\}");
+    private final ObjectMapper objectMapper;
+    private final ApiTesterProperties.Execution execution;
+    private final Map<String, ExecutionEngine> engines;
+    private final String defaultEngine;
+    private final ApiTesterProperties.Response response;
+    private final RequestMetrics metrics;
+    private final RunHistoryStore history;
+    private final SpillStore spills;
+    private final ResponseCache cache;
+    // Files to upload are resolved against this directory and must stay inside it; null when uploads are disabled.
+    private final Path uploadDir;
 
-    public RequestService(ResourceLoader resourceLoader) {
-        this.resourceLoader = resourceLoader;
+    public RequestService(ApiTesterProperties properties, List<ExecutionEngine> engines, RequestMetrics metrics,
+                          RunHistoryStore history, SpillStore spills, ResponseCache cache) {
+        this.execution = properties.getExecution();
+        this.response = properties.getResponse();
+        this.engines = new HashMap<>();
+        engines.forEach(engine -> this.engines.put(engine.getName(), engine));
+        this.defaultEngine = properties.getHttp().getEngine();
+        this.metrics = metrics;
+        this.history = history;
+        this.spills = spills;
+        this.cache = cache;
+        String dataDir = properties.getData().getDir();
+        this.uploadDir = dataDir != null && !dataDir.isBlank() ? Paths.get(dataDir).toAbsolutePath().normalize() : null;
         this.objectMapper = new ObjectMapper();
-        this.defaultWebClient = WebClient.create();
-    }
-
-    // Helper method to create a WebClient that skips SSL handshake if needed.
-    private WebClient createWebClient(boolean skipSSL) {
-        if (!skipSSL) {
-            return defaultWebClient;
-        }
-        try {
-            SslContext sslContext = SslContextBuilder.forClient()
-                    .trustManager(InsecureTrustManagerFactory.INSTANCE)
-                    .build();
-            HttpClient httpClient = HttpClient.create().secure(spec -> spec.sslContext(sslContext));
-            return WebClient.builder()
-                    .clientConnector(new ReactorClientHttpConnector(httpClient))
-                    .build();
-        } catch (Exception ex) {
-            logger.error("Failed to create insecure WebClient", ex);
-            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to create insecure WebClient", ex);
-        }
-    }
-
-    // Dynamically load all YAML files from classpath:requests folder.
-    public List<YamlFileData> loadYamlFiles() {
-        List<YamlFileData> filesData = new ArrayList<>();
-        try {
-            PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
-            Resource[] yamlResources = resolver.getResources("classpath:requests/*.yaml");
-            Resource[] ymlResources = resolver.getResources("classpath:requests/*.yml");
-            List<Resource> allResources = new ArrayList<>();
-            allResources.addAll(Arrays.asList(yamlResources));
-            allResources.addAll(Arrays.asList(ymlResources));
-            allResources.sort(Comparator.comparing(Resource::getFilename));
-            for (Resource resource : allResources) {
-                if (resource.exists()) {
-                    YamlFileData fileData = loadYamlFile(resource);
-                    filesData.add(fileData);
-                }
-            }
-        } catch (Exception ex) {
-            logger.error("Error loading YAML files", ex);
-        }
-        return filesData;
-    }
-
-    private YamlFileData loadYamlFile(Resource resource) throws Exception {
-        YamlFileData fileData = new YamlFileData();
-        fileData.setFileName(resource.getFilename());
-        InputStream inputStream = resource.getInputStream();
-        Yaml yaml = new Yaml();
-        Object data = yaml.load(inputStream);
-        if (data instanceof Map) {
-            @SuppressWarnings("unchecked")
-            Map<String, Object> map = (Map<String, Object>) data;
-            if (map.containsKey("baseUrl") && map.containsKey("requests")) {
-                fileData.setBaseUrl(map.get("baseUrl").toString());
-                List<Map<String, Object>> reqs = (List<Map<String, Object>>) map.get("requests");
-                List<RequestDefinition> requests = new ArrayList<>();
-                for (Map<String, Object> reqMap : reqs) {
-                    RequestDefinition rd = parseRequestDefinition(reqMap);
-                    requests.add(rd);
-                }
-                fileData.setRequests(requests);
-            }
-        } else if (data instanceof List) {
-            @SuppressWarnings("unchecked")
-            List<Map<String, Object>> reqs = (List<Map<String, Object>>) data;
-            List<RequestDefinition> requests = new ArrayList<>();
-            for (Map<String, Object> reqMap : reqs) {
-                RequestDefinition rd = parseRequestDefinition(reqMap);
-                requests.add(rd);
-            }
-            fileData.setRequests(requests);
-            fileData.setBaseUrl("");
-        }
-        return fileData;
-    }
-
-    private RequestDefinition parseRequestDefinition(Map<String, Object> reqMap) {
-        RequestDefinition rd = new RequestDefinition();
-        rd.setId(reqMap.get("id").toString());
-        rd.setMethod(reqMap.get("method").toString());
-        rd.setUrl(reqMap.get("url").toString());
-        if (reqMap.containsKey("headers")) {
-            rd.setHeaders((Map<String, String>) reqMap.get("headers"));
-        }
-        if (reqMap.containsKey("requestBody")) {
-            rd.setRequestBody(reqMap.get("requestBody").toString());
-        }
-        return rd;
     }
 
     /**
-     * Resolve references in the input string using regex.
-     * For each variable of the form {{...}}, extract the reference,
-     * use JsonNode traversal (supporting array indexing) to fetch its value from stored responses,
-     * and replace it in the input string.
-     * Throws an error if any reference cannot be resolved.
+     * Resolve a single reference (e.g., "op3.response.parentProp.users[0].name") against the values stored for the run.
+     * Supports array indexing (e.g., users[0]). Throws an error if the response or the referenced value is not found.
+     * A {{data.column}} reference resolves to the column of the run's data row.
      */
-    public String resolveReferences(String input) {
-        if (input == null) return null;
-        Matcher matcher = REF_PATTERN.matcher(input);
-        StringBuffer sb = new StringBuffer();
-        while (matcher.find()) {
-            String ref = matcher.group(1).trim();  // e.g., "op3.response.parentProp.users[0].name"
-            String replacement = resolveReferenceValue(ref);
-            matcher.appendReplacement(sb, Matcher.quoteReplacement(replacement));
-        }
-        matcher.appendTail(sb);
-        return sb.toString();
-    }
-
-    /**
-     * Resolve a single reference (e.g., "op3.response.parentProp.users[0].name") by traversing stored responses.
-     * Supports array indexing (e.g., users[0]). Throws an error if any field or index is not found.
-     */
-    private String resolveReferenceValue(String ref) {
-        String[] parts = ref.split("\\.");
-        if (parts.length < 3) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid reference format: " + ref);
+    static String resolveReferenceValue(Reference reference, ExecutionRun run) {
+        if (reference.isData()) {
+            if (!run.hasData()) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "No data row for: " + reference);
+            }
+            String value = run.getDataValue(reference.getColumn());
+            if (value == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Data column '" + reference.getColumn() + "' not found");
+            }
+            return value;
         }
-        String refId = parts[0];
-        if (!responses.containsKey(refId)) {
+        String refId = reference.getRequestId();
+        if (!run.hasResponse(refId)) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Reference replacement not found for: " + refId);
         }
-        if (!"response".equalsIgnoreCase(parts[1])) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Expected 'response' as second part in reference: " + ref);
-        }
-        JsonNode node = responses.get(refId);
-        for (int i = 2; i < parts.length; i++) {
-            String part = parts[i];
-            if (part.contains("[")) {
-                int idxStart = part.indexOf('[');
-                int idxEnd = part.indexOf(']');
-                if (idxStart == -1 || idxEnd == -1 || idxEnd < idxStart) {
-                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid array notation in reference: " + part);
-                }
-                String field = part.substring(0, idxStart);
-                String indexStr = part.substring(idxStart + 1, idxEnd);
-                int index;
-                try {
-                    index = Integer.parseInt(indexStr);
-                } catch (NumberFormatException ex) {
-                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid array index in reference: " + part);
-                }
-                if (!node.has(field)) {
-                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Field '" + field + "' not found in response for: " + refId);
-                }
-                node = node.get(field);
-                if (!node.isArray()) {
-                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Field '" + field + "' is not an array in response for: " + refId);
-                }
-                if (index >= node.size()) {
-                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Index " + index + " out of bounds for field '" + field + "' in response for: " + refId);
-                }
-                node = node.get(index);
-            } else {
-                if (!node.has(part)) {
-                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Reference field '" + part + "' not found in response for: " + refId);
-                }
-                node = node.get(part);
-            }
+        JsonNode node = run.getValue(refId, reference.getPointer());
+        if (node == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Reference '" + reference + "' not found in response for: " + refId);
         }
         return node.isValueNode() ? node.asText() : node.toString();
     }
@@ -218,134 +102,319 @@ public class RequestService {
      * {"statusCode":200, "status": "Executed", "body": "<response body>"}.
      * The 'skipSSL' flag determines whether SSL validation is skipped.
      */
-    public Mono<String> executeRequest(RequestDefinition rd, String baseUrl, boolean skipSSL) {
+    public Mono<String> executeRequest(ExecutionRun run, YamlFileData fileData, RequestDefinition rd, boolean skipSSL) {
+        return executeInRun(run, fileData, rd, skipSSL, true)
+                .map(result -> result.withRunId(run.getId()))
+                .doOnNext(history::record)
+                .flatMap(this::toJson);
+    }
+
+    /**
+     * Execute a single request within a run and store its response in that run, returning the structured result.
+     * Errors (unresolved references, transport failures) are reported as an unsuccessful result, never as an error signal.
+     * Large responses are not spilled to disk, as this is what load runs repeat.
+     */
+    public Mono<ExecutionResult> execute(ExecutionRun run, YamlFileData fileData, RequestDefinition rd, boolean skipSSL) {
+        return executeInRun(run, fileData, rd, skipSSL, false).map(result -> result.withRunId(run.getId()));
+    }
+
+    // With 'keepBody', a response larger than the preview is also streamed to a spill file for download.
+    private Mono<ExecutionResult> executeInRun(ExecutionRun run, YamlFileData fileData, RequestDefinition rd,
+                                               boolean skipSSL, boolean keepBody) {
+        String fileName = fileData.getFileName();
+        CompiledRequest compiled = CompiledRequest.of(rd);
+        ReferenceResolver resolver = reference -> resolveReferenceValue(reference, run);
+        String method = rd.getMethod().toUpperCase();
         String resolvedUrl;
-        String resolvedBody;
+        Map<String, String> resolvedHeaders;
+        String resolvedBody = null;
+        Path bodyFile = null;
+        List<ExecutionEngine.Part> parts = List.of();
+        String bodyDescription;
+        ExecutionEngine engine;
         try {
-            resolvedUrl = resolveReferences(rd.getUrl());
-            resolvedBody = resolveReferences(rd.getRequestBody());
+            engine = engineFor(fileData);
+            resolvedUrl = compiled.renderUrl(resolver);
+            resolvedHeaders = compiled.renderHeaders(resolver);
+            String bodyFileName = compiled.renderBodyFile(resolver);
+            List<MultipartPart> multipart = compiled.renderMultipart(resolver);
+            if (bodyFileName != null) {
+                bodyFile = uploadFile(bodyFileName);
+                bodyDescription = "file " + bodyFile + " (" + bodyFile.toFile().length() + " bytes)";
+            } else if (!multipart.isEmpty()) {
+                parts = multipart.stream().map(part -> new ExecutionEngine.Part(part.name(), part.value(),
+                        part.file() != null ? uploadFile(part.file()) : null, part.contentType())).toList();
+                bodyDescription = "multipart " + parts.stream().map(ExecutionEngine.Part::name).toList();
+            } else {
+                resolvedBody = compiled.renderBody(resolver);
+                bodyDescription = logger.isDebugEnabled() ? abbreviate(resolvedBody) : null;
+            }
         } catch (ResponseStatusException ex) {
             logger.error("Reference replacement error for Request ID {}: {}", rd.getId(), ex.getReason());
-            rd.setStatus("Error: " + ex.getReason());
-            rd.setResponseBody("");
-            return Mono.error(ex);
-        }
-        if (resolvedUrl.contains("{{") || resolvedUrl.contains("}}")) {
-            String errMsg = "Reference replacement failed in URL: " + rd.getUrl();
-            logger.error(errMsg);
-            rd.setStatus("Error: " + errMsg);
-            rd.setResponseBody("");
-            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, errMsg));
-        }
-        if (resolvedBody != null && (resolvedBody.contains("{{") || resolvedBody.contains("}}"))) {
-            String errMsg = "Reference replacement failed in request body: " + rd.getRequestBody();
-            logger.error(errMsg);
-            rd.setStatus("Error: " + errMsg);
-            rd.setResponseBody("");
-            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, errMsg));
+            return Mono.just(ExecutionResult.error(fileName, rd.getId(), ex.getStatusCode().value(), "Error", ex.getReason()));
         }
         if (!resolvedUrl.startsWith("http://") && !resolvedUrl.startsWith("https://")) {
             if (resolvedUrl.startsWith("/")) {
                 resolvedUrl = resolvedUrl.substring(1);
             }
-            resolvedUrl = baseUrl + resolvedUrl;
+            resolvedUrl = fileData.getBaseUrl() + resolvedUrl;
         }
-        logger.info("Executing Request: ID: {}, Method: {}, URL: {}, Headers: {}, Body: {}",
-                rd.getId(), rd.getMethod(), resolvedUrl, rd.getHeaders(), resolvedBody);
+        // Per-request logs are DEBUG: load runs repeat this path, and appender I/O would skew their latencies.
+        logger.debug("Executing Request: ID: {}, Method: {}, URL: {}, Headers: {}, Body: {}",
+                rd.getId(), rd.getMethod(), resolvedUrl, resolvedHeaders, bodyDescription);
 
-        WebClient client = createWebClient(skipSSL);
-        return client.method(org.springframework.http.HttpMethod.valueOf(rd.getMethod().toUpperCase()))
-                .uri(resolvedUrl)
-                .headers(httpHeaders -> {
-                    if (rd.getHeaders() != null) {
-                        rd.getHeaders().forEach(httpHeaders::add);
-                    }
-                })
-                .bodyValue(resolvedBody != null ? resolvedBody : "")
-                .exchangeToMono(clientResponse -> {
-                    int statusCode = clientResponse.statusCode().value();
-                    return clientResponse.bodyToMono(String.class)
-                            .defaultIfEmpty("")
-                            .flatMap(body -> {
-                                logger.info("Received Response for Request ID {}: status: {}, body: {}", rd.getId(), statusCode, body);
-                                rd.setResponseBody(body);
-                                String statusText;
-                                if (statusCode < 400) {
-                                    statusText = "Executed";
-                                    try {
-                                        JsonNode jsonNode = objectMapper.readTree(body);
-                                        responses.put(rd.getId(), jsonNode);
-                                    } catch (Exception ex) {
-                                        logger.error("Failed to parse JSON response for Request ID " + rd.getId(), ex);
-                                    }
-                                } else {
-                                    statusText = "Error: " + statusCode;
-                                }
-                                rd.setStatus(statusText);
-                                Map<String, Object> resultMap = new HashMap<>();
-                                resultMap.put("statusCode", statusCode);
-                                resultMap.put("status", statusText);
-                                resultMap.put("body", body);
-                                try {
-                                    String resultStr = objectMapper.writeValueAsString(resultMap);
-                                    return Mono.just(resultStr);
-                                } catch (Exception ex) {
-                                    return Mono.error(new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Error processing response", ex));
-                                }
-                            });
-                })
+        ExecutionEngine.OutgoingRequest request = new ExecutionEngine.OutgoingRequest(method, resolvedUrl, resolvedHeaders,
+                resolvedBody, bodyFile, parts, fileData.getHttpSettings(), skipSSL);
+        String host = WebClientRegistry.hostOf(resolvedUrl);
+        RequestTimer timer = new RequestTimer();
+        String cacheMode = cache.modeFor(fileData.getCache());
+        boolean cacheable = !cacheMode.equals("off") && ResponseCache.isCacheable(request);
+        ResponseCache.Entry cached = cacheable ? cache.lookup(request) : null;
+        Mono<ExecutionResult> exchange;
+        if (cacheMode.equals("replay")) {
+            // Nothing goes upstream in replay mode: requests that cannot be cached are not in the cache either.
+            if (cached == null) {
+                logger.warn("Request ID {} is not in the response cache: {} {}", rd.getId(), method, resolvedUrl);
+                cache.record(null);
+                return Mono.just(ExecutionResult.error(fileName, rd.getId(), HttpStatus.GATEWAY_TIMEOUT.value(), "Error",
+                        "Not in the response cache: " + method + " " + resolvedUrl));
+            }
+            exchange = fromCache(run, fileData, rd, cached, timer, ResponseCache.REPLAYED);
+        } else if (cached != null && cached.isFresh(System.currentTimeMillis()) && !ResponseCache.requiresRevalidation(request)) {
+            exchange = fromCache(run, fileData, rd, cached, timer, ResponseCache.HIT);
+        } else {
+            // A stale response with validators is revalidated; a 304 answers with the stored body.
+            boolean revalidate = cached != null && cached.hasValidators();
+            exchange = engine.exchange(revalidate ? ResponseCache.conditional(request, cached) : request, timer, (statusCode, headers) -> {
+                if (revalidate && statusCode == HttpStatus.NOT_MODIFIED.value()) {
+                    ResponseCache.Entry refreshed = cache.refresh(request, cached, headers);
+                    ResponseSink sink = sink(run, fileData, rd, refreshed.statusCode(), refreshed.headers(), false, timer,
+                            null, ResponseCache.REVALIDATED);
+                    sink.write(refreshed.body(), refreshed.body().length);
+                    return sink;
+                }
+                return sink(run, fileData, rd, statusCode, headers, keepBody, timer,
+                        cacheable ? request : null, cacheable ? ResponseCache.MISS : null);
+            });
+        }
+        return exchange
                 .doOnError(ex -> {
                     String errorMsg = "Error executing request " + rd.getId() + ": " + ex.getMessage();
                     logger.error(errorMsg, ex);
-                    rd.setStatus("Error: " + ex.getMessage());
-                    rd.setResponseBody("");
                 })
                 .onErrorResume(ex -> {
-                    Map<String, Object> errorMap = new HashMap<>();
                     int errorStatus = (ex instanceof ResponseStatusException) ?
                             ((ResponseStatusException) ex).getStatusCode().value() : HttpStatus.INTERNAL_SERVER_ERROR.value();
-                    errorMap.put("statusCode", errorStatus);
-                    errorMap.put("status", "Error");
-                    errorMap.put("body", "{\"error\": {\"reason\": \"" + ex.getMessage() + "\"}}");
-                    try {
-                        String errorResult = objectMapper.writeValueAsString(errorMap);
-                        return Mono.just(errorResult);
-                    } catch (Exception e) {
-                        return Mono.error(e);
-                    }
-                });
+                    return Mono.just(ExecutionResult.error(fileName, rd.getId(), errorStatus, "Error", ex.getMessage()));
+                })
+                .map(result -> {
+                    RequestTimings timings = result.getTimings() != null ? result.getTimings() : timer.finish();
+                    metrics.record(fileName, rd.getId(), method, host, result.getStatusCode(), timings);
+                    ExecutionResult timed = result.withTimings(timings);
+                    return timer.getProtocol() != null ? timed.withProtocol(timer.getProtocol()) : timed;
+                })
+                .doOnSubscribe(subscription -> timer.start());
     }
 
-    // Execute all requests in a file (sequentially).
-    public Mono<List<String>> executeFile(YamlFileData fileData, boolean skipSSL) {
-        List<Mono<String>> monos = new ArrayList<>();
-        for (RequestDefinition rd : fileData.getRequests()) {
-            monos.add(executeRequest(rd, fileData.getBaseUrl(), skipSSL));
+    // The engine the suite's (or the application's) HTTP settings name.
+    private ExecutionEngine engineFor(YamlFileData fileData) {
+        HttpSettings settings = fileData.getHttpSettings();
+        String name = settings != null && settings.getEngine() != null ? settings.getEngine() : defaultEngine;
+        ExecutionEngine engine = engines.get(name);
+        if (engine == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Execution engine not available: " + name);
         }
-        return Mono.zip(monos, results ->
-                Arrays.stream(results)
-                        .map(result -> (String) result)
-                        .collect(Collectors.toList())
-        );
+        return engine;
+    }
+
+    /**
+     * The sink for a response to 'rd'. A response to a cacheable request ('store' non-null) is stored
+     * in the response cache; 'outcome' records how the cache answered, null when it was not consulted.
+     */
+    private ResponseSink sink(ExecutionRun run, YamlFileData fileData, RequestDefinition rd, int statusCode,
+                              HttpHeaders headers, boolean keepBody, RequestTimer timer,
+                              ExecutionEngine.OutgoingRequest store, String outcome) {
+        ResponseAssertions assertions = rd.getAssertions();
+        boolean statusOk = assertions != null && assertions.hasStatusCheck()
+                ? assertions.statusMatches(statusCode) : statusCode < 400;
+        // Stream the body: keep a bounded preview and extract only the referenced and asserted values.
+        ResponseBodyCollector collector = new ResponseBodyCollector(
+                response.getPreviewBytes(), wantedPaths(rd, statusOk), objectMapper);
+        SpillStore.Spiller spiller = keepBody ? spills.spiller(
+                headers.getContentType() != null ? headers.getContentType().toString() : null) : null;
+        return new ResponseSink(collector, spiller, store != null ? cache.getMaxEntryBytes() : -1, (collected, body) -> {
+            if (store != null) {
+                cache.store(store, statusCode, headers, body);
+            }
+            if (outcome == null) {
+                return toResult(run, fileData, rd, statusCode, statusOk, headers, collected, timer);
+            }
+            cache.record(outcome);
+            return toResult(run, fileData, rd, statusCode, statusOk, headers, collected, timer).withCache(outcome);
+        });
     }
 
-    // Execute all requests across all files (sequentially).
-    public Mono<List<String>> executeAll(List<YamlFileData> filesData, boolean skipSSL) {
-        List<Mono<String>> monos = new ArrayList<>();
-        for (YamlFileData fileData : filesData) {
-            for (RequestDefinition rd : fileData.getRequests()) {
-                monos.add(executeRequest(rd, fileData.getBaseUrl(), skipSSL));
+    // A stored response, run through a sink like one off the wire; stored bodies fit in the preview, so none is spilled.
+    private Mono<ExecutionResult> fromCache(ExecutionRun run, YamlFileData fileData, RequestDefinition rd,
+                                            ResponseCache.Entry entry, RequestTimer timer, String outcome) {
+        return Mono.fromSupplier(() -> {
+            ResponseSink sink = sink(run, fileData, rd, entry.statusCode(), entry.headers(), false, timer, null, outcome);
+            sink.write(entry.body(), entry.body().length);
+            return sink.finish();
+        });
+    }
+
+    private ExecutionResult toResult(ExecutionRun run, YamlFileData fileData, RequestDefinition rd, int statusCode,
+                                     boolean statusOk, HttpHeaders headers, ResponseBodyCollector.CollectedBody collected,
+                                     RequestTimer timer) {
+        String fileName = fileData.getFileName();
+        ResponseAssertions assertions = rd.getAssertions();
+        if (logger.isDebugEnabled()) {
+            logger.debug("Received Response for Request ID {}: status: {}, bytes: {}, body: {}",
+                    rd.getId(), statusCode, collected.totalBytes(), abbreviate(collected.preview()));
+        }
+        if (statusOk) {
+            if (collected.extractFailure() != null) {
+                logger.error("Failed to parse JSON response for Request ID {}: {}", rd.getId(), collected.extractFailure());
+            } else {
+                run.putResponse(rd.getId(), referencedValues(rd, collected.values()), collected.valueBytes());
             }
         }
-        return Mono.zip(monos, results ->
-                Arrays.stream(results)
-                        .map(result -> (String) result)
-                        .collect(Collectors.toList())
-        );
+        if (assertions == null) {
+            return new ExecutionResult(fileName, rd.getId(), statusCode,
+                    statusOk ? "Executed" : "Error: " + statusCode, collected.preview(), statusOk)
+                    .withBodyInfo(collected.truncated(), collected.totalBytes());
+        }
+        RequestTimings timings = timer.finish();
+        List<AssertionResult> results = assertions.evaluate(statusCode, headers,
+                collected.values(), collected.extractFailure(), collected.totalBytes(), timings.totalMs());
+        boolean passed = statusOk && results.stream().allMatch(AssertionResult::passed);
+        String statusText = passed ? "Executed"
+                : statusOk || assertions.hasStatusCheck() ? ASSERTION_FAILED_STATUS : "Error: " + statusCode;
+        return new ExecutionResult(fileName, rd.getId(), statusCode, statusText, collected.preview(), passed)
+                .withBodyInfo(collected.truncated(), collected.totalBytes())
+                .withTimings(timings)
+                .withAssertions(results);
+    }
+
+    // A file to upload, relative to the upload directory; absolute paths and ".." must not leave it either.
+    private Path uploadFile(String name) {
+        if (uploadDir == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "File uploads are disabled; set apitester.data.dir");
+        }
+        Path file = uploadDir.resolve(name).normalize();
+        if (!file.startsWith(uploadDir)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Request body file must be inside " + uploadDir + ": " + name);
+        }
+        if (!Files.isRegularFile(file)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Request body file not found: " + name);
+        }
+        return file;
+    }
+
+    // Bodies are logged up to apitester.response.log-preview-chars.
+    private String abbreviate(String text) {
+        int limit = response.getLogPreviewChars();
+        if (text == null || text.length() <= limit) {
+            return text;
+        }
+        return text.substring(0, limit) + "... (" + text.length() + " chars)";
+    }
+
+    // Referenced values are only needed from a successful response; asserted values always are.
+    private static Set<JsonPointer> wantedPaths(RequestDefinition rd, boolean statusOk) {
+        Set<JsonPointer> referenced = statusOk ? rd.getReferencedPaths() : Set.of();
+        if (rd.getAssertions() == null || rd.getAssertions().getBodyPaths().isEmpty()) {
+            return referenced;
+        }
+        Set<JsonPointer> wanted = new HashSet<>(referenced);
+        wanted.addAll(rd.getAssertions().getBodyPaths());
+        return wanted;
+    }
+
+    // Only what other requests reference is kept in the run.
+    private static Map<JsonPointer, JsonNode> referencedValues(RequestDefinition rd, Map<JsonPointer, JsonNode> values) {
+        if (rd.getAssertions() == null || rd.getReferencedPaths().containsAll(values.keySet())) {
+            return values;
+        }
+        Map<JsonPointer, JsonNode> referenced = new HashMap<>(values);
+        referenced.keySet().retainAll(rd.getReferencedPaths());
+        return referenced;
+    }
+
+    private Mono<String> toJson(ExecutionResult result) {
+        try {
+            return Mono.just(objectMapper.writeValueAsString(result));
+        } catch (Exception ex) {
+            return Mono.error(new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Error processing response", ex));
+        }
+    }
+
+    // Execute all requests in a file within a run, respecting {{ref}} dependencies between them.
+    public Mono<List<String>> executeFile(ExecutionRun run, YamlFileData fileData, boolean skipSSL, int concurrency) {
+        return executePlan(run, ExecutionPlan.of(fileData), skipSSL, concurrency);
+    }
+
+    // Execute all requests across all files within a run, respecting {{ref}} dependencies between them.
+    public Mono<List<String>> executeAll(ExecutionRun run, List<YamlFileData> filesData, boolean skipSSL, int concurrency) {
+        return executePlan(run, ExecutionPlan.of(filesData), skipSSL, concurrency);
+    }
+
+    // Stream the results of a file's requests as each one completes; dependents still wait for their references.
+    public Flux<ExecutionResult> streamFile(ExecutionRun run, YamlFileData fileData, boolean skipSSL, int concurrency) {
+        return streamPlan(run, ExecutionPlan.of(fileData), skipSSL, concurrency).doOnNext(history::record);
+    }
+
+    // Stream the results of every request across all files as each one completes.
+    public Flux<ExecutionResult> streamAll(ExecutionRun run, List<YamlFileData> filesData, boolean skipSSL, int concurrency) {
+        return streamPlan(run, ExecutionPlan.of(filesData), skipSSL, concurrency).doOnNext(history::record);
+    }
+
+    /**
+     * Run a request (with the requests it references) or, when 'rd' is null, the whole file once per
+     * row handed out by the feeder. Every row gets a fresh run, so its {{ref}} chain and {{data.column}}
+     * values are its own. 'workers' rows are in flight at a time, worker n taking the rows of partition n;
+     * at most 'limit' rows are used (all when null). The feeder is closed when the stream ends.
+     */
+    public Flux<ExecutionResult> streamRows(YamlFileData fileData, RequestDefinition rd, DataFeeder feeder,
+                                            int workers, Long limit, boolean skipSSL) {
+        ExecutionPlan plan = rd == null ? ExecutionPlan.of(fileData) : ExecutionPlan.ofRequest(fileData, rd, true);
+        String runId = UUID.randomUUID().toString();
+        AtomicLong remaining = new AtomicLong(limit != null ? limit : Long.MAX_VALUE);
+        return Flux.range(0, workers)
+                .flatMap(worker -> Flux.<DataRow>generate(sink -> {
+                            DataRow row = remaining.getAndDecrement() > 0 ? feeder.next(worker) : null;
+                            if (row == null) {
+                                sink.complete();
+                            } else {
+                                sink.next(row);
+                            }
+                        })
+                        // Rows are read with blocking file I/O, one ahead of the row being executed.
+                        .subscribeOn(Schedulers.boundedElastic())
+                        .concatMap(row -> streamPlan(new ExecutionRun(runId + "-" + row.number()).withData(row.values()),
+                                plan, skipSSL, 0).map(result -> result.withDataRow(row.number())), 1), workers)
+                .doOnNext(history::record)
+                .doFinally(signal -> feeder.close());
+    }
+
+    // Independent requests run in parallel up to the concurrency limit; results are returned in file order.
+    private Mono<List<String>> executePlan(ExecutionRun run, ExecutionPlan plan, boolean skipSSL, int concurrency) {
+        Map<String, Integer> order = new HashMap<>();
+        plan.getNodes().forEach(node -> order.put(node.getFile().getFileName() + "/" + node.getRequest().getId(), node.getIndex()));
+        return streamPlan(run, plan, skipSSL, concurrency)
+                .doOnNext(history::record)
+                .collectSortedList(Comparator.comparing(result -> order.get(result.getFileName() + "/" + result.getRequestId())))
+                .flatMapMany(Flux::fromIterable)
+                .concatMap(this::toJson)
+                .collectList();
     }
 
-    // Clear stored responses.
-    public void clearResponses() {
-        responses.clear();
+    // Results in completion order. The scheduler only starts new requests as the subscriber requests results.
+    private Flux<ExecutionResult> streamPlan(ExecutionRun run, ExecutionPlan plan, boolean skipSSL, int concurrency) {
+        DependencyScheduler scheduler = new DependencyScheduler(node ->
+                executeInRun(run, node.getFile(), node.getRequest(), skipSSL, true),
+                concurrency > 0 ? concurrency : execution.getConcurrency());
+        return scheduler.run(plan).map(result -> result.withRunId(run.getId()));
     }
 }
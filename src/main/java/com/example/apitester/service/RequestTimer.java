@@ -0,0 +1,77 @@
+package com.example.apitester.service;
+
+import com.example.apitester.model.RequestTimings;
+import reactor.util.context.ContextView;
+
+import java.time.Duration;
+
+/**
+ * Collects the phase timestamps of one request. It travels in the Reactor context of the
+ * WebClient exchange, where the HttpClient hooks and {@link PhaseMetricsRecorder} find it.
+ */
+public class RequestTimer {
+
+    static final Class<RequestTimer> CONTEXT_KEY = RequestTimer.class;
+
+    private volatile long startNanos;
+    private volatile long connectNanos = -1;
+    private volatile long tlsNanos = -1;
+    private volatile long requestNanos;
+    private volatile long responseNanos;
+    private volatile String protocol;
+
+    // The timer of the request running in 'context', or null outside a timed exchange.
+    static RequestTimer from(ContextView context) {
+        return context.getOrDefault(CONTEXT_KEY, null);
+    }
+
+    void start() {
+        startNanos = System.nanoTime();
+    }
+
+    void connected(Duration time) {
+        connectNanos = time.toNanos();
+    }
+
+    void tlsHandshake(Duration time) {
+        tlsNanos = time.toNanos();
+    }
+
+    // The connection is ready and the request is about to be written.
+    void requestStarted() {
+        requestNanos = System.nanoTime();
+    }
+
+    // 'protocol' is the HTTP version the response came over, e.g. HTTP/2.0.
+    void responseReceived(String protocol) {
+        responseNanos = System.nanoTime();
+        this.protocol = protocol;
+    }
+
+    // The negotiated HTTP version, or null before a response arrived.
+    String getProtocol() { return protocol; }
+
+    // Phases up to now; phases the request never reached are left out.
+    RequestTimings finish() {
+        long end = System.nanoTime();
+        Double acquire = null;
+        Double ttfb = null;
+        Double download = null;
+        if (requestNanos != 0) {
+            long setup = Math.max(0, connectNanos) + Math.max(0, tlsNanos);
+            acquire = millis(Math.max(0, requestNanos - startNanos - setup));
+            if (responseNanos != 0) {
+                ttfb = millis(responseNanos - requestNanos);
+                download = millis(end - responseNanos);
+            }
+        }
+        return new RequestTimings(millis(end - startNanos), acquire,
+                connectNanos >= 0 ? millis(connectNanos) : null,
+                tlsNanos >= 0 ? millis(tlsNanos) : null,
+                ttfb, download);
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.apitester.service;
+
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Consumes a response body chunk by chunk: keeps at most 'previewLimit' bytes as a text preview,
+ * counts the total size and streams the chunks through a {@link ResponseExtractor} for the
+ * referenced values. The full body is never held in memory.
+ */
+public class ResponseBodyCollector {
+
+    /**
+     * What is retained of a response body.
+     */
+    public record CollectedBody(String preview, boolean truncated, long totalBytes,
+                                Map<JsonPointer, JsonNode> values, long valueBytes, String extractFailure) {}
+
+    private final int previewLimit;
+    private final ByteArrayOutputStream preview;
+    private final ResponseExtractor extractor;
+    private long totalBytes;
+
+    public ResponseBodyCollector(int previewLimit, Set<JsonPointer> wanted, ObjectMapper objectMapper) {
+        this.previewLimit = Math.max(0, previewLimit);
+        this.preview = new ByteArrayOutputStream(Math.min(this.previewLimit, 8192));
+        this.extractor = new ResponseExtractor(wanted, objectMapper);
+    }
+
+    public void accept(ByteBuffer chunk) {
+        int length = chunk.remaining();
+        totalBytes += length;
+        int room = previewLimit - preview.size();
+        if (room > 0) {
+            ByteBuffer slice = chunk.duplicate();
+            int take = Math.min(room, length);
+            byte[] bytes = new byte[take];
+            slice.get(bytes);
+            preview.write(bytes, 0, take);
+        }
+        if (extractor.needsInput()) {
+            extractor.feed(chunk.duplicate());
+        }
+    }
+
+    public long getTotalBytes() { return totalBytes; }
+
+    // Whether the body seen so far is larger than the preview.
+    public boolean isTruncated() { return totalBytes > previewLimit; }
+
+    // The first 'length' bytes of the body; only available while they are all in the preview.
+    public byte[] head(int length) {
+        byte[] bytes = preview.toByteArray();
+        if (length > bytes.length) {
+            throw new IllegalStateException("Only " + bytes.length + " bytes of the body are kept");
+        }
+        return length == bytes.length ? bytes : Arrays.copyOf(bytes, length);
+    }
+
+    public CollectedBody finish() {
+        Map<JsonPointer, JsonNode> values = extractor.finish();
+        byte[] bytes = preview.toByteArray();
+        boolean truncated = totalBytes > bytes.length;
+        return new CollectedBody(decode(bytes, truncated), truncated, totalBytes,
+                values, extractor.getCapturedBytes(), extractor.getFailure());
+    }
+
+    // Decode UTF-8, dropping a multi-byte character cut in half at the preview boundary.
+    private static String decode(byte[] bytes, boolean truncated) {
+        int end = bytes.length;
+        if (truncated) {
+            int start = end;
+            while (start > 0 && start > end - 4 && (bytes[start - 1] & 0xC0) == 0x80) {
+                start--;
+            }
+            if (start > 0) {
+                int lead = bytes[start - 1] & 0xFF;
+                int expected = lead >= 0xF0 ? 4 : lead >= 0xE0 ? 3 : lead >= 0xC0 ? 2 : 1;
+                if (end - (start - 1) < expected) {
+                    end = start - 1;
+                }
+            }
+        }
+        return new String(bytes, 0, end, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,322 @@
+package com.example.apitester.service;
+
+import com.example.apitester.config.ApiTesterProperties;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Private HTTP cache of GET and HEAD responses, so requests that only feed {{ref}} values to later
+ * steps need not go upstream on every run and iteration. Responses are keyed by method and URL, with
+ * one variant per combination of the request headers their Vary names. A response is fresh for its
+ * Cache-Control max-age, or until Expires, or else for the configured default; no-store responses are
+ * not kept and no-cache ones are revalidated every time. Stale responses with an ETag or Last-Modified
+ * are revalidated with If-None-Match / If-Modified-Since; a 304 refreshes the stored response.
+ * <p>
+ * Only bodies that fit in the response preview are kept. Entries are dropped a TTL after they were
+ * stored or revalidated, and the least recently used go first when the bodies exceed the size bound.
+ */
+@Service
+public class ResponseCache {
+
+    public static final String HIT = "hit";
+    public static final String MISS = "miss";
+    public static final String REVALIDATED = "revalidated";
+    public static final String REPLAYED = "replayed";
+
+    // Status codes cacheable without explicit freshness (RFC 9110, section 15.1).
+    private static final Set<Integer> CACHEABLE_STATUS = Set.of(200, 203, 204, 300, 301, 404, 405, 410, 414, 501);
+
+    /**
+     * A stored response. 'vary' holds the values the request that fetched it had for the headers the
+     * response varies on (null for an absent header).
+     */
+    public record Entry(int statusCode, HttpHeaders headers, byte[] body, Map<String, String> vary,
+                        long storedMillis, long freshUntilMillis) {
+
+        public boolean isFresh(long nowMillis) { return nowMillis < freshUntilMillis; }
+
+        public boolean hasValidators() {
+            return headers.getETag() != null || headers.getFirst(HttpHeaders.LAST_MODIFIED) != null;
+        }
+
+        long bytes() {
+            return body.length + 64L * headers.size() + 128;
+        }
+    }
+
+    private final ApiTesterProperties.Cache settings;
+    private final String defaultMode;
+    private final int maxEntryBytes;
+    // Variants by "METHOD url", least recently used first.
+    private final LinkedHashMap<String, List<Entry>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder revalidated = new LongAdder();
+    private final LongAdder replayed = new LongAdder();
+    private final LongAdder replayMisses = new LongAdder();
+    private final LongAdder stored = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+
+    public ResponseCache(ApiTesterProperties properties) {
+        this.settings = properties.getCache();
+        this.maxEntryBytes = Math.min(settings.getMaxEntryBytes(), properties.getResponse().getPreviewBytes());
+        this.defaultMode = settings.getMode() != null ? settings.getMode().trim().toLowerCase() : "off";
+        if (!Set.of("off", "on", "replay").contains(defaultMode)) {
+            throw new IllegalArgumentException("apitester.cache.mode must be off, on or replay, not '" + settings.getMode() + "'");
+        }
+    }
+
+    // Bodies longer than this are not cached.
+    public int getMaxEntryBytes() { return maxEntryBytes; }
+
+    // The mode a suite runs with: its own, or apitester.cache.mode.
+    public String modeFor(String suiteMode) {
+        return suiteMode != null ? suiteMode : defaultMode;
+    }
+
+    /**
+     * Whether a request may be answered from the cache: a GET or HEAD without a body whose headers
+     * neither forbid storing (Cache-Control: no-store) nor make it conditional already.
+     */
+    public static boolean isCacheable(ExecutionEngine.OutgoingRequest request) {
+        if (!request.method().equals("GET") && !request.method().equals("HEAD")) {
+            return false;
+        }
+        if (request.bodyFile() != null || (request.parts() != null && !request.parts().isEmpty())
+                || (request.body() != null && !request.body().isEmpty())) {
+            return false;
+        }
+        if (header(request.headers(), HttpHeaders.IF_NONE_MATCH) != null
+                || header(request.headers(), HttpHeaders.IF_MODIFIED_SINCE) != null) {
+            return false;
+        }
+        return !directives(header(request.headers(), HttpHeaders.CACHE_CONTROL)).containsKey("no-store");
+    }
+
+    // Whether the request asks for a stored response to be revalidated even when it is fresh.
+    public static boolean requiresRevalidation(ExecutionEngine.OutgoingRequest request) {
+        Map<String, String> directives = directives(header(request.headers(), HttpHeaders.CACHE_CONTROL));
+        return directives.containsKey("no-cache") || "0".equals(directives.get("max-age"));
+    }
+
+    // The stored response matching the request, fresh or stale; null when there is none.
+    public synchronized Entry lookup(ExecutionEngine.OutgoingRequest request) {
+        List<Entry> variants = entries.get(key(request));
+        if (variants == null) {
+            return null;
+        }
+        long expired = System.currentTimeMillis() - TimeUnit.SECONDS.toMillis(settings.getTtlSeconds());
+        for (Iterator<Entry> it = variants.iterator(); it.hasNext(); ) {
+            Entry entry = it.next();
+            if (entry.storedMillis() < expired) {
+                it.remove();
+                bytes -= entry.bytes();
+                evicted.increment();
+            } else if (matches(entry, request)) {
+                return entry;
+            }
+        }
+        if (variants.isEmpty()) {
+            entries.remove(key(request));
+        }
+        return null;
+    }
+
+    /**
+     * Store a response to the request, replacing the variant it matches. Responses that may not be
+     * stored are ignored; 'body' is null when it was too long to keep.
+     */
+    public void store(ExecutionEngine.OutgoingRequest request, int statusCode, HttpHeaders headers, byte[] body) {
+        if (body == null || body.length > maxEntryBytes || !CACHEABLE_STATUS.contains(statusCode)) {
+            return;
+        }
+        Map<String, String> responseDirectives = directives(headers.getCacheControl());
+        if (responseDirectives.containsKey("no-store") || headers.getVary().contains("*")) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        Map<String, String> vary = new LinkedHashMap<>();
+        for (String name : headers.getVary()) {
+            vary.put(name.toLowerCase(), header(request.headers(), name));
+        }
+        put(request, new Entry(statusCode, headers, body, vary, now, now + freshnessMillis(headers, responseDirectives)));
+        stored.increment();
+    }
+
+    /**
+     * Refresh a stored response with the headers of a 304 to its revalidation, returning the
+     * refreshed response.
+     */
+    public Entry refresh(ExecutionEngine.OutgoingRequest request, Entry entry, HttpHeaders notModified) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.addAll(entry.headers());
+        // Content-Length of a 304 describes no body, so the stored one is kept.
+        notModified.forEach((name, values) -> {
+            if (!name.equalsIgnoreCase(HttpHeaders.CONTENT_LENGTH)) {
+                headers.put(name, values);
+            }
+        });
+        long now = System.currentTimeMillis();
+        Entry refreshed = new Entry(entry.statusCode(), headers, entry.body(), entry.vary(), now,
+                now + freshnessMillis(headers, directives(headers.getCacheControl())));
+        put(request, refreshed);
+        return refreshed;
+    }
+
+    // The request with the validators of a stored response, asking the server whether it changed.
+    public static ExecutionEngine.OutgoingRequest conditional(ExecutionEngine.OutgoingRequest request, Entry entry) {
+        Map<String, String> headers = new LinkedHashMap<>(request.headers());
+        if (entry.headers().getETag() != null) {
+            headers.put(HttpHeaders.IF_NONE_MATCH, entry.headers().getETag());
+        }
+        if (entry.headers().getFirst(HttpHeaders.LAST_MODIFIED) != null) {
+            headers.put(HttpHeaders.IF_MODIFIED_SINCE, entry.headers().getFirst(HttpHeaders.LAST_MODIFIED));
+        }
+        return new ExecutionEngine.OutgoingRequest(request.method(), request.url(), headers, request.body(),
+                request.bodyFile(), request.parts(), request.settings(), request.skipSSL());
+    }
+
+    // Count how a request was answered: one of HIT, MISS, REVALIDATED or REPLAYED, or null for a replay miss.
+    public void record(String outcome) {
+        if (outcome == null) {
+            replayMisses.increment();
+            return;
+        }
+        switch (outcome) {
+            case HIT -> hits.increment();
+            case MISS -> misses.increment();
+            case REVALIDATED -> revalidated.increment();
+            case REPLAYED -> replayed.increment();
+            default -> throw new IllegalArgumentException("Unknown cache outcome: " + outcome);
+        }
+    }
+
+    public synchronized Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("entries", entries.values().stream().mapToInt(List::size).sum());
+        stats.put("bytes", bytes);
+        stats.put("maxBytes", settings.getMaxBytes());
+        stats.put("hits", hits.sum());
+        stats.put("misses", misses.sum());
+        stats.put("revalidated", revalidated.sum());
+        stats.put("replayed", replayed.sum());
+        stats.put("replayMisses", replayMisses.sum());
+        long lookups = hits.sum() + misses.sum() + revalidated.sum();
+        stats.put("hitRatio", lookups > 0 ? (double) (hits.sum() + revalidated.sum()) / lookups : 0.0);
+        stats.put("stored", stored.sum());
+        stats.put("evicted", evicted.sum());
+        return stats;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        bytes = 0;
+    }
+
+    private synchronized void put(ExecutionEngine.OutgoingRequest request, Entry entry) {
+        List<Entry> variants = entries.computeIfAbsent(key(request), key -> new ArrayList<>(1));
+        for (Iterator<Entry> it = variants.iterator(); it.hasNext(); ) {
+            Entry existing = it.next();
+            if (existing.vary().keySet().equals(entry.vary().keySet()) && matches(existing, request)) {
+                it.remove();
+                bytes -= existing.bytes();
+            }
+        }
+        variants.add(entry);
+        bytes += entry.bytes();
+        evict();
+    }
+
+    private void evict() {
+        Iterator<List<Entry>> lru = entries.values().iterator();
+        while (bytes > settings.getMaxBytes() && lru.hasNext()) {
+            for (Entry entry : lru.next()) {
+                bytes -= entry.bytes();
+                evicted.increment();
+            }
+            lru.remove();
+        }
+    }
+
+    private long freshnessMillis(HttpHeaders headers, Map<String, String> directives) {
+        if (directives.containsKey("no-cache")) {
+            return 0;
+        }
+        long age = parseSeconds(headers.getFirst(HttpHeaders.AGE));
+        long maxAge = parseSeconds(directives.get("max-age"));
+        if (maxAge >= 0) {
+            return TimeUnit.SECONDS.toMillis(Math.max(0, maxAge - Math.max(0, age)));
+        }
+        if (headers.getFirst(HttpHeaders.EXPIRES) != null) {
+            long date = headers.getDate();
+            long expires = headers.getExpires();
+            // An invalid Expires means already expired.
+            return expires < 0 ? 0 : Math.max(0, expires - (date >= 0 ? date : System.currentTimeMillis()));
+        }
+        return TimeUnit.SECONDS.toMillis(settings.getDefaultFreshSeconds());
+    }
+
+    private static boolean matches(Entry entry, ExecutionEngine.OutgoingRequest request) {
+        for (Map.Entry<String, String> vary : entry.vary().entrySet()) {
+            if (!Objects.equals(vary.getValue(), header(request.headers(), vary.getKey()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String key(ExecutionEngine.OutgoingRequest request) {
+        return request.method() + " " + request.url();
+    }
+
+    // Suite headers are case-sensitive map keys; HTTP header names are not.
+    private static String header(Map<String, String> headers, String name) {
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            if (header.getKey().equalsIgnoreCase(name)) {
+                return header.getValue();
+            }
+        }
+        return null;
+    }
+
+    // Cache-Control directives by lower-case name; valueless directives map to "".
+    private static Map<String, String> directives(String cacheControl) {
+        Map<String, String> directives = new LinkedHashMap<>();
+        if (cacheControl == null) {
+            return directives;
+        }
+        for (String directive : cacheControl.split(",")) {
+            String trimmed = directive.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            int equals = trimmed.indexOf('=');
+            String name = (equals == -1 ? trimmed : trimmed.substring(0, equals)).trim().toLowerCase();
+            String value = equals == -1 ? "" : trimmed.substring(equals + 1).trim().replace("\"", "");
+            directives.put(name, value);
+        }
+        return directives;
+    }
+
+    private static long parseSeconds(String value) {
+        if (value == null) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException ex) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.apitester.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteBufferFeeder;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Pulls only the wanted values out of a JSON response while its bytes arrive, using Jackson's
+ * non-blocking parser. Nothing but the matched values is materialized: a wanted object or array
+ * is copied into a small tree, everything else is skipped token by token, and parsing stops as
+ * soon as every wanted value has been seen. Not thread-safe; feed chunks in order.
+ */
+public class ResponseExtractor {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    // A value being copied because its pointer is wanted.
+    private static final class Capture {
+        final JsonPointer pointer;
+        final TokenBuffer buffer;
+        final long startOffset;
+        int depth;
+
+        Capture(JsonPointer pointer, TokenBuffer buffer, long startOffset) {
+            this.pointer = pointer;
+            this.buffer = buffer;
+            this.startOffset = startOffset;
+        }
+    }
+
+    private final ObjectMapper objectMapper;
+    private final Set<JsonPointer> wanted;
+    private final int maxDepth;
+    private final Map<JsonPointer, JsonNode> values = new HashMap<>();
+    private final List<Capture> captures = new ArrayList<>();
+    private JsonParser parser;
+    private long capturedBytes;
+    private boolean finished;
+    private String failure;
+
+    public ResponseExtractor(Set<JsonPointer> wanted, ObjectMapper objectMapper) {
+        this.wanted = wanted;
+        this.objectMapper = objectMapper;
+        this.maxDepth = wanted.stream().mapToInt(ResponseExtractor::depthOf).max().orElse(0);
+        this.finished = wanted.isEmpty();
+    }
+
+    // True while more input could still yield a wanted value.
+    public boolean needsInput() {
+        return !finished;
+    }
+
+    public void feed(ByteBuffer chunk) {
+        if (finished || !chunk.hasRemaining()) {
+            return;
+        }
+        try {
+            if (parser == null) {
+                parser = JSON_FACTORY.createNonBlockingByteBufferParser();
+            }
+            ((ByteBufferFeeder) parser.getNonBlockingInputFeeder()).feedInput(chunk);
+            drain();
+        } catch (IOException ex) {
+            fail(ex);
+        }
+    }
+
+    /**
+     * Signal the end of the body and return the extracted values by pointer.
+     * Wanted pointers that are absent from the response are simply missing from the map.
+     */
+    public Map<JsonPointer, JsonNode> finish() {
+        if (parser != null && !finished) {
+            try {
+                ((ByteBufferFeeder) parser.getNonBlockingInputFeeder()).endOfInput();
+                drain();
+            } catch (IOException ex) {
+                fail(ex);
+            }
+        }
+        finished = true;
+        return values;
+    }
+
+    // Non-null when the body was not valid JSON.
+    public String getFailure() { return failure; }
+
+    // Approximate size of the extracted values in the body, in bytes.
+    public long getCapturedBytes() { return capturedBytes; }
+
+    private void drain() throws IOException {
+        JsonToken token;
+        while (!finished && (token = parser.nextToken()) != JsonToken.NOT_AVAILABLE) {
+            if (token == null) {
+                finished = true;
+                break;
+            }
+            if (token != JsonToken.FIELD_NAME) {
+                match(token);
+            }
+            copyToCaptures(token);
+            if (captures.isEmpty() && values.size() == wanted.size()) {
+                finished = true;
+            }
+        }
+    }
+
+    // Start a capture when the current value's location is wanted.
+    private void match(JsonToken token) {
+        JsonStreamContext context = parser.getParsingContext();
+        if (token.isStructEnd() || depthOf(context) > maxDepth + 1) {
+            return;
+        }
+        JsonPointer pointer = context.pathAsPointer();
+        if (wanted.contains(pointer) && !values.containsKey(pointer)) {
+            captures.add(new Capture(pointer, new TokenBuffer(parser), parser.currentTokenLocation().getByteOffset()));
+        }
+    }
+
+    private void copyToCaptures(JsonToken token) throws IOException {
+        for (Iterator<Capture> it = captures.iterator(); it.hasNext(); ) {
+            Capture capture = it.next();
+            capture.buffer.copyCurrentEvent(parser);
+            if (token.isStructStart()) {
+                capture.depth++;
+            } else if (token.isStructEnd()) {
+                capture.depth--;
+            }
+            if (capture.depth == 0) {
+                try (JsonParser captured = capture.buffer.asParser()) {
+                    values.put(capture.pointer, objectMapper.readTree(captured));
+                }
+                capturedBytes += Math.max(1, parser.currentLocation().getByteOffset() - capture.startOffset);
+                it.remove();
+            }
+        }
+    }
+
+    private void fail(IOException ex) {
+        failure = ex.getMessage();
+        finished = true;
+        captures.clear();
+    }
+
+    private static int depthOf(JsonPointer pointer) {
+        int depth = 0;
+        for (JsonPointer p = pointer; p != null && !p.matches(); p = p.tail()) {
+            depth++;
+        }
+        return depth;
+    }
+
+    private static int depthOf(JsonStreamContext context) {
+        int depth = 0;
+        for (JsonStreamContext c = context; c != null && !c.inRoot(); c = c.getParent()) {
+            depth++;
+        }
+        return depth;
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.apitester.service;
+
+import com.example.apitester.model.ExecutionResult;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.function.BiFunction;
+
+/**
+ * Takes one response body from an {@link ExecutionEngine}: every chunk goes through the preview
+ * collector and, when the body is being kept, to the spill file. Reactive engines hand over
+ * DataBuffers, blocking engines byte arrays; either way the engine ends with finish() or abort().
+ * The completion gets the whole body as well when it fits in the preview and the capture limit.
+ */
+public final class ResponseSink {
+
+    // Upper bound on one blocking write to the spill file.
+    private static final Duration WRITE_TIMEOUT = Duration.ofSeconds(30);
+
+    private final ResponseBodyCollector collector;
+    // Null when the body is not spilled.
+    private final SpillStore.Spiller spiller;
+    // Longest body handed to the completion; -1 to never hand it over.
+    private final int captureLimit;
+    private final BiFunction<ResponseBodyCollector.CollectedBody, byte[], ExecutionResult> complete;
+
+    ResponseSink(ResponseBodyCollector collector, SpillStore.Spiller spiller, int captureLimit,
+                 BiFunction<ResponseBodyCollector.CollectedBody, byte[], ExecutionResult> complete) {
+        this.collector = collector;
+        this.spiller = spiller;
+        this.captureLimit = captureLimit;
+        this.complete = complete;
+    }
+
+    // Consume a chunk; the buffer is released once it has been spilled, or right away.
+    public Mono<Void> accept(DataBuffer buffer) {
+        long position = collector.getTotalBytes();
+        try (DataBuffer.ByteBufferIterator chunks = buffer.readableByteBuffers()) {
+            chunks.forEachRemaining(collector::accept);
+        } catch (RuntimeException ex) {
+            DataBufferUtils.release(buffer);
+            throw ex;
+        }
+        if (spiller == null) {
+            DataBufferUtils.release(buffer);
+            return Mono.empty();
+        }
+        return spiller.accept(buffer, position, collector);
+    }
+
+    // Consume the first 'length' bytes of 'bytes', blocking until they are spilled; the array may be reused after.
+    public void write(byte[] bytes, int length) {
+        long position = collector.getTotalBytes();
+        collector.accept(ByteBuffer.wrap(bytes, 0, length));
+        if (spiller != null) {
+            DataBuffer copy = DefaultDataBufferFactory.sharedInstance.wrap(Arrays.copyOf(bytes, length));
+            spiller.accept(copy, position, collector).block(WRITE_TIMEOUT);
+        }
+    }
+
+    // The result for the complete body.
+    public ExecutionResult finish() {
+        ResponseBodyCollector.CollectedBody collected = collector.finish();
+        String spillId = spiller != null ? spiller.finish() : null;
+        byte[] body = !collected.truncated() && collected.totalBytes() <= captureLimit
+                ? collector.head((int) collected.totalBytes()) : null;
+        ExecutionResult result = complete.apply(collected, body);
+        return spillId != null ? result.withFullBodyUrl("/responses/" + spillId) : result;
+    }
+
+    // Discard what was spilled of a body that did not arrive in full.
+    public void abort() {
+        if (spiller != null) {
+            spiller.abort();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.apitester.service;
+
+import com.example.apitester.config.ApiTesterProperties;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Live {@link ExecutionRun}s by run id. Runs idle for longer than the TTL are evicted, and when
+ * the stored responses of all runs exceed the memory bound the least recently used runs go first.
+ */
+@Service
+public class RunRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(RunRegistry.class);
+
+    private final ApiTesterProperties.Runs settings;
+    private final Map<String, ExecutionRun> runs = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService evictor;
+
+    public RunRegistry(ApiTesterProperties properties) {
+        this.settings = properties.getRuns();
+        this.evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "run-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1, settings.getEvictionIntervalSeconds());
+        evictor.scheduleWithFixedDelay(this::evict, period, period, TimeUnit.SECONDS);
+    }
+
+    public ExecutionRun create() {
+        return getOrCreate(null);
+    }
+
+    // The run with this id, or a new one (with a fresh id when 'runId' is blank).
+    public ExecutionRun getOrCreate(String runId) {
+        String id = runId == null || runId.isBlank() ? UUID.randomUUID().toString() : runId;
+        ExecutionRun run = runs.computeIfAbsent(id, ExecutionRun::new);
+        run.touch();
+        return run;
+    }
+
+    public boolean remove(String runId) {
+        return runs.remove(runId) != null;
+    }
+
+    public void clear() {
+        runs.clear();
+    }
+
+    public List<Map<String, Object>> stats() {
+        List<Map<String, Object>> stats = new ArrayList<>();
+        for (ExecutionRun run : runs.values()) {
+            Map<String, Object> runStats = new LinkedHashMap<>();
+            runStats.put("runId", run.getId());
+            runStats.put("createdAt", run.getCreatedAt().toString());
+            runStats.put("idleMs", System.currentTimeMillis() - run.getLastAccessMillis());
+            runStats.put("responses", run.getResponseCount());
+            runStats.put("bytes", run.getBytes());
+            stats.add(runStats);
+        }
+        return stats;
+    }
+
+    void evict() {
+        long cutoff = System.currentTimeMillis() - TimeUnit.SECONDS.toMillis(settings.getTtlSeconds());
+        runs.values().removeIf(run -> {
+            boolean expired = run.getLastAccessMillis() < cutoff;
+            if (expired) {
+                logger.debug("Evicting idle run {}", run.getId());
+            }
+            return expired;
+        });
+        long total = runs.values().stream().mapToLong(ExecutionRun::getBytes).sum();
+        if (total <= settings.getMaxBytes()) {
+            return;
+        }
+        List<ExecutionRun> byAge = new ArrayList<>(runs.values());
+        byAge.sort(Comparator.comparingLong(ExecutionRun::getLastAccessMillis));
+        for (ExecutionRun run : byAge) {
+            if (total <= settings.getMaxBytes()) {
+                break;
+            }
+            if (runs.remove(run.getId(), run)) {
+                total -= run.getBytes();
+                logger.info("Evicted run {} ({} bytes) to stay within the run memory bound", run.getId(), run.getBytes());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        evictor.shutdownNow();
+    }
+}
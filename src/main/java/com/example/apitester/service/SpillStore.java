@@ -0,0 +1,202 @@
+package com.example.apitester.service;
+
+import com.example.apitester.config.ApiTesterProperties;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Response bodies too large for the preview, written to disk chunk by chunk as they arrive so they
+ * can be downloaded in full from /responses/{id} without ever being held in memory. Bodies older than
+ * the TTL are deleted, and the oldest go first when the total exceeds the size bound. Spilled bodies
+ * do not survive a restart.
+ */
+@Service
+public class SpillStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(SpillStore.class);
+
+    /**
+     * A complete spilled body.
+     */
+    public record SpilledBody(String id, Path path, String contentType, long bytes, long createdMillis) {}
+
+    private final ApiTesterProperties.Response settings;
+    // Null when spilling is disabled.
+    private final Path dir;
+    private final Map<String, SpilledBody> bodies = new ConcurrentHashMap<>();
+    // Every file this store created and has not deleted yet, finished or not; the directory may be shared.
+    private final Set<Path> files = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService evictor;
+
+    public SpillStore(ApiTesterProperties properties) {
+        this.settings = properties.getResponse();
+        if (!settings.isSpill()) {
+            this.dir = null;
+            this.evictor = null;
+            return;
+        }
+        this.dir = settings.getSpillDir() != null && !settings.getSpillDir().isBlank()
+                ? Paths.get(settings.getSpillDir()) : Paths.get(System.getProperty("java.io.tmpdir"), "apitester-spill");
+        this.evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "spill-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        evictor.scheduleWithFixedDelay(this::evict, 30, 30, TimeUnit.SECONDS);
+    }
+
+    public boolean isEnabled() { return dir != null; }
+
+    // A spiller for one response body, or null when spilling is disabled.
+    public Spiller spiller(String contentType) {
+        return dir != null ? new Spiller(contentType) : null;
+    }
+
+    // A complete spilled body, or null if it is unknown or was evicted.
+    public SpilledBody get(String id) {
+        return bodies.get(id);
+    }
+
+    /**
+     * Follows one response body. Nothing is written while the body fits in the collector's preview;
+     * once it outgrows the preview, the bytes seen so far and every later chunk go to a new file.
+     */
+    public final class Spiller {
+
+        private final String contentType;
+        private AsynchronousFileChannel channel;
+        private String id;
+        private Path path;
+
+        private Spiller(String contentType) {
+            this.contentType = contentType;
+        }
+
+        /**
+         * Take a chunk the collector has already consumed; 'position' is its offset in the body.
+         * The buffer is released once written, or right away when it does not need to be.
+         */
+        public Mono<Void> accept(DataBuffer buffer, long position, ResponseBodyCollector collector) {
+            if (channel == null) {
+                if (!collector.isTruncated()) {
+                    DataBufferUtils.release(buffer);
+                    return Mono.empty();
+                }
+                try {
+                    open();
+                } catch (IOException ex) {
+                    DataBufferUtils.release(buffer);
+                    return Mono.error(ex);
+                }
+                // The earlier chunks are gone, but all of them are in the preview.
+                DataBuffer head = DefaultDataBufferFactory.sharedInstance.wrap(collector.head((int) position));
+                return write(List.of(head, buffer), 0);
+            }
+            return write(List.of(buffer), position);
+        }
+
+        // Close the file and make it downloadable; returns its id, or null when nothing was spilled.
+        public String finish() {
+            if (channel == null) {
+                return null;
+            }
+            try {
+                channel.close();
+                bodies.put(id, new SpilledBody(id, path, contentType, Files.size(path), System.currentTimeMillis()));
+                evict();
+                return id;
+            } catch (IOException ex) {
+                logger.warn("Failed to finish spilled body {}", path, ex);
+                abort();
+                return null;
+            }
+        }
+
+        // Discard a partly written body.
+        public void abort() {
+            if (channel == null) {
+                return;
+            }
+            try {
+                channel.close();
+                delete(path);
+            } catch (IOException ex) {
+                logger.debug("Failed to close spilled body {}", path, ex);
+            }
+        }
+
+        private void open() throws IOException {
+            Files.createDirectories(dir);
+            id = UUID.randomUUID().toString();
+            path = dir.resolve(id + ".body");
+            channel = AsynchronousFileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+            files.add(path);
+        }
+
+        // Write contiguous buffers starting at 'position', releasing them however the write ends.
+        private Mono<Void> write(List<DataBuffer> buffers, long position) {
+            return DataBufferUtils.write(Flux.fromIterable(buffers), channel, position)
+                    .then()
+                    .doFinally(signal -> buffers.forEach(DataBufferUtils::release));
+        }
+    }
+
+    synchronized void evict() {
+        long cutoff = System.currentTimeMillis() - TimeUnit.SECONDS.toMillis(settings.getSpillTtlSeconds());
+        List<SpilledBody> byAge = new ArrayList<>(bodies.values());
+        byAge.sort(Comparator.comparingLong(SpilledBody::createdMillis));
+        long total = byAge.stream().mapToLong(SpilledBody::bytes).sum();
+        for (SpilledBody body : byAge) {
+            if (body.createdMillis() >= cutoff && total <= settings.getSpillMaxBytes()) {
+                break;
+            }
+            bodies.remove(body.id());
+            total -= body.bytes();
+            delete(body.path());
+        }
+    }
+
+    private void delete(Path path) {
+        try {
+            Files.deleteIfExists(path);
+            files.remove(path);
+        } catch (IOException ex) {
+            logger.debug("Failed to delete spilled body {}", path, ex);
+        }
+    }
+
+    // Deletes only this store's files: other instances on the host may spill to the same directory.
+    @PreDestroy
+    public void shutdown() {
+        if (evictor == null) {
+            return;
+        }
+        evictor.shutdownNow();
+        bodies.clear();
+        List.copyOf(files).forEach(this::delete);
+    }
+}
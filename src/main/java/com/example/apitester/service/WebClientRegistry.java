@@ -0,0 +1,211 @@
+package com.example.apitester.service;
+
+import com.example.apitester.config.ApiTesterProperties;
+import com.example.apitester.model.HttpSettings;
+import io.netty.channel.ChannelOption;
+import io.netty.handler.ssl.SslContext;
+import io.netty.handler.ssl.util.InsecureTrustManagerFactory;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.netty.http.Http11SslContextSpec;
+import reactor.netty.http.Http2SslContextSpec;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.Http2AllocationStrategy;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionPoolMetrics;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.tcp.SslProvider;
+
+import java.net.SocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hands out cached WebClients keyed by (skipSSL, host, effective HTTP settings).
+ * Clients with the same settings share one ConnectionProvider, so connections are reused
+ * across requests and runs instead of a new pool (and TLS context) being built per call.
+ */
+@Service
+public class WebClientRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(WebClientRegistry.class);
+
+    private record ClientKey(boolean skipSSL, String host, HttpSettings settings) {}
+
+    private final HttpSettings defaults;
+    private final Map<ClientKey, WebClient> clients = new ConcurrentHashMap<>();
+    private final Map<HttpSettings, Pool> pools = new ConcurrentHashMap<>();
+    private final AtomicInteger poolCounter = new AtomicInteger();
+    private final PhaseMetricsRecorder phaseRecorder;
+    private final Map<Boolean, SslContext> insecureSslContexts = new ConcurrentHashMap<>();
+
+    public WebClientRegistry(ApiTesterProperties properties, RequestMetrics metrics) {
+        this.defaults = properties.getHttp();
+        this.phaseRecorder = new PhaseMetricsRecorder(metrics);
+    }
+
+    // Connection pool plus the counters that show whether its connections are being reused.
+    private static class Pool {
+        final String name;
+        final ConnectionProvider provider;
+        final Map<SocketAddress, ConnectionPoolMetrics> metrics = new ConcurrentHashMap<>();
+        final LongAdder connectionsOpened = new LongAdder();
+        final LongAdder requestsSent = new LongAdder();
+
+        Pool(String name, HttpSettings settings) {
+            this.name = name;
+            ConnectionProvider.Builder builder = ConnectionProvider.builder(name)
+                    .maxConnections(settings.getMaxConnections())
+                    .pendingAcquireMaxCount(settings.getPendingAcquireMaxCount())
+                    .pendingAcquireTimeout(Duration.ofMillis(settings.getPendingAcquireTimeoutMs()))
+                    .maxIdleTime(Duration.ofMillis(settings.getMaxIdleTimeMs()))
+                    .maxLifeTime(Duration.ofMillis(settings.getMaxLifeTimeMs()))
+                    .evictInBackground(Duration.ofMillis(settings.getEvictInBackgroundMs()))
+                    .metrics(true, () -> new ConnectionProvider.MeterRegistrar() {
+                        @Override
+                        public void registerMetrics(String poolName, String id, SocketAddress remoteAddress, ConnectionPoolMetrics poolMetrics) {
+                            metrics.put(remoteAddress, poolMetrics);
+                        }
+
+                        @Override
+                        public void deRegisterMetrics(String poolName, String id, SocketAddress remoteAddress) {
+                            metrics.remove(remoteAddress);
+                        }
+                    });
+            if (settings.isHttp2()) {
+                // Streams are multiplexed, so maxConnections bounds connections rather than requests in flight.
+                builder.allocationStrategy(Http2AllocationStrategy.builder()
+                        .maxConnections(settings.getMaxConnections())
+                        .minConnections(1)
+                        .maxConcurrentStreams(settings.getMaxConcurrentStreams())
+                        .build());
+            }
+            this.provider = builder.build();
+        }
+    }
+
+    /**
+     * The WebClient to use for a request to 'url' with the given suite overrides (may be null).
+     */
+    public WebClient clientFor(boolean skipSSL, String url, HttpSettings suiteSettings) {
+        HttpSettings settings = suiteSettings != null ? suiteSettings.withDefaults(defaults) : defaults;
+        return clients.computeIfAbsent(new ClientKey(skipSSL, hostOf(url), settings), this::createWebClient);
+    }
+
+    private WebClient createWebClient(ClientKey key) {
+        Pool pool = pools.computeIfAbsent(key.settings(),
+                settings -> new Pool("apitester-" + poolCounter.incrementAndGet(), settings));
+        HttpSettings settings = key.settings();
+        HttpClient httpClient = HttpClient.create(pool.provider)
+                .protocol(protocols(settings.getProtocol()))
+                .keepAlive(settings.getKeepAlive())
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) Math.min(Integer.MAX_VALUE, settings.getConnectTimeoutMs()))
+                .responseTimeout(Duration.ofMillis(settings.getResponseTimeoutMs()))
+                .doOnChannelInit((observer, channel, remoteAddress) -> pool.connectionsOpened.increment())
+                .metrics(true, () -> phaseRecorder)
+                .doOnRequest((request, connection) -> {
+                    pool.requestsSent.increment();
+                    RequestTimer timer = RequestTimer.from(request.currentContextView());
+                    if (timer != null) {
+                        timer.requestStarted();
+                    }
+                })
+                .doOnResponse((response, connection) -> {
+                    RequestTimer timer = RequestTimer.from(response.currentContextView());
+                    if (timer != null) {
+                        timer.responseReceived(response.version().text());
+                    }
+                });
+        if (key.skipSSL()) {
+            SslContext sslContext = insecureSslContext(settings.isHttp2());
+            httpClient = httpClient.secure(spec -> spec.sslContext(sslContext));
+        }
+        logger.info("Created WebClient for {} (skipSSL: {}, protocol: {}, pool: {})",
+                key.host(), key.skipSSL(), settings.getProtocol(), pool.name);
+        return WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
+
+    // h2 offers HTTP/1.1 as well, which is also what it uses for http:// URLs.
+    private static HttpProtocol[] protocols(String protocol) {
+        return switch (protocol) {
+            case "h2" -> new HttpProtocol[] {HttpProtocol.H2, HttpProtocol.HTTP11};
+            case "h2c" -> new HttpProtocol[] {HttpProtocol.H2C};
+            default -> new HttpProtocol[] {HttpProtocol.HTTP11};
+        };
+    }
+
+    // Built once per protocol and shared by every insecure client; the HTTP/2 one negotiates h2 with ALPN.
+    private SslContext insecureSslContext(boolean http2) {
+        return insecureSslContexts.computeIfAbsent(http2, h2 -> {
+            try {
+                SslProvider.ProtocolSslContextSpec spec = h2
+                        ? Http2SslContextSpec.forClient().configure(builder -> builder.trustManager(InsecureTrustManagerFactory.INSTANCE))
+                        : Http11SslContextSpec.forClient().configure(builder -> builder.trustManager(InsecureTrustManagerFactory.INSTANCE));
+                return spec.sslContext();
+            } catch (Exception ex) {
+                logger.error("Failed to create insecure WebClient", ex);
+                throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to create insecure WebClient", ex);
+            }
+        });
+    }
+
+    // scheme://authority of a URL, used to key clients per host.
+    static String hostOf(String url) {
+        if (url == null) return "";
+        int schemeEnd = url.indexOf("://");
+        if (schemeEnd == -1) return "";
+        int pathStart = url.indexOf('/', schemeEnd + 3);
+        return pathStart == -1 ? url : url.substring(0, pathStart);
+    }
+
+    /**
+     * Per-pool statistics: connections opened vs. requests sent (reuse), and live pool gauges per remote address.
+     */
+    public List<Map<String, Object>> poolStats() {
+        List<Map<String, Object>> stats = new ArrayList<>();
+        pools.forEach((settings, pool) -> {
+            Map<String, Object> poolStats = new LinkedHashMap<>();
+            poolStats.put("pool", pool.name);
+            poolStats.put("settings", settings);
+            long opened = pool.connectionsOpened.sum();
+            long sent = pool.requestsSent.sum();
+            poolStats.put("connectionsOpened", opened);
+            poolStats.put("requestsSent", sent);
+            poolStats.put("reusedRequests", Math.max(0, sent - opened));
+            List<Map<String, Object>> remotes = new ArrayList<>();
+            pool.metrics.forEach((address, metrics) -> {
+                Map<String, Object> remote = new LinkedHashMap<>();
+                remote.put("remoteAddress", String.valueOf(address));
+                remote.put("active", metrics.acquiredSize());
+                remote.put("idle", metrics.idleSize());
+                remote.put("total", metrics.allocatedSize());
+                remote.put("pendingAcquire", metrics.pendingAcquireSize());
+                remote.put("maxConnections", metrics.maxAllocatedSize());
+                remote.put("maxPendingAcquire", metrics.maxPendingAcquireSize());
+                remotes.add(remote);
+            });
+            poolStats.put("remotes", remotes);
+            stats.add(poolStats);
+        });
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pools.values().forEach(pool -> pool.provider.disposeLater().block(Duration.ofSeconds(5)));
+    }
+}
@@ -0,0 +1,180 @@
+package com.example.apitester.service;
+
+import com.example.apitester.assertion.ResponseAssertions;
+import com.example.apitester.model.HttpSettings;
+import com.example.apitester.model.MultipartPart;
+import com.example.apitester.model.RequestDefinition;
+import com.example.apitester.model.YamlFileData;
+import com.example.apitester.template.CompiledRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.constructor.SafeConstructor;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Parses a single YAML suite into a {@link YamlFileData}.
+ * Not thread-safe (SnakeYAML's Yaml is not), so use one instance per load pass.
+ * Each request's url, headers and body are compiled into templates here, so malformed suites,
+ * including malformed {{...}} references, are rejected with an IllegalArgumentException describing the problem.
+ */
+public class YamlSuiteParser {
+
+    private final Yaml yaml = new Yaml(new SafeConstructor(new LoaderOptions()));
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public YamlFileData parse(String fileName, InputStream inputStream) {
+        YamlFileData fileData = new YamlFileData();
+        fileData.setFileName(fileName);
+        Object data = yaml.load(inputStream);
+        List<?> reqs;
+        if (data instanceof Map) {
+            Map<?, ?> map = (Map<?, ?>) data;
+            if (!map.containsKey("baseUrl") || !map.containsKey("requests")) {
+                throw new IllegalArgumentException("Expected 'baseUrl' and 'requests' at the top level");
+            }
+            fileData.setBaseUrl(String.valueOf(map.get("baseUrl")));
+            if (map.containsKey("http")) {
+                fileData.setHttpSettings(parseHttpSettings(map.get("http")));
+            }
+            // 'protocol: h2' and 'engine: jdk' are short for the same keys in the 'http' section.
+            if (map.containsKey("protocol") || map.containsKey("engine")) {
+                HttpSettings settings = fileData.getHttpSettings() != null ? fileData.getHttpSettings() : new HttpSettings();
+                if (map.containsKey("protocol")) {
+                    settings.setProtocol(String.valueOf(map.get("protocol")));
+                }
+                if (map.containsKey("engine")) {
+                    settings.setEngine(String.valueOf(map.get("engine")));
+                }
+                fileData.setHttpSettings(settings);
+            }
+            if (map.containsKey("cache")) {
+                fileData.setCache(String.valueOf(map.get("cache")));
+            }
+            reqs = asList(map.get("requests"), "requests");
+        } else if (data instanceof List) {
+            reqs = (List<?>) data;
+            fileData.setBaseUrl("");
+        } else {
+            throw new IllegalArgumentException("Expected a mapping or a list of requests");
+        }
+        List<RequestDefinition> requests = new ArrayList<>();
+        Set<String> ids = new HashSet<>();
+        for (int i = 0; i < reqs.size(); i++) {
+            if (!(reqs.get(i) instanceof Map)) {
+                throw new IllegalArgumentException("Request #" + (i + 1) + " is not a mapping");
+            }
+            RequestDefinition rd = parseRequestDefinition((Map<?, ?>) reqs.get(i), i + 1);
+            if (!ids.add(rd.getId())) {
+                throw new IllegalArgumentException("Duplicate request id '" + rd.getId() + "'");
+            }
+            requests.add(rd);
+        }
+        fileData.setRequests(List.copyOf(requests));
+        return fileData;
+    }
+
+    private RequestDefinition parseRequestDefinition(Map<?, ?> reqMap, int position) {
+        RequestDefinition rd = new RequestDefinition();
+        rd.setId(required(reqMap, "id", position));
+        rd.setMethod(required(reqMap, "method", position));
+        rd.setUrl(required(reqMap, "url", position));
+        if (reqMap.containsKey("headers")) {
+            Object headers = reqMap.get("headers");
+            if (!(headers instanceof Map)) {
+                throw new IllegalArgumentException("'headers' of request '" + rd.getId() + "' must be a mapping");
+            }
+            Map<String, String> headerMap = new LinkedHashMap<>();
+            ((Map<?, ?>) headers).forEach((k, v) -> headerMap.put(String.valueOf(k), String.valueOf(v)));
+            rd.setHeaders(headerMap);
+        }
+        if (reqMap.containsKey("requestBody")) {
+            rd.setRequestBody(String.valueOf(reqMap.get("requestBody")));
+        }
+        if (reqMap.containsKey("requestBodyFile")) {
+            rd.setRequestBodyFile(String.valueOf(reqMap.get("requestBodyFile")));
+        }
+        if (reqMap.containsKey("multipart")) {
+            rd.setMultipart(parseMultipart(reqMap.get("multipart"), rd.getId()));
+        }
+        int bodies = (rd.getRequestBody() != null ? 1 : 0) + (rd.getRequestBodyFile() != null ? 1 : 0)
+                + (rd.getMultipart() != null ? 1 : 0);
+        if (bodies > 1) {
+            throw new IllegalArgumentException("Request '" + rd.getId()
+                    + "' may have only one of 'requestBody', 'requestBodyFile' and 'multipart'");
+        }
+        rd.setCompiled(CompiledRequest.compile(rd));
+        if (reqMap.containsKey("assert")) {
+            try {
+                rd.setAssertions(ResponseAssertions.compile(reqMap.get("assert")));
+            } catch (IllegalArgumentException ex) {
+                throw new IllegalArgumentException("Request '" + rd.getId() + "' assert: " + ex.getMessage(), ex);
+            }
+        }
+        return rd;
+    }
+
+    // A list of parts, each with a 'name' and either a 'value' or a 'file', and optionally a 'contentType'.
+    private static List<MultipartPart> parseMultipart(Object value, String requestId) {
+        List<MultipartPart> parts = new ArrayList<>();
+        for (Object item : asList(value, "multipart")) {
+            if (!(item instanceof Map<?, ?> part) || part.get("name") == null) {
+                throw new IllegalArgumentException("Every multipart part of request '" + requestId + "' needs a 'name'");
+            }
+            String name = String.valueOf(part.get("name"));
+            Object partValue = part.get("value");
+            Object file = part.get("file");
+            if ((partValue == null) == (file == null)) {
+                throw new IllegalArgumentException("Multipart part '" + name + "' of request '" + requestId
+                        + "' needs exactly one of 'value' and 'file'");
+            }
+            Object contentType = part.get("contentType");
+            if (contentType != null) {
+                try {
+                    MediaType.parseMediaType(String.valueOf(contentType));
+                } catch (InvalidMediaTypeException ex) {
+                    throw new IllegalArgumentException("Multipart part '" + name + "' of request '" + requestId
+                            + "' has an invalid contentType: " + contentType, ex);
+                }
+            }
+            parts.add(new MultipartPart(name, partValue != null ? String.valueOf(partValue) : null,
+                    file != null ? String.valueOf(file) : null, contentType != null ? String.valueOf(contentType) : null));
+        }
+        return List.copyOf(parts);
+    }
+
+    private HttpSettings parseHttpSettings(Object value) {
+        if (!(value instanceof Map)) {
+            throw new IllegalArgumentException("'http' must be a mapping");
+        }
+        try {
+            return objectMapper.convertValue(value, HttpSettings.class);
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Invalid 'http' settings: " + ex.getMessage(), ex);
+        }
+    }
+
+    private static String required(Map<?, ?> reqMap, String key, int position) {
+        Object value = reqMap.get(key);
+        if (value == null) {
+            throw new IllegalArgumentException("Request #" + position + " is missing '" + key + "'");
+        }
+        return value.toString();
+    }
+
+    private static List<?> asList(Object value, String key) {
+        if (!(value instanceof List)) {
+            throw new IllegalArgumentException("'" + key + "' must be a list");
+        }
+        return (List<?>) value;
+    }
+}
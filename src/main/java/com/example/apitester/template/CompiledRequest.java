@@ -0,0 +1,120 @@
+package com.example.apitester.template;
+
+import com.example.apitester.model.MultipartPart;
+import com.example.apitester.model.RequestDefinition;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The url, header values and body (inline, a file path or multipart parts) of a {@link RequestDefinition},
+ * compiled into templates when the suite is loaded so malformed references are rejected before anything runs.
+ */
+public final class CompiledRequest {
+
+    private final RequestTemplate url;
+    private final Map<String, RequestTemplate> headers;
+    private final RequestTemplate body;
+    private final RequestTemplate bodyFile;
+    // Per part: the template of its value, or of its file path.
+    private final List<RequestTemplate> parts;
+    private final List<MultipartPart> partDefinitions;
+    private final List<Reference> references;
+
+    private CompiledRequest(RequestTemplate url, Map<String, RequestTemplate> headers, RequestTemplate body,
+                            RequestTemplate bodyFile, List<RequestTemplate> parts, List<MultipartPart> partDefinitions) {
+        this.url = url;
+        this.headers = headers;
+        this.body = body;
+        this.bodyFile = bodyFile;
+        this.parts = parts;
+        this.partDefinitions = partDefinitions;
+        List<Reference> refs = new ArrayList<>(url.getReferences());
+        headers.values().forEach(header -> refs.addAll(header.getReferences()));
+        if (body != null) {
+            refs.addAll(body.getReferences());
+        }
+        if (bodyFile != null) {
+            refs.addAll(bodyFile.getReferences());
+        }
+        parts.forEach(part -> refs.addAll(part.getReferences()));
+        this.references = List.copyOf(refs);
+    }
+
+    /**
+     * Compile a request definition. Throws IllegalArgumentException naming the part with a bad reference.
+     */
+    public static CompiledRequest compile(RequestDefinition rd) {
+        RequestTemplate url = compilePart(rd.getUrl(), "url", rd);
+        Map<String, RequestTemplate> headers = new LinkedHashMap<>();
+        if (rd.getHeaders() != null) {
+            rd.getHeaders().forEach((name, value) -> headers.put(name, compilePart(value, "header '" + name + "'", rd)));
+        }
+        RequestTemplate body = rd.getRequestBody() != null ? compilePart(rd.getRequestBody(), "requestBody", rd) : null;
+        RequestTemplate bodyFile = rd.getRequestBodyFile() != null
+                ? compilePart(rd.getRequestBodyFile(), "requestBodyFile", rd) : null;
+        List<MultipartPart> definitions = rd.getMultipart() != null ? List.copyOf(rd.getMultipart()) : List.of();
+        List<RequestTemplate> parts = new ArrayList<>();
+        for (MultipartPart part : definitions) {
+            parts.add(compilePart(part.file() != null ? part.file() : part.value(), "multipart '" + part.name() + "'", rd));
+        }
+        return new CompiledRequest(url, Collections.unmodifiableMap(headers), body, bodyFile, List.copyOf(parts), definitions);
+    }
+
+    // The compiled form of 'rd', compiling it now if it was not built by the suite parser.
+    public static CompiledRequest of(RequestDefinition rd) {
+        CompiledRequest compiled = rd.getCompiled();
+        if (compiled == null) {
+            compiled = compile(rd);
+            rd.setCompiled(compiled);
+        }
+        return compiled;
+    }
+
+    private static RequestTemplate compilePart(String text, String part, RequestDefinition rd) {
+        try {
+            return RequestTemplate.compile(text);
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Request '" + rd.getId() + "' " + part + ": " + ex.getMessage(), ex);
+        }
+    }
+
+    // Every reference in the url, headers and body (or body file path, or parts), in that order.
+    public List<Reference> getReferences() { return references; }
+
+    public String renderUrl(ReferenceResolver resolver) {
+        return url.render(resolver);
+    }
+
+    public Map<String, String> renderHeaders(ReferenceResolver resolver) {
+        Map<String, String> rendered = new LinkedHashMap<>();
+        headers.forEach((name, template) -> rendered.put(name, template.render(resolver)));
+        return rendered;
+    }
+
+    // Null when the request has no body.
+    public String renderBody(ReferenceResolver resolver) {
+        return body != null ? body.render(resolver) : null;
+    }
+
+    // Null when the body is not read from a file.
+    public String renderBodyFile(ReferenceResolver resolver) {
+        return bodyFile != null ? bodyFile.render(resolver) : null;
+    }
+
+    // The multipart parts with their value or file path rendered; empty when the request is not multipart.
+    public List<MultipartPart> renderMultipart(ReferenceResolver resolver) {
+        List<MultipartPart> rendered = new ArrayList<>(parts.size());
+        for (int i = 0; i < parts.size(); i++) {
+            MultipartPart part = partDefinitions.get(i);
+            String text = parts.get(i).render(resolver);
+            rendered.add(part.file() != null
+                    ? new MultipartPart(part.name(), null, text, part.contentType())
+                    : new MultipartPart(part.name(), text, null, part.contentType()));
+        }
+        return rendered;
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.apitester.template;
+
+import com.fasterxml.jackson.core.JsonPointer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A parsed {{id.response.path}} reference: the id of the request whose response is referenced and
+ * the location of the value in that response as a JsonPointer. Array indexing is written as
+ * users[0] and may be chained (matrix[0][1]); response[0] addresses a top-level array.
+ * A {{data.column}} reference names a column of the current data row instead.
+ */
+public final class Reference {
+
+    private static final String DATA_PREFIX = "data";
+
+    private final String text;
+    private final String requestId;
+    private final JsonPointer pointer;
+    // The data column of a {{data.column}} reference, otherwise null.
+    private final String column;
+
+    private Reference(String text, String requestId, JsonPointer pointer, String column) {
+        this.text = text;
+        this.requestId = requestId;
+        this.pointer = pointer;
+        this.column = column;
+    }
+
+    /**
+     * Parse the inside of a {{...}} placeholder, e.g. "op3.response.parentProp.users[0].name".
+     * Throws IllegalArgumentException describing what is wrong with a malformed reference.
+     */
+    public static Reference parse(String ref) {
+        String text = ref.trim();
+        String[] parts = text.split("\\.", -1);
+        if (parts.length < 2 || parts[0].isEmpty()) {
+            throw new IllegalArgumentException("Invalid reference format: " + text);
+        }
+        int bracket = parts[1].indexOf('[');
+        String head = bracket == -1 ? parts[1] : parts[1].substring(0, bracket);
+        if (DATA_PREFIX.equals(parts[0]) && !"response".equalsIgnoreCase(head)) {
+            // Everything after "data." is the column name, so JSONL fields like "a.b" stay addressable.
+            String column = text.substring(DATA_PREFIX.length() + 1);
+            if (column.isBlank()) {
+                throw new IllegalArgumentException("Empty column name in reference: " + text);
+            }
+            return new Reference(text, null, null, column);
+        }
+        if (!"response".equalsIgnoreCase(head)) {
+            throw new IllegalArgumentException("Expected 'response' as second part in reference: " + text);
+        }
+        List<String> segments = new ArrayList<>(indices(parts[1], text));
+        for (int i = 2; i < parts.length; i++) {
+            String field = parseSegment(parts[i], segments, text);
+            if (field.isEmpty()) {
+                throw new IllegalArgumentException("Empty field name in reference: " + text);
+            }
+        }
+        if (segments.isEmpty()) {
+            throw new IllegalArgumentException("Invalid reference format: " + text);
+        }
+        return new Reference(text, parts[0], toPointer(segments), null);
+    }
+
+    /**
+     * Parse a path into a response written the same way as the part of a reference after
+     * "response", e.g. "data.users[0].name" or "[2].id". An empty path is the whole response.
+     */
+    public static JsonPointer pointerOf(String path) {
+        String text = path.trim();
+        if (text.isEmpty()) {
+            return JsonPointer.empty();
+        }
+        List<String> segments = new ArrayList<>();
+        String[] parts = text.split("\\.", -1);
+        for (int i = 0; i < parts.length; i++) {
+            String field = parseSegment(parts[i], segments, text);
+            if (field.isEmpty() && !(i == 0 && parts[i].startsWith("["))) {
+                throw new IllegalArgumentException("Empty field name in path: " + text);
+            }
+        }
+        return toPointer(segments);
+    }
+
+    private static JsonPointer toPointer(List<String> segments) {
+        StringBuilder pointer = new StringBuilder();
+        for (String segment : segments) {
+            pointer.append('/').append(segment.replace("~", "~0").replace("/", "~1"));
+        }
+        return JsonPointer.compile(pointer.toString());
+    }
+
+    // Appends the field name and any [n] indices of one dotted part to 'segments'; returns the field name.
+    private static String parseSegment(String part, List<String> segments, String ref) {
+        int bracket = part.indexOf('[');
+        String field = bracket == -1 ? part : part.substring(0, bracket);
+        if (!field.isEmpty()) {
+            segments.add(field);
+        }
+        segments.addAll(indices(part, ref));
+        return field;
+    }
+
+    private static List<String> indices(String part, String ref) {
+        List<String> indices = new ArrayList<>();
+        int pos = part.indexOf('[');
+        while (pos != -1) {
+            int end = part.indexOf(']', pos);
+            if (end == -1) {
+                throw new IllegalArgumentException("Invalid array notation in reference: " + part);
+            }
+            String index = part.substring(pos + 1, end);
+            try {
+                indices.add(String.valueOf(Integer.parseUnsignedInt(index)));
+            } catch (NumberFormatException ex) {
+                throw new IllegalArgumentException("Invalid array index in reference: " + part);
+            }
+            if (end + 1 < part.length() && part.charAt(end + 1) != '[') {
+                throw new IllegalArgumentException("Invalid array notation in reference: " + part);
+            }
+            pos = end + 1 < part.length() ? end + 1 : -1;
+        }
+        return indices;
+    }
+
+    public String getText() { return text; }
+
+    // The referenced request; null for a data reference.
+    public String getRequestId() { return requestId; }
+
+    public JsonPointer getPointer() { return pointer; }
+
+    public boolean isData() { return column != null; }
+
+    public String getColumn() { return column; }
+
+    @Override
+    public String toString() { return text; }
+}
@@ -0,0 +1,10 @@
+package com.example.apitester.template;
+
+/**
+ * Supplies the text substituted for a {@link Reference} when a template is rendered.
+ * Implementations throw when the referenced value is not available.
+ */
+@FunctionalInterface
+public interface ReferenceResolver {
+    String resolve(Reference reference);
+}
@@ -0,0 +1,75 @@
+package com.example.apitester.template;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A string (url, header value or body) compiled once into literal segments and parsed
+ * {@link Reference}s, so rendering is a single append pass with no regex or re-parsing.
+ */
+public final class RequestTemplate {
+
+    // Pattern to find variables to be replaced: e.g., {{op3.response.parentProp.users[0].name}}
+    private static final Pattern REF_PATTERN = Pattern.compile("\\{\\{([^}]+)\\}\\}");
+
+    private final String source;
+    // literals.length == references.length + 1; literal[i] precedes references[i].
+    private final String[] literals;
+    private final Reference[] references;
+    private final int literalLength;
+
+    private RequestTemplate(String source, String[] literals, Reference[] references) {
+        this.source = source;
+        this.literals = literals;
+        this.references = references;
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    /**
+     * Compile 'text'. Throws IllegalArgumentException for a malformed reference or an unterminated "{{".
+     */
+    public static RequestTemplate compile(String text) {
+        List<String> literals = new ArrayList<>();
+        List<Reference> references = new ArrayList<>();
+        Matcher matcher = REF_PATTERN.matcher(text);
+        int last = 0;
+        while (matcher.find()) {
+            literals.add(checkLiteral(text.substring(last, matcher.start())));
+            references.add(Reference.parse(matcher.group(1)));
+            last = matcher.end();
+        }
+        literals.add(checkLiteral(text.substring(last)));
+        return new RequestTemplate(text, literals.toArray(new String[0]), references.toArray(new Reference[0]));
+    }
+
+    private static String checkLiteral(String literal) {
+        int open = literal.indexOf("{{");
+        if (open != -1) {
+            throw new IllegalArgumentException("Unterminated reference: " + literal.substring(open, Math.min(literal.length(), open + 40)));
+        }
+        return literal;
+    }
+
+    public String getSource() { return source; }
+
+    public List<Reference> getReferences() { return List.of(references); }
+
+    public boolean isConstant() { return references.length == 0; }
+
+    public String render(ReferenceResolver resolver) {
+        if (references.length == 0) {
+            return source;
+        }
+        StringBuilder sb = new StringBuilder(literalLength + 16 * references.length);
+        for (int i = 0; i < references.length; i++) {
+            sb.append(literals[i]).append(resolver.resolve(references[i]));
+        }
+        return sb.append(literals[references.length]).toString();
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.apitester.assertion;
+
+import com.example.apitester.model.AssertionResult;
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.yaml.snakeyaml.Yaml;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ResponseAssertionsTests {
+
+	@Test
+	void evaluatesStatusHeadersBudgetsAndBodyChecks() throws Exception {
+		ResponseAssertions assertions = compile("""
+				status: [200, 2xx]
+				maxLatencyMs: 200
+				maxBodyBytes: 100
+				headers:
+				  Content-Type: application/json.*
+				body:
+				  - path: id
+				    equals: 1.0
+				  - path: data.tags
+				    type: array
+				    size: 2
+				  - path: data.tags[1]
+				    matches: "^b"
+				  - path: missing
+				    exists: false
+				""");
+		JsonNode body = new ObjectMapper().readTree("{\"id\": 1, \"data\": {\"tags\": [\"a\", \"b\"]}}");
+		Map<JsonPointer, JsonNode> values = new HashMap<>();
+		assertions.getBodyPaths().forEach(pointer -> {
+			if (!body.at(pointer).isMissingNode()) {
+				values.put(pointer, body.at(pointer));
+			}
+		});
+		HttpHeaders headers = new HttpHeaders();
+		headers.add("Content-Type", "application/json; charset=utf-8");
+
+		List<AssertionResult> results = assertions.evaluate(201, headers, values, null, 120, 250.0);
+
+		assertThat(results).filteredOn(AssertionResult::passed).extracting(AssertionResult::assertion).containsExactly(
+				"status", "header Content-Type", "body id equals", "body data.tags type", "body data.tags size",
+				"body data.tags[1] matches", "body missing exists");
+		assertThat(results).filteredOn(result -> !result.passed()).extracting(AssertionResult::assertion)
+				.containsExactly("maxLatencyMs", "maxBodyBytes");
+		assertThat(assertions.statusMatches(404)).isFalse();
+	}
+
+	@Test
+	void rejectsMalformedSections() {
+		assertThatThrownBy(() -> compile("status: 2zz")).hasMessageContaining("Invalid status assertion '2zz'");
+		assertThatThrownBy(() -> compile("body:\n  - path: a\n    type: list")).hasMessageContaining("Unknown type 'list'");
+		assertThatThrownBy(() -> compile("body:\n  - path: a\n    matches: '('")).hasMessageContaining("Invalid regex");
+		assertThatThrownBy(() -> compile("body:\n  - path: a[x]\n    exists: true")).hasMessageContaining("Invalid array index");
+		assertThatThrownBy(() -> compile("latency: 5")).hasMessageContaining("Unknown assertion 'latency'");
+	}
+
+	private static ResponseAssertions compile(String yaml) {
+		return ResponseAssertions.compile(new Yaml().load(yaml));
+	}
+}
@@ -0,0 +1,63 @@
+package com.example.apitester.cli;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CliRunnerTests {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void rejectsInvalidArguments() {
+		ByteArrayOutputStream err = new ByteArrayOutputStream();
+		int exit = CliRunner.run(new String[]{"--concurrency", "0", "suites"}, new PrintStream(new ByteArrayOutputStream()), new PrintStream(err));
+
+		assertThat(exit).isEqualTo(CliRunner.EXIT_USAGE);
+		assertThat(err.toString()).contains("concurrency must be positive").contains("Usage:");
+	}
+
+	@Test
+	void reportsSuitesThatFailToLoad() throws Exception {
+		Files.writeString(dir.resolve("broken.yaml"), "baseUrl: http://localhost/\nrequests:\n  - id: a\n    url: x\n");
+		Path junit = dir.resolve("reports/junit.xml");
+		ByteArrayOutputStream err = new ByteArrayOutputStream();
+
+		int exit = CliRunner.run(new String[]{dir.toString(), dir.resolve("missing.yaml").toString(), "--junit", junit.toString()},
+				new PrintStream(new ByteArrayOutputStream()), new PrintStream(err));
+
+		assertThat(exit).isEqualTo(CliRunner.EXIT_FAILED);
+		assertThat(err.toString()).contains("broken.yaml").contains("missing.yaml");
+		assertThat(Files.readString(junit))
+				.contains("<testsuites tests=\"2\" failures=\"0\" errors=\"2\"")
+				.contains("Request #1 is missing 'method'");
+	}
+
+	@Test
+	void jsonReportsTellEveryResultsOutcome() throws Exception {
+		Files.writeString(dir.resolve("down.yaml"), "baseUrl: http://127.0.0.1:1/\nrequests:\n"
+				+ "  - id: a\n    method: GET\n    url: items\n"
+				+ "  - id: b\n    method: GET\n    url: items/{{a.response.id}}\n");
+		Path json = dir.resolve("report.json");
+
+		int exit = CliRunner.run(new String[]{dir.toString(), "--json", json.toString()},
+				new PrintStream(new ByteArrayOutputStream()), new PrintStream(new ByteArrayOutputStream()));
+
+		assertThat(exit).isEqualTo(CliRunner.EXIT_FAILED);
+		JsonNode results = new ObjectMapper().readTree(json.toFile()).get("results");
+		assertThat(results).hasSize(2);
+		assertThat(results.get(0).get("requestId").asText()).isEqualTo("a");
+		assertThat(results.get(0).get("success").asBoolean()).isFalse();
+		assertThat(results.get(0).get("outcome").asText()).isEqualTo("fail");
+		assertThat(results.get(1).get("outcome").asText()).isEqualTo("skip");
+	}
+}
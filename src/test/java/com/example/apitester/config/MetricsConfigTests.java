@@ -0,0 +1,25 @@
+package com.example.apitester.config;
+
+import com.example.apitester.model.RequestTimings;
+import com.example.apitester.service.RequestMetrics;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MetricsConfigTests {
+
+	@Test
+	void onlyTheRequestTimerPublishesHistogramBuckets() {
+		PrometheusMeterRegistry registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+		registry.config().meterFilter(new MetricsConfig().requestHistogramFilter());
+
+		new RequestMetrics(registry).record("a.yaml", "get", "GET", "localhost", 200,
+				new RequestTimings(12.0, 1.0, 2.0, null, 8.0, 1.0));
+
+		String scrape = registry.scrape();
+		assertThat(scrape).contains("apitester_request_seconds_bucket{").contains("apitester_request_phase_seconds_count{")
+				.doesNotContain("apitester_request_phase_seconds_bucket");
+	}
+}
@@ -0,0 +1,90 @@
+package com.example.apitester.distributed;
+
+import com.example.apitester.model.DistributedReport;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Two workers on localhost: this instance, registered twice, runs both shares of the load.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+		"apitester.history.dir=",
+		"apitester.distributed.worker=true",
+		"apitester.distributed.token=test-token",
+		"apitester.distributed.update-interval-ms=100"})
+class DistributedLoadTests {
+
+	@LocalServerPort
+	int port;
+
+	@Autowired
+	CoordinatorService coordinator;
+
+	private DisposableServer target;
+
+	@BeforeEach
+	void start() {
+		target = HttpServer.create()
+				.host("127.0.0.1")
+				.handle((request, response) -> response.sendString(Mono.just("{\"id\": 1}")))
+				.bindNow();
+	}
+
+	@AfterEach
+	void stop() {
+		target.disposeNow();
+	}
+
+	@Test
+	void workersSplitTheRunAndTheirHistogramsAreMerged() {
+		String suite = "baseUrl: http://127.0.0.1:" + target.port() + "/\nrequests:\n  - id: get\n    method: GET\n    url: items/1\n";
+		WorkerJob job = new WorkerJob("distributed.yaml", suite, "get", false, null, 5, 101L, null,
+				null, 0, null, 100, null, null, 0, 1);
+		String worker = "http://127.0.0.1:" + port;
+
+		List<DistributedReport> reports = coordinator.run(List.of(worker, worker + "/"), job)
+				.collectList().block(Duration.ofSeconds(30));
+
+		DistributedReport last = reports.get(reports.size() - 1);
+		assertThat(last.done()).isTrue();
+		assertThat(last.total().getRequests()).isEqualTo(101);
+		assertThat(last.total().getStatusCounts()).containsEntry("200", 101L);
+		assertThat(last.total().getLatency()).isNotNull();
+		assertThat(last.nodes()).extracting(DistributedReport.Node::state).containsExactly("done", "done");
+		// 3 + 2 virtual users, 51 + 50 iterations.
+		assertThat(last.nodes()).extracting(DistributedReport.Node::requests).containsExactly(51L, 50L);
+	}
+
+	@Test
+	void anUnreachableWorkerFailsWithoutStoppingTheOthers() {
+		String suite = "baseUrl: http://127.0.0.1:" + target.port() + "/\nrequests:\n  - id: get\n    method: GET\n    url: items/1\n";
+		WorkerJob job = new WorkerJob("distributed.yaml", suite, "get", false, null, 2, 10L, null,
+				null, 0, null, 100, null, null, 0, 1);
+
+		DistributedReport last = coordinator.run(List.of("http://127.0.0.1:" + port, "http://127.0.0.1:1"), job)
+				.blockLast(Duration.ofSeconds(30));
+
+		assertThat(last.done()).isTrue();
+		assertThat(last.total().getRequests()).isEqualTo(5);
+		assertThat(last.nodes()).extracting(DistributedReport.Node::state).containsExactly("done", "failed");
+	}
+
+	@Test
+	void runsMayNotSendTheTokenToUnconfiguredWorkers() {
+		assertThatThrownBy(() -> coordinator.workers("http://127.0.0.1:" + port + ",http://attacker.example"))
+				.isInstanceOf(ResponseStatusException.class)
+				.hasMessageContaining("not in apitester.distributed.workers");
+	}
+}
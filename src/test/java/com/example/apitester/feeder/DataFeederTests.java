@@ -0,0 +1,94 @@
+package com.example.apitester.feeder;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DataFeederTests {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void sequentialCsvHandsOutEveryRowOnceWithQuotedFields() throws Exception {
+		Path file = Files.writeString(dir.resolve("users.csv"),
+				"id,name\r\n1,\"Doe, Jane\"\r\n\r\n2,\"say \"\"hi\"\"\"\r\n3\r\n");
+		try (DataFeeder feeder = DataFeeder.open(file, DataFeeder.Strategy.SEQUENTIAL, 1)) {
+			assertThat(feeder.getColumns()).containsExactly("id", "name");
+			assertThat(feeder.next(0).values()).containsEntry("id", "1").containsEntry("name", "Doe, Jane");
+			assertThat(feeder.next(0).values()).containsEntry("name", "say \"hi\"");
+			DataRow last = feeder.next(0);
+			assertThat(last.number()).isEqualTo(3);
+			assertThat(last.values()).containsEntry("id", "3").containsEntry("name", "");
+			assertThat(feeder.next(0)).isNull();
+		}
+	}
+
+	@Test
+	void partitionedWorkersNeverShareRows() throws Exception {
+		StringBuilder csv = new StringBuilder("id\n");
+		for (int i = 0; i < 1000; i++) {
+			csv.append(i).append('\n');
+		}
+		Path file = Files.writeString(dir.resolve("ids.csv"), csv);
+		List<String> seen = new ArrayList<>();
+		try (DataFeeder feeder = DataFeeder.open(file, DataFeeder.Strategy.PARTITIONED, 7)) {
+			for (int worker = 0; worker < 7; worker++) {
+				DataRow row;
+				while ((row = feeder.next(worker)) != null) {
+					seen.add(row.values().get("id"));
+				}
+			}
+		}
+		assertThat(seen).hasSize(1000).doesNotHaveDuplicates();
+	}
+
+	@Test
+	void slicesSplitTheRowsBetweenNodes() throws Exception {
+		StringBuilder csv = new StringBuilder("id\n");
+		for (int i = 0; i < 1000; i++) {
+			csv.append(i).append('\n');
+		}
+		Path file = Files.writeString(dir.resolve("ids.csv"), csv);
+		List<String> seen = new ArrayList<>();
+		for (int slice = 0; slice < 3; slice++) {
+			try (DataFeeder feeder = DataFeeder.open(file, DataFeeder.Strategy.PARTITIONED, 4, slice, 3);
+				 DataFeeder random = DataFeeder.open(file, DataFeeder.Strategy.RANDOM, 1, slice, 3)) {
+				List<String> sliceRows = new ArrayList<>();
+				for (int worker = 0; worker < 4; worker++) {
+					DataRow row;
+					while ((row = feeder.next(worker)) != null) {
+						sliceRows.add(row.values().get("id"));
+					}
+				}
+				assertThat(sliceRows).hasSizeBetween(300, 370);
+				assertThat(random.next(0).values().get("id")).isIn(sliceRows);
+				seen.addAll(sliceRows);
+			}
+		}
+		assertThat(seen).hasSize(1000).doesNotHaveDuplicates();
+	}
+
+	@Test
+	void circularAndRandomJsonlNeverRunOut() throws Exception {
+		Path file = Files.writeString(dir.resolve("users.jsonl"),
+				"{\"id\": 1, \"tags\": [\"a\"]}\n{\"id\": 2}");
+		try (DataFeeder circular = DataFeeder.open(file, DataFeeder.Strategy.CIRCULAR, 1);
+			 DataFeeder random = DataFeeder.open(file, DataFeeder.Strategy.RANDOM, 1)) {
+			List<String> ids = new ArrayList<>();
+			for (int i = 0; i < 5; i++) {
+				ids.add(circular.next(0).values().get("id"));
+				assertThat(random.next(0).values().get("id")).isIn("1", "2");
+			}
+			assertThat(ids).containsExactly("1", "2", "1", "2", "1");
+			assertThat(circular.next(0).values()).containsEntry("id", "2");
+			assertThat(circular.next(0).values()).containsEntry("tags", "[\"a\"]");
+		}
+	}
+}
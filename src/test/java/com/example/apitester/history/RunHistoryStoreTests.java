@@ -0,0 +1,105 @@
+package com.example.apitester.history;
+
+import com.example.apitester.config.ApiTesterProperties;
+import com.example.apitester.model.ExecutionResult;
+import com.example.apitester.model.HistoryEntry;
+import com.example.apitester.model.RequestTimings;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RunHistoryStoreTests {
+
+	@TempDir
+	Path dir;
+
+	private ApiTesterProperties properties(long segmentBytes, long maxBytes) {
+		ApiTesterProperties properties = new ApiTesterProperties();
+		properties.getHistory().setDir(dir.toString());
+		properties.getHistory().setSegmentBytes(segmentBytes);
+		properties.getHistory().setMaxBytes(maxBytes);
+		return properties;
+	}
+
+	private static ExecutionResult result(int statusCode, String body, double latencyMs) {
+		return new ExecutionResult("a.yaml", "get", statusCode, "Executed", body, statusCode < 400)
+				.withTimings(new RequestTimings(latencyMs, null, null, null, null, null));
+	}
+
+	@Test
+	void historySurvivesRestartWithBodiesStoredOnce() throws Exception {
+		RunHistoryStore store = new RunHistoryStore(properties(16 * 1024 * 1024, 256 * 1024 * 1024));
+		store.record(result(200, "{\"id\": 1}", 10));
+		store.record(result(500, "{\"error\": true}", 30));
+		store.record(result(200, "{\"id\": 1}", 20));
+		store.shutdown();
+
+		RunHistoryStore reopened = new RunHistoryStore(properties(16 * 1024 * 1024, 256 * 1024 * 1024));
+		try {
+			List<HistoryEntry> recent = awaitRecent(reopened, 3);
+			assertThat(recent).extracting(HistoryEntry::seq).containsExactly(3L, 2L, 1L);
+			assertThat(recent.get(0).bodyHash()).isEqualTo(recent.get(2).bodyHash());
+			assertThat(reopened.body(recent.get(1).bodyHash())).isEqualTo("{\"error\": true}");
+			assertThat(reopened.summaries()).singleElement()
+					.satisfies(summary -> assertThat(summary.runs()).isEqualTo(3))
+					.satisfies(summary -> assertThat(summary.failures()).isEqualTo(1));
+			assertThat(reopened.trend("a.yaml", "get", 0)).singleElement()
+					.satisfies(point -> assertThat(point.meanLatencyMs()).isEqualTo(20.0))
+					.satisfies(point -> assertThat(point.maxLatencyMs()).isEqualTo(30.0));
+			try (Stream<Path> bodies = Files.walk(dir.resolve("bodies"))) {
+				assertThat(bodies.filter(Files::isRegularFile).count()).isEqualTo(2);
+			}
+		} finally {
+			reopened.shutdown();
+		}
+	}
+
+	@Test
+	void oldestSegmentsAreDeletedToStayWithinMaxBytes() throws Exception {
+		RunHistoryStore store = new RunHistoryStore(properties(1024, 8 * 1024));
+		for (int i = 0; i < 2000; i++) {
+			store.record(result(200, "{\"id\": " + i + "}", 5));
+			if (i % 500 == 0) {
+				Thread.sleep(50);
+			}
+		}
+		store.shutdown();
+
+		long onDisk;
+		try (Stream<Path> files = Files.walk(dir)) {
+			onDisk = files.filter(Files::isRegularFile).mapToLong(path -> path.toFile().length()).sum();
+		}
+		// Within the bound plus the active segment at shutdown and the bodies it references.
+		assertThat(onDisk).isLessThan(8 * 1024 + 4 * 1024);
+		RunHistoryStore reopened = new RunHistoryStore(properties(1024, 8 * 1024));
+		try {
+			List<HistoryEntry> recent = awaitRecent(reopened, 1, 2000);
+			assertThat(recent.get(0).seq()).isEqualTo(2000);
+			assertThat(reopened.summaries().get(0).runs()).isLessThan(2000);
+		} finally {
+			reopened.shutdown();
+		}
+	}
+
+	private static List<HistoryEntry> awaitRecent(RunHistoryStore store, int count) throws InterruptedException {
+		return awaitRecent(store, count, 0);
+	}
+
+	// The index is rebuilt on the writer thread; wait until it has caught up to 'latestSeq'.
+	private static List<HistoryEntry> awaitRecent(RunHistoryStore store, int count, long latestSeq) throws InterruptedException {
+		for (int i = 0; i < 100; i++) {
+			List<HistoryEntry> recent = store.recent("a.yaml", "get", 10);
+			if (recent.size() >= count && recent.get(0).seq() >= latestSeq) {
+				return recent;
+			}
+			Thread.sleep(20);
+		}
+		return store.recent("a.yaml", "get", 10);
+	}
+}
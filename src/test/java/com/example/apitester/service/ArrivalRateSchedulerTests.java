@@ -0,0 +1,92 @@
+package com.example.apitester.service;
+
+import com.example.apitester.model.LoadReport;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class ArrivalRateSchedulerTests {
+
+	private StubServer server;
+	private RequestServiceFixture fixture;
+	private LoadTestService loadTests;
+
+	@BeforeEach
+	void start() {
+		// Every response takes 100ms, so a few outstanding iterations fill up quickly.
+		server = new StubServer(routes -> routes
+				.get("/slow", (request, response) -> response.header("Content-Type", "application/json")
+						.sendString(Mono.delay(Duration.ofMillis(100)).thenReturn("{\"id\": 1}"))));
+		fixture = new RequestServiceFixture();
+		loadTests = new LoadTestService(fixture.requestService(), fixture.properties());
+	}
+
+	@AfterEach
+	void stop() {
+		fixture.close();
+		server.close();
+	}
+
+	@Test
+	void rampsLinearlyBetweenStages() {
+		List<ArrivalRateScheduler.Stage> stages = LoadTestService.parseStages("10s:100, 20s:100,10s:0");
+		assertThat(stages).hasSize(3);
+		ArrivalRateScheduler scheduler = new ArrivalRateScheduler(null,
+				new ArrivalRateScheduler.Options(stages, 0, ArrivalRateScheduler.InterArrival.FIXED, 10), Mono.empty());
+
+		assertThat(scheduler.rateAt(0)).isZero();
+		assertThat(scheduler.rateAt(seconds(5))).isCloseTo(50, within(0.01));
+		assertThat(scheduler.rateAt(seconds(10))).isCloseTo(100, within(0.01));
+		assertThat(scheduler.rateAt(seconds(25))).isCloseTo(100, within(0.01));
+		assertThat(scheduler.rateAt(seconds(35))).isCloseTo(50, within(0.01));
+		assertThat(scheduler.rateAt(seconds(40))).isZero();
+	}
+
+	@Test
+	void arrivalsBeyondMaxOutstandingAreDropped() {
+		// 50/s against 100ms responses needs about 5 in flight; only 2 are allowed.
+		LoadReport report = loadTests.runArrivalRate(workload(), options("1s:50", 50, 2))
+				.block(Duration.ofSeconds(30));
+
+		assertThat(report.getDropped()).isPositive();
+		assertThat(report.getPeakOutstanding()).isEqualTo(2);
+		assertThat(report.getIterations() + report.getDropped()).isBetween(45L, 50L);
+		assertThat(report.getRequests()).isEqualTo(report.getIterations());
+		assertThat(report.getStatusCounts()).containsOnlyKeys("200");
+	}
+
+	@Test
+	void latencyCountsFromTheIntendedStart() {
+		// Every arrival is held up for 200ms before its request is sent, as by a stalled data feeder.
+		ExecutionRun run = new ExecutionRun("run");
+		ArrivalRateScheduler scheduler = new ArrivalRateScheduler(workload(), options("500ms:10", 10, 100),
+				Mono.delay(Duration.ofMillis(200)).thenReturn(run));
+
+		LoadReport report = scheduler.run("queued").block(Duration.ofSeconds(30));
+
+		assertThat(report.getDropped()).isZero();
+		assertThat(report.getRequests()).isEqualTo(report.getIterations()).isPositive();
+		// 100ms at the stub plus the 200ms spent waiting to be sent.
+		assertThat(report.getLatency().min()).isGreaterThanOrEqualTo(300);
+	}
+
+	private LoadWorkload workload() {
+		return loadTests.workload(server.suite("slow.yaml", "requests:\n  - id: slow\n    method: GET\n    url: slow\n"), "slow", false);
+	}
+
+	private static ArrivalRateScheduler.Options options(String stages, double startRate, int maxOutstanding) {
+		return new ArrivalRateScheduler.Options(LoadTestService.parseStages(stages), startRate,
+				ArrivalRateScheduler.InterArrival.FIXED, maxOutstanding);
+	}
+
+	private static long seconds(long seconds) {
+		return Duration.ofSeconds(seconds).toNanos();
+	}
+}
@@ -0,0 +1,127 @@
+package com.example.apitester.service;
+
+import com.example.apitester.model.ExecutionResult;
+import com.example.apitester.model.RequestDefinition;
+import com.example.apitester.model.YamlFileData;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DependencySchedulerTests {
+
+	@Test
+	void dependentsWaitForParentsAndAreSkippedWhenTheyFail() {
+		YamlFileData file = file(
+				request("create", "posts", null),
+				request("update", "posts/{{create.response.id}}", "{\"id\": {{create.response.id}}}"),
+				request("list", "posts", null),
+				request("broken", "nope", null),
+				request("afterBroken", "posts/{{broken.response.id}}", null));
+		Set<String> started = ConcurrentHashMap.newKeySet();
+		List<String> order = new ArrayList<>();
+		DependencyScheduler scheduler = new DependencyScheduler(node -> {
+			String id = node.getRequest().getId();
+			node.getParents().forEach(parent -> assertThat(started).contains(parent.getRequest().getId()));
+			started.add(id);
+			boolean ok = !id.equals("broken");
+			return Mono.delay(Duration.ofMillis(10))
+					.map(t -> new ExecutionResult(file.getFileName(), id, ok ? 200 : 500, ok ? "Executed" : "Error", "", ok));
+		}, 2);
+
+		Map<String, ExecutionResult> results = new ConcurrentHashMap<>();
+		scheduler.run(ExecutionPlan.of(file)).doOnNext(r -> {
+			results.put(r.getRequestId(), r);
+			synchronized (order) { order.add(r.getRequestId()); }
+		}).blockLast(Duration.ofSeconds(5));
+
+		assertThat(results).hasSize(5);
+		assertThat(order.indexOf("create")).isLessThan(order.indexOf("update"));
+		assertThat(results.get("afterBroken").getStatusCode()).isEqualTo(424);
+		assertThat(started).doesNotContain("afterBroken");
+	}
+
+	@Test
+	void cyclesAreReportedWithoutBeingSent() {
+		YamlFileData file = file(
+				request("a", "x/{{b.response.id}}", null),
+				request("b", "x/{{a.response.id}}", null),
+				request("c", "x/{{a.response.id}}", null),
+				request("d", "x", null));
+		Set<String> started = ConcurrentHashMap.newKeySet();
+		DependencyScheduler scheduler = new DependencyScheduler(node -> {
+			started.add(node.getRequest().getId());
+			return Mono.just(new ExecutionResult(file.getFileName(), node.getRequest().getId(), 200, "Executed", "", true));
+		}, 4);
+
+		List<ExecutionResult> results = scheduler.run(ExecutionPlan.of(file)).collectList().block(Duration.ofSeconds(5));
+
+		assertThat(results).hasSize(4);
+		assertThat(started).containsExactly("d");
+		assertThat(results).filteredOn(r -> r.getStatusCode() == 508).extracting(ExecutionResult::getRequestId)
+				.containsExactlyInAnyOrder("a", "b");
+	}
+
+	@Test
+	void startsRequestsOnlyForRequestedResults() {
+		YamlFileData file = file(
+				request("a", "x", null),
+				request("b", "x", null),
+				request("c", "x", null),
+				request("d", "x", null));
+		Set<String> started = ConcurrentHashMap.newKeySet();
+		DependencyScheduler scheduler = new DependencyScheduler(node -> {
+			started.add(node.getRequest().getId());
+			return Mono.just(new ExecutionResult(file.getFileName(), node.getRequest().getId(), 200, "Executed", "", true));
+		}, 4);
+		List<String> received = new CopyOnWriteArrayList<>();
+		BaseSubscriber<ExecutionResult> subscriber = new BaseSubscriber<>() {
+			@Override
+			protected void hookOnSubscribe(Subscription subscription) {
+				request(1);
+			}
+
+			@Override
+			protected void hookOnNext(ExecutionResult result) {
+				received.add(result.getRequestId());
+			}
+		};
+
+		scheduler.run(ExecutionPlan.of(file)).subscribe(subscriber);
+		assertThat(received).containsExactly("a");
+		assertThat(started).containsExactly("a");
+
+		subscriber.request(2);
+		assertThat(received).containsExactly("a", "b", "c");
+		assertThat(started).containsExactlyInAnyOrder("a", "b", "c");
+		subscriber.dispose();
+	}
+
+	private static YamlFileData file(RequestDefinition... requests) {
+		YamlFileData file = new YamlFileData();
+		file.setFileName("test.yaml");
+		file.setBaseUrl("http://localhost/");
+		file.setRequests(List.of(requests));
+		return file;
+	}
+
+	private static RequestDefinition request(String id, String url, String body) {
+		RequestDefinition rd = new RequestDefinition();
+		rd.setId(id);
+		rd.setMethod("GET");
+		rd.setUrl(url);
+		rd.setRequestBody(body);
+		return rd;
+	}
+
+}
@@ -0,0 +1,137 @@
+package com.example.apitester.service;
+
+import com.example.apitester.model.ExecutionResult;
+import com.example.apitester.model.YamlFileData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.Http11SslContextSpec;
+import reactor.netty.http.server.HttpServer;
+
+import javax.net.ssl.KeyManagerFactory;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyStore;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExecutionEngineTests {
+
+	private StubServer server;
+	private RequestServiceFixture fixture;
+
+	@BeforeEach
+	void start() {
+		server = new StubServer(routes -> routes
+				.post("/items", (request, response) -> request.receive().aggregate().asString()
+						.flatMap(body -> response.status(201).header("Content-Type", "application/json")
+								.sendString(Mono.just("{\"id\": 7, \"echo\": " + body + "}")).then()))
+				.get("/items/{id}", (request, response) -> response.header("Content-Type", "application/json")
+						.sendString(Mono.just("{\"id\": " + request.param("id") + ", \"tag\": \"" + request.requestHeaders().get("X-Tag") + "\"}"))));
+		fixture = new RequestServiceFixture();
+	}
+
+	@AfterEach
+	void stop() {
+		fixture.close();
+		server.close();
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {"reactor", "jdk"})
+	void enginesRunTheSameChain(String engine) {
+		YamlFileData suite = suite("").withEngine(engine);
+
+		List<ExecutionResult> results = fixture.requestService().streamFile(new ExecutionRun("run"), suite, false, 0)
+				.collectSortedList(Comparator.comparing(ExecutionResult::getRequestId))
+				.block(Duration.ofSeconds(10));
+
+		assertThat(results).extracting(ExecutionResult::getRequestId).containsExactly("create", "get", "one");
+		assertThat(results).allSatisfy(result -> {
+			assertThat(result.isSuccess()).isTrue();
+			assertThat(result.getProtocol()).isEqualTo("HTTP/1.1");
+			assertThat(result.getTimings().ttfbMs()).isNotNull();
+		});
+		assertThat(results.get(0).getStatusCode()).isEqualTo(201);
+		assertThat(results.get(0).getBody()).contains("\"echo\": {\"name\": \"item\"}");
+		assertThat(results.get(1).getBody()).isEqualTo("{\"id\": 7, \"tag\": \"item\"}");
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {"reactor", "jdk"})
+	void enginesSpeakCleartextHttp2(String engine) {
+		YamlFileData suite = suite("protocol: h2c\n").withEngine(engine);
+
+		ExecutionResult result = fixture.execute(suite, 2);
+
+		assertThat(result.getStatusCode()).isEqualTo(200);
+		assertThat(result.getProtocol()).isEqualTo("HTTP/2.0");
+	}
+
+	@Test
+	void fileBodiesNeedADataDirectory() {
+		YamlFileData suite = server.suite("upload.yaml",
+				"requests:\n  - id: upload\n    method: POST\n    url: items\n    requestBodyFile: pom.xml\n");
+
+		ExecutionResult result = fixture.execute(suite, 0);
+
+		assertThat(result.getStatusCode()).isEqualTo(400);
+		assertThat(result.getBody()).contains("set apitester.data.dir");
+	}
+
+	// The certificate is self-signed and issued to mismatched.example, not 127.0.0.1.
+	@ParameterizedTest
+	@ValueSource(strings = {"reactor", "jdk"})
+	void skipSslAcceptsACertificateForAnotherHost(String engine) throws Exception {
+		KeyStore keyStore = KeyStore.getInstance("PKCS12");
+		try (InputStream in = getClass().getResourceAsStream("/tls/mismatched-host.p12")) {
+			keyStore.load(in, "secret".toCharArray());
+		}
+		KeyManagerFactory keyManagers = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+		keyManagers.init(keyStore, "secret".toCharArray());
+		DisposableServer tls = HttpServer.create()
+				.host("127.0.0.1")
+				.secure(spec -> spec.sslContext(Http11SslContextSpec.forServer(keyManagers)))
+				.handle((request, response) -> response.sendString(Mono.just("{\"id\": 1}")))
+				.bindNow();
+		try {
+			String yaml = "baseUrl: https://127.0.0.1:" + tls.port() + "/\nrequests:\n  - id: get\n    method: GET\n    url: items/1\n";
+			YamlFileData suite = new YamlSuiteParser().parse("tls.yaml", new ByteArrayInputStream(yaml.getBytes(StandardCharsets.UTF_8)))
+					.withEngine(engine);
+			RequestCatalogService.indexReferences(List.of(suite));
+
+			ExecutionResult result = fixture.execute(suite, 0, true);
+
+			assertThat(result.getStatusCode()).isEqualTo(200);
+			assertThat(result.getBody()).isEqualTo("{\"id\": 1}");
+		} finally {
+			tls.disposeNow();
+		}
+	}
+
+	private YamlFileData suite(String settings) {
+		String yaml = settings
+				+ "requests:\n"
+				+ "  - id: create\n"
+				+ "    method: POST\n"
+				+ "    url: items\n"
+				+ "    requestBody: '{\"name\": \"item\"}'\n"
+				+ "  - id: get\n"
+				+ "    method: GET\n"
+				+ "    url: items/{{create.response.id}}\n"
+				+ "    headers:\n"
+				+ "      X-Tag: '{{create.response.echo.name}}'\n"
+				+ "  - id: one\n"
+				+ "    method: GET\n"
+				+ "    url: items/1\n";
+		return server.suite("engines.yaml", yaml);
+	}
+}
@@ -0,0 +1,95 @@
+package com.example.apitester.service;
+
+import com.example.apitester.model.LoadReport;
+import com.example.apitester.model.YamlFileData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+class LoadTestServiceTests {
+
+	private final AtomicInteger created = new AtomicInteger();
+	private final AtomicInteger fetched = new AtomicInteger();
+	private StubServer server;
+	private RequestServiceFixture fixture;
+	private LoadTestService loadTests;
+
+	@BeforeEach
+	void start() {
+		server = new StubServer(routes -> routes
+				.post("/items", (request, response) -> {
+					created.incrementAndGet();
+					return response.status(201).header("Content-Type", "application/json").sendString(Mono.just("{\"id\": 7}"));
+				})
+				.get("/items/{id}", (request, response) -> {
+					fetched.incrementAndGet();
+					return "7".equals(request.param("id"))
+							? response.header("Content-Type", "application/json").sendString(Mono.just("{\"id\": 7}"))
+							: response.status(404).send();
+				}));
+		fixture = new RequestServiceFixture();
+		loadTests = new LoadTestService(fixture.requestService(), fixture.properties());
+	}
+
+	@AfterEach
+	void stop() {
+		fixture.close();
+		server.close();
+	}
+
+	@Test
+	void closedModelRunsTheIterationBudget() {
+		LoadWorkload workload = loadTests.workload(suite(), "get", false);
+
+		LoadReport report = loadTests.run(workload, new LoadTestService.LoadOptions(4, 40L, null))
+				.block(Duration.ofSeconds(30));
+
+		// The dependency runs once per virtual user as setup and is not measured.
+		assertThat(created).hasValue(4);
+		assertThat(fetched).hasValue(40);
+		assertThat(report.getRequests()).isEqualTo(40);
+		assertThat(report.getErrors()).isZero();
+		assertThat(report.getStatusCounts()).containsExactly(entry("200", 40L));
+		assertThat(workload.getRecorder().cumulativeHistogram().getTotalCount()).isEqualTo(40);
+		assertThat(report.getLatency().min()).isPositive();
+		assertThat(report.getLatency().max()).isGreaterThanOrEqualTo(report.getLatency().p99());
+	}
+
+	@Test
+	void scenariosCountEveryRequestAndStatus() {
+		LoadWorkload workload = loadTests.workload(suite(), null, false);
+
+		LoadReport report = loadTests.run(workload, new LoadTestService.LoadOptions(3, 12L, null))
+				.block(Duration.ofSeconds(30));
+
+		assertThat(created).hasValue(12);
+		assertThat(fetched).hasValue(24);
+		assertThat(report.getRequests()).isEqualTo(36);
+		assertThat(report.getStatusCounts()).containsOnly(entry("201", 12L), entry("200", 12L), entry("404", 12L));
+		assertThat(report.getErrors()).isEqualTo(12);
+		assertThat(workload.getRecorder().cumulativeHistogram().getTotalCount()).isEqualTo(36);
+		assertThat(report.getRequestBreakdown()).containsOnlyKeys("create", "get", "missing")
+				.allSatisfy((id, breakdown) -> assertThat(breakdown.getRequests()).isEqualTo(12));
+		assertThat(report.getIterationLatency()).isNotNull();
+	}
+
+	private YamlFileData suite() {
+		return server.suite("load.yaml", "requests:\n"
+				+ "  - id: create\n"
+				+ "    method: POST\n"
+				+ "    url: items\n"
+				+ "  - id: get\n"
+				+ "    method: GET\n"
+				+ "    url: items/{{create.response.id}}\n"
+				+ "  - id: missing\n"
+				+ "    method: GET\n"
+				+ "    url: items/0\n");
+	}
+}
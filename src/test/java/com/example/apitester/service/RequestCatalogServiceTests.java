@@ -0,0 +1,50 @@
+package com.example.apitester.service;
+
+import com.example.apitester.config.ApiTesterProperties;
+import com.example.apitester.model.RequestCatalog;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestCatalogServiceTests {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void externalSuitesOverrideClasspathAndBrokenFilesAreReported() throws Exception {
+		Files.writeString(dir.resolve("001-sample.yaml"), """
+				baseUrl: http://localhost/
+				requests:
+				  - id: onlyOne
+				    method: GET
+				    url: ping
+				""");
+		Files.writeString(dir.resolve("broken.yaml"), """
+				baseUrl: http://localhost/
+				requests:
+				  - id: noMethod
+				    url: ping
+				""");
+		ApiTesterProperties properties = new ApiTesterProperties();
+		properties.getRequests().setDir(dir.toString());
+		properties.getRequests().setWatch(false);
+		RequestCatalogService service = new RequestCatalogService(properties);
+		service.init();
+
+		RequestCatalog catalog = service.getCatalog();
+		assertThat(catalog.getFile("001-sample.yaml").getRequests()).hasSize(1);
+		assertThat(catalog.getRequest("001-sample.yaml", "onlyOne")).isNotNull();
+		assertThat(catalog.getRequest("002-sample.yaml", "createPost01")).isNotNull();
+		assertThat(catalog.getErrors()).singleElement()
+				.satisfies(err -> {
+					assertThat(err.getFileName()).isEqualTo("broken.yaml");
+					assertThat(err.getMessage()).contains("missing 'method'");
+				});
+	}
+
+}
@@ -0,0 +1,57 @@
+package com.example.apitester.service;
+
+import com.example.apitester.config.ApiTesterProperties;
+import com.example.apitester.history.RunHistoryStore;
+import com.example.apitester.model.ExecutionResult;
+import com.example.apitester.model.YamlFileData;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * A RequestService wired the way the application wires it, over both engines, with spilling off
+ * so nothing lands on disk. Close it to release the engines' connection pools.
+ */
+final class RequestServiceFixture implements AutoCloseable {
+
+	private final ApiTesterProperties properties = new ApiTesterProperties();
+	private final WebClientRegistry webClients;
+	private final JdkExecutionEngine jdkEngine;
+	private final ResponseCache cache;
+	private final RequestService requestService;
+
+	RequestServiceFixture() {
+		properties.getResponse().setSpill(false);
+		RequestMetrics metrics = new RequestMetrics(new SimpleMeterRegistry());
+		webClients = new WebClientRegistry(properties, metrics);
+		jdkEngine = new JdkExecutionEngine(properties);
+		cache = new ResponseCache(properties);
+		requestService = new RequestService(properties, List.of(new ReactorExecutionEngine(webClients), jdkEngine), metrics,
+				new RunHistoryStore(properties), new SpillStore(properties), cache);
+	}
+
+	ApiTesterProperties properties() { return properties; }
+
+	WebClientRegistry webClients() { return webClients; }
+
+	ResponseCache cache() { return cache; }
+
+	RequestService requestService() { return requestService; }
+
+	// Run one request of the suite in a fresh run, without skipping TLS checks.
+	ExecutionResult execute(YamlFileData suite, int request) {
+		return execute(suite, request, false);
+	}
+
+	ExecutionResult execute(YamlFileData suite, int request, boolean skipSsl) {
+		return requestService.execute(new ExecutionRun("run"), suite, suite.getRequests().get(request), skipSsl)
+				.block(Duration.ofSeconds(10));
+	}
+
+	@Override
+	public void close() {
+		webClients.shutdown();
+		jdkEngine.shutdown();
+	}
+}
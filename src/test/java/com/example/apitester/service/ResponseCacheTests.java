@@ -0,0 +1,137 @@
+package com.example.apitester.service;
+
+import com.example.apitester.feeder.DataFeeder;
+import com.example.apitester.model.ExecutionResult;
+import com.example.apitester.model.YamlFileData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import reactor.core.publisher.Mono;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResponseCacheTests {
+
+	private final AtomicInteger fetches = new AtomicInteger();
+	private final AtomicInteger notModified = new AtomicInteger();
+	private StubServer server;
+	private RequestServiceFixture fixture;
+
+	@BeforeEach
+	void start() {
+		server = new StubServer(routes -> routes
+				.get("/fresh", (request, response) -> {
+					fetches.incrementAndGet();
+					return response.header("Cache-Control", "max-age=60").header("Content-Type", "application/json")
+							.sendString(Mono.just("{\"id\": 1}"));
+				})
+				.get("/validated", (request, response) -> {
+					if ("\"v1\"".equals(request.requestHeaders().get("If-None-Match"))) {
+						notModified.incrementAndGet();
+						return response.status(304).header("ETag", "\"v1\"").send();
+					}
+					fetches.incrementAndGet();
+					return response.header("Cache-Control", "no-cache").header("ETag", "\"v1\"")
+							.header("Content-Type", "application/json").sendString(Mono.just("{\"id\": 2}"));
+				}));
+		fixture = new RequestServiceFixture();
+	}
+
+	@AfterEach
+	void stop() {
+		fixture.close();
+		server.close();
+	}
+
+	@Test
+	void freshResponsesAreServedFromTheCache() {
+		YamlFileData suite = suite("on");
+
+		ExecutionResult first = execute(suite, 0);
+		ExecutionResult second = execute(suite, 0);
+
+		assertThat(first.getCache()).isEqualTo(ResponseCache.MISS);
+		assertThat(second.getCache()).isEqualTo(ResponseCache.HIT);
+		assertThat(second.getStatusCode()).isEqualTo(200);
+		assertThat(second.getBody()).isEqualTo("{\"id\": 1}");
+		assertThat(fetches).hasValue(1);
+		assertThat(execute(suite.withCache("off"), 0).getCache()).isNull();
+		assertThat(fetches).hasValue(2);
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {"reactor", "jdk"})
+	void staleResponsesAreRevalidated(String engine) {
+		YamlFileData suite = suite("on").withEngine(engine);
+
+		ExecutionResult first = execute(suite, 1);
+		ExecutionResult second = execute(suite, 1);
+
+		assertThat(first.getCache()).isEqualTo(ResponseCache.MISS);
+		assertThat(second.getCache()).isEqualTo(ResponseCache.REVALIDATED);
+		assertThat(second.getStatusCode()).isEqualTo(200);
+		assertThat(second.getBody()).isEqualTo("{\"id\": 2}");
+		assertThat(fetches).hasValue(1);
+		assertThat(notModified).hasValue(1);
+		assertThat(fixture.cache().stats()).containsEntry("misses", 1L).containsEntry("revalidated", 1L);
+	}
+
+	@Test
+	void replayOnlyAnswersFromTheCache() {
+		execute(suite("on"), 0);
+		YamlFileData replay = suite("replay");
+
+		ExecutionResult cached = execute(replay, 0);
+		ExecutionResult uncached = execute(replay, 1);
+		ExecutionResult write = execute(replay, 2);
+
+		assertThat(cached.getCache()).isEqualTo(ResponseCache.REPLAYED);
+		assertThat(cached.getBody()).isEqualTo("{\"id\": 1}");
+		assertThat(uncached.getStatusCode()).isEqualTo(504);
+		assertThat(uncached.isSuccess()).isFalse();
+		assertThat(write.getStatusCode()).isEqualTo(504);
+		assertThat(fetches).hasValue(1);
+		assertThat(fixture.cache().stats()).containsEntry("replayed", 1L).containsEntry("replayMisses", 2L);
+	}
+
+	@Test
+	void dataRunsOfOneRequestKeepTheSuiteCacheMode(@TempDir Path dir) throws Exception {
+		execute(suite("on"), 0);
+		YamlFileData replay = suite("replay");
+		DataFeeder feeder = DataFeeder.open(Files.writeString(dir.resolve("rows.csv"), "n\n1\n2\n"), DataFeeder.Strategy.SEQUENTIAL, 1);
+
+		List<ExecutionResult> results = fixture.requestService().streamRows(replay, replay.getRequests().get(0), feeder, 1, null, false)
+				.collectList().block(Duration.ofSeconds(10));
+
+		assertThat(results).hasSize(2).allSatisfy(result -> assertThat(result.getCache()).isEqualTo(ResponseCache.REPLAYED));
+		assertThat(fetches).hasValue(1);
+	}
+
+	private ExecutionResult execute(YamlFileData suite, int request) {
+		return fixture.execute(suite, request);
+	}
+
+	private YamlFileData suite(String cache) {
+		String yaml = "cache: " + cache + "\n"
+				+ "requests:\n"
+				+ "  - id: fresh\n"
+				+ "    method: GET\n"
+				+ "    url: fresh\n"
+				+ "  - id: validated\n"
+				+ "    method: GET\n"
+				+ "    url: validated\n"
+				+ "  - id: create\n"
+				+ "    method: POST\n"
+				+ "    url: fresh\n";
+		return server.suite("cache.yaml", yaml);
+	}
+}
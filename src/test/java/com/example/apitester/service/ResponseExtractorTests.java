@@ -0,0 +1,60 @@
+package com.example.apitester.service;
+
+import com.example.apitester.template.Reference;
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ResponseExtractorTests {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	@Test
+	void extractsOnlyReferencedValuesAcrossChunkBoundaries() {
+		String body = "{\"id\": 7, \"meta\": {\"skip\": [1, 2, 3]}, \"users\": [{\"name\": \"a\"}, {\"name\": \"b\", \"tags\": [\"x\"]}]}";
+		Reference name = Reference.parse("op.response.users[1].name");
+		Reference user = Reference.parse("op.response.users[1]");
+		Reference id = Reference.parse("op.response.id");
+		Reference missing = Reference.parse("op.response.nope");
+		ResponseExtractor extractor = new ResponseExtractor(
+				Set.of(name.getPointer(), user.getPointer(), id.getPointer(), missing.getPointer()), objectMapper);
+
+		byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+		for (int i = 0; i < bytes.length; i += 5) {
+			extractor.feed(ByteBuffer.wrap(bytes, i, Math.min(5, bytes.length - i)));
+		}
+		Map<JsonPointer, JsonNode> values = extractor.finish();
+
+		assertThat(extractor.getFailure()).isNull();
+		assertThat(values.get(id.getPointer()).asInt()).isEqualTo(7);
+		assertThat(values.get(name.getPointer()).asText()).isEqualTo("b");
+		assertThat(values.get(user.getPointer()).toString()).isEqualTo("{\"name\":\"b\",\"tags\":[\"x\"]}");
+		assertThat(values).doesNotContainKey(missing.getPointer());
+	}
+
+	@Test
+	void topLevelArraysAndInvalidBodies() {
+		Reference first = Reference.parse("list.response[0].id");
+		ResponseExtractor extractor = new ResponseExtractor(Set.of(first.getPointer()), objectMapper);
+		extractor.feed(ByteBuffer.wrap("[{\"id\": 1}, {\"id\": 2}]".getBytes(StandardCharsets.UTF_8)));
+		assertThat(extractor.finish().get(first.getPointer()).asInt()).isEqualTo(1);
+
+		ResponseExtractor broken = new ResponseExtractor(Set.of(first.getPointer()), objectMapper);
+		broken.feed(ByteBuffer.wrap("<html>".getBytes(StandardCharsets.UTF_8)));
+		broken.finish();
+		assertThat(broken.getFailure()).isNotNull();
+
+		assertThatThrownBy(() -> Reference.parse("op.body.id")).hasMessageContaining("Expected 'response'");
+		assertThatThrownBy(() -> Reference.parse("op.response.users[x]")).hasMessageContaining("Invalid array index");
+	}
+
+}
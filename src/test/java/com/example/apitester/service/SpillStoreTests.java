@@ -0,0 +1,101 @@
+package com.example.apitester.service;
+
+import com.example.apitester.config.ApiTesterProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SpillStoreTests {
+
+	@TempDir
+	Path dir;
+
+	private SpillStore store;
+
+	@AfterEach
+	void shutdown() {
+		store.shutdown();
+	}
+
+	@Test
+	void spillsTheWholeBodyOnceItOutgrowsThePreview() throws IOException {
+		store = new SpillStore(properties(Long.MAX_VALUE));
+		String body = "0123456789".repeat(10);
+
+		String id = spill(body, "text/plain");
+
+		SpillStore.SpilledBody spilled = store.get(id);
+		assertThat(spilled.bytes()).isEqualTo(100);
+		assertThat(spilled.contentType()).isEqualTo("text/plain");
+		assertThat(Files.readString(spilled.path())).isEqualTo(body);
+	}
+
+	@Test
+	void bodiesThatFitThePreviewAreNotWritten() throws IOException {
+		store = new SpillStore(properties(Long.MAX_VALUE));
+
+		assertThat(spill("small", null)).isNull();
+		try (var files = Files.list(dir)) {
+			assertThat(files).isEmpty();
+		}
+	}
+
+	@Test
+	void oldestBodiesAreEvictedOverTheSizeBound() {
+		store = new SpillStore(properties(250));
+		String first = spill("a".repeat(100), null);
+		String second = spill("b".repeat(100), null);
+		String third = spill("c".repeat(100), null);
+
+		assertThat(store.get(first)).isNull();
+		assertThat(store.get(second)).isNotNull();
+		assertThat(store.get(third)).isNotNull();
+		assertThat(Files.exists(dir.resolve(first + ".body"))).isFalse();
+	}
+
+	@Test
+	void shutdownLeavesOtherInstancesBodiesAlone() throws IOException {
+		store = new SpillStore(properties(Long.MAX_VALUE));
+		Path other = Files.writeString(dir.resolve("other-instance.body"), "still served");
+		String id = spill("d".repeat(100), null);
+
+		store.shutdown();
+
+		assertThat(Files.exists(dir.resolve(id + ".body"))).isFalse();
+		assertThat(other).hasContent("still served");
+	}
+
+	// Feed the body in 10-byte chunks through a collector with a 16-byte preview, as RequestService does.
+	private String spill(String body, String contentType) {
+		ResponseBodyCollector collector = new ResponseBodyCollector(16, Set.of(), new ObjectMapper());
+		SpillStore.Spiller spiller = store.spiller(contentType);
+		byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+		for (int i = 0; i < bytes.length; i += 10) {
+			int length = Math.min(10, bytes.length - i);
+			long position = collector.getTotalBytes();
+			collector.accept(ByteBuffer.wrap(bytes, i, length));
+			DataBuffer buffer = DefaultDataBufferFactory.sharedInstance.wrap(ByteBuffer.wrap(bytes, i, length).slice());
+			spiller.accept(buffer, position, collector).block();
+		}
+		return spiller.finish();
+	}
+
+	private ApiTesterProperties properties(long maxBytes) {
+		ApiTesterProperties properties = new ApiTesterProperties();
+		properties.getResponse().setSpillDir(dir.toString());
+		properties.getResponse().setSpillMaxBytes(maxBytes);
+		return properties;
+	}
+}
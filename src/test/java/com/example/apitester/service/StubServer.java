@@ -0,0 +1,46 @@
+package com.example.apitester.service;
+
+import com.example.apitester.model.YamlFileData;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRoutes;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A reactor-netty target on 127.0.0.1 for the tests that run requests end to end. It speaks
+ * HTTP/1.1 and cleartext HTTP/2, so suites can pick either protocol.
+ */
+final class StubServer implements AutoCloseable {
+
+	private final DisposableServer server;
+
+	StubServer(Consumer<? super HttpServerRoutes> routes) {
+		server = HttpServer.create()
+				.host("127.0.0.1")
+				.protocol(HttpProtocol.HTTP11, HttpProtocol.H2C)
+				.route(routes)
+				.bindNow();
+	}
+
+	int port() { return server.port(); }
+
+	String baseUrl() { return "http://127.0.0.1:" + server.port() + "/"; }
+
+	// Parse a suite whose baseUrl is this server; 'yaml' is everything after the baseUrl line.
+	YamlFileData suite(String fileName, String yaml) {
+		String source = "baseUrl: " + baseUrl() + "\n" + yaml;
+		YamlFileData suite = new YamlSuiteParser().parse(fileName, new ByteArrayInputStream(source.getBytes(StandardCharsets.UTF_8)));
+		RequestCatalogService.indexReferences(List.of(suite));
+		return suite;
+	}
+
+	@Override
+	public void close() {
+		server.disposeNow();
+	}
+}
@@ -0,0 +1,63 @@
+package com.example.apitester.service;
+
+import com.example.apitester.model.ExecutionResult;
+import com.example.apitester.model.YamlFileData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WebClientRegistryTests {
+
+	private StubServer server;
+	private RequestServiceFixture fixture;
+
+	@BeforeEach
+	void start() {
+		server = new StubServer(routes -> routes
+				.get("/items/{id}", (request, response) -> response.sendString(Mono.just("{\"id\": 1}"))));
+		fixture = new RequestServiceFixture();
+	}
+
+	@AfterEach
+	void stop() {
+		fixture.close();
+		server.close();
+	}
+
+	@Test
+	void reportsTheNegotiatedProtocol() {
+		assertThat(execute("").getProtocol()).isEqualTo("HTTP/1.1");
+		assertThat(execute("protocol: h2c\n").getProtocol()).isEqualTo("HTTP/2.0");
+		// h2 only applies to https:// URLs and falls back to HTTP/1.1 here.
+		assertThat(execute("protocol: h2\n").getProtocol()).isEqualTo("HTTP/1.1");
+	}
+
+	@Test
+	void multiplexesStreamsOverOneConnection() {
+		YamlFileData suite = suite("http:\n  protocol: h2c\n  maxConcurrentStreams: 50\n");
+		for (int i = 0; i < 5; i++) {
+			assertThat(fixture.requestService().executeFile(new ExecutionRun("run" + i), suite, false, 10)
+					.block(Duration.ofSeconds(10))).hasSize(10);
+		}
+
+		assertThat(fixture.webClients().poolStats()).singleElement()
+				.satisfies(stats -> assertThat(stats.get("connectionsOpened")).isEqualTo(1L));
+	}
+
+	private ExecutionResult execute(String settings) {
+		return fixture.execute(suite(settings), 0);
+	}
+
+	private YamlFileData suite(String settings) {
+		StringBuilder yaml = new StringBuilder(settings + "requests:\n");
+		for (int i = 0; i < 10; i++) {
+			yaml.append("  - id: r").append(i).append("\n    method: GET\n    url: items/").append(i).append('\n');
+		}
+		return server.suite("protocol.yaml", yaml.toString());
+	}
+}
@@ -0,0 +1,56 @@
+package com.example.apitester.template;
+
+import com.example.apitester.model.RequestDefinition;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RequestTemplateTests {
+
+	@Test
+	void rendersLiteralsAndReferencesInUrlHeadersAndBody() {
+		RequestDefinition rd = new RequestDefinition();
+		rd.setId("update");
+		rd.setMethod("PUT");
+		rd.setUrl("posts/{{create.response.id}}");
+		Map<String, String> headers = new LinkedHashMap<>();
+		headers.put("X-Owner", "{{ create.response.owner.name }}");
+		headers.put("Accept", "application/json");
+		rd.setHeaders(headers);
+		rd.setRequestBody("{\"id\": {{create.response.id}}, \"nested\": {\"a\": {\"b\": 1}}}");
+
+		CompiledRequest compiled = CompiledRequest.compile(rd);
+		ReferenceResolver resolver = ref -> ref.getPointer().toString().equals("/id") ? "42" : "ann";
+
+		assertThat(compiled.getReferences()).extracting(Reference::getRequestId).containsOnly("create");
+		assertThat(compiled.renderUrl(resolver)).isEqualTo("posts/42");
+		assertThat(compiled.renderHeaders(resolver)).containsEntry("X-Owner", "ann").containsEntry("Accept", "application/json");
+		assertThat(compiled.renderBody(resolver)).isEqualTo("{\"id\": 42, \"nested\": {\"a\": {\"b\": 1}}}");
+	}
+
+	@Test
+	void dataReferencesNameAColumnOfTheDataRow() {
+		RequestTemplate template = RequestTemplate.compile("users/{{data.userId}}?q={{ data.query.text }}");
+
+		assertThat(template.getReferences()).allMatch(Reference::isData).extracting(Reference::getColumn)
+				.containsExactly("userId", "query.text");
+		assertThat(template.render(ref -> ref.getColumn().equals("userId") ? "7" : "x")).isEqualTo("users/7?q=x");
+		assertThat(Reference.parse("data.response.id").getRequestId()).isEqualTo("data");
+	}
+
+	@Test
+	void invalidReferencesFailAtCompileTime() {
+		assertThatThrownBy(() -> RequestTemplate.compile("posts/{{create.id}}"))
+				.hasMessageContaining("Expected 'response'");
+		assertThatThrownBy(() -> RequestTemplate.compile("posts/{{create.response.items[one]}}"))
+				.hasMessageContaining("Invalid array index");
+		assertThatThrownBy(() -> RequestTemplate.compile("posts/{{create.response.id"))
+				.hasMessageContaining("Unterminated reference");
+		assertThat(RequestTemplate.compile("plain").isConstant()).isTrue();
+	}
+
+}